@@ -0,0 +1,15 @@
+package ru.anikeeva.finance.annotations;
+
+import org.hibernate.annotations.IdGeneratorType;
+import ru.anikeeva.finance.generators.UuidV7Generator;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@IdGeneratorType(UuidV7Generator.class)
+public @interface UuidV7 {
+}
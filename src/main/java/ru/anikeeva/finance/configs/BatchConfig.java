@@ -7,60 +7,104 @@ import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.database.BeanPropertyItemSqlParameterSourceProvider;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
-import org.springframework.batch.item.file.FlatFileItemReader;
-import org.springframework.batch.item.file.mapping.DefaultLineMapper;
-import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 import ru.anikeeva.finance.dto.budget.TransactionImportDto;
 import ru.anikeeva.finance.entities.budget.Transaction;
-import ru.anikeeva.finance.exceptions.BadDataException;
 import ru.anikeeva.finance.listeners.ImportJobExecutionListener;
+import ru.anikeeva.finance.listeners.ImportProgressListener;
 import ru.anikeeva.finance.listeners.TransactionSkipListener;
-import ru.anikeeva.finance.mappers.TransactionFieldSetMapper;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
 import ru.anikeeva.finance.repositories.budget.TransactionRepository;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+import ru.anikeeva.finance.services.budget.CurrencyRateService;
+import ru.anikeeva.finance.services.budget.TransactionProcessor;
+import ru.anikeeva.finance.services.imports.ImportProgressService;
+import ru.anikeeva.finance.services.imports.ImportSkipPolicy;
+import ru.anikeeva.finance.services.imports.StatementFormat;
+import ru.anikeeva.finance.services.imports.TransactionDuplicateFilter;
+import ru.anikeeva.finance.services.imports.TransactionDuplicateWriter;
+import ru.anikeeva.finance.services.imports.TransactionFilePartitioner;
+import ru.anikeeva.finance.services.imports.TransactionTotalsWriter;
 import ru.anikeeva.finance.services.user.UserService;
 import ru.anikeeva.finance.services.websocket.WebSocketNotificationService;
 
 import javax.sql.DataSource;
+import java.nio.file.Path;
 
 @Configuration
 @EnableBatchProcessing
 @Slf4j
 @RequiredArgsConstructor
 public class BatchConfig {
+    public static final int IMPORT_CHUNK_SIZE = 100;
+    public static final int IMPORT_SKIP_LIMIT = 10;
+    public static final String IMPORT_WORKER_STEP = "importWorkerStep";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
     @Bean
-    public Step importStep(FlatFileItemReader<TransactionImportDto> reader,
-                           ItemProcessor<TransactionImportDto, Transaction> processor,
-                           JdbcBatchItemWriter<Transaction> writer,
-                           TransactionSkipListener skipListener) {
+    public Step importStep(TransactionFilePartitioner transactionFilePartitioner, Step importWorkerStep,
+                           @Value("${imports.partition.grid-size}") int gridSize,
+                           @Value("${imports.partition.threads}") int threads) {
+        SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("import-partition-");
+        taskExecutor.setVirtualThreads(true);
+        taskExecutor.setConcurrencyLimit(threads);
         return new StepBuilder("importStep", jobRepository)
-            .<TransactionImportDto, Transaction>chunk(100, transactionManager)
+            .partitioner(IMPORT_WORKER_STEP, transactionFilePartitioner)
+            .step(importWorkerStep)
+            .gridSize(gridSize)
+            .taskExecutor(taskExecutor)
+            .build();
+    }
+
+    @Bean
+    public Step importWorkerStep(ItemStreamReader<TransactionImportDto> reader,
+                                 ItemProcessor<TransactionImportDto, Transaction> processor,
+                                 TransactionDuplicateWriter writer,
+                                 TransactionSkipListener skipListener,
+                                 ImportProgressListener progressListener) {
+        return new StepBuilder(IMPORT_WORKER_STEP, jobRepository)
+            .<TransactionImportDto, Transaction>chunk(IMPORT_CHUNK_SIZE, transactionManager)
             .reader(reader)
             .processor(processor)
             .writer(writer)
             .faultTolerant()
-            .skip(BadDataException.class)
-            .skipLimit(10)
+            .processorNonTransactional()
+            .skipPolicy(new ImportSkipPolicy(IMPORT_SKIP_LIMIT, IMPORT_WORKER_STEP))
             .listener(skipListener)
+            .listener(progressListener)
             .build();
     }
 
+    @Bean
+    @StepScope
+    public TransactionFilePartitioner transactionFilePartitioner(
+        @Value("#{jobParameters['input.file.path']}") String path,
+        @Value("#{jobParameters['userId']}") String userId,
+        @Value("${imports.partition.min-bytes}") long minPartitionBytes,
+        UserService userService,
+        CurrencyRateService currencyRateService) {
+        TransactionProcessor keys = new TransactionProcessor(userId, userService, currencyRateService, null);
+        keys.prepare(null);
+        return new TransactionFilePartitioner(Path.of(path), minPartitionBytes, keys::fingerprintKey);
+    }
+
     @Bean
     public Job importJob(JobRepository jobRepository, Step importStep, JobExecutionListener jobListener) {
         return new JobBuilder("importJob", jobRepository)
@@ -72,45 +116,52 @@ public class BatchConfig {
     @Bean
     public JobExecutionListener importJobExecutionListener(UserService userService,
                                                            TransactionRepository transactionRepository,
-                                                           WebSocketNotificationService notificationService) {
-        return new ImportJobExecutionListener(userService, transactionRepository, notificationService);
+                                                           WebSocketNotificationService notificationService,
+                                                           ImportProgressService progressService,
+                                                           JobExplorer jobExplorer) {
+        return new ImportJobExecutionListener(userService, transactionRepository, notificationService,
+            progressService, jobExplorer);
     }
 
     @Bean
     @StepScope
-    public FlatFileItemReader<TransactionImportDto> transactionItemReader(@Value("#{jobParameters['input.file.path']}")
-                                                                              String path) {
-        FlatFileItemReader<TransactionImportDto> reader = new FlatFileItemReader<>();
-        reader.setEncoding("UTF-8");
-        reader.setResource(new FileSystemResource(path));
-        reader.setLinesToSkip(1);
-        DefaultLineMapper<TransactionImportDto> lineMapper = new DefaultLineMapper<>();
-        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
-        tokenizer.setNames("type", "category", "initialAmount", "initialCurrency", "dateTime", "description");
-        tokenizer.setDelimiter(",");
-        lineMapper.setLineTokenizer(tokenizer);
-        lineMapper.setFieldSetMapper(new TransactionFieldSetMapper());
-        reader.setLineMapper(lineMapper);
-        return reader;
+    public ItemStreamReader<TransactionImportDto> transactionItemReader(
+        @Value("#{jobParameters['input.file.path']}") String path,
+        @Value("#{stepExecutionContext['" + TransactionFilePartitioner.START_KEY + "']}") Long start,
+        @Value("#{stepExecutionContext['" + TransactionFilePartitioner.END_KEY + "']}") Long end) {
+        return StatementFormat.reader(Path.of(path), start, end);
     }
 
     @Bean
-    public JdbcBatchItemWriter<Transaction> transactionItemWriter(DataSource dataSource) {
+    @StepScope
+    public TransactionDuplicateFilter transactionDuplicateFilter(
+        TransactionBatchRepository transactionBatchRepository,
+        TransactionArchiveService transactionArchiveService,
+        @Value("#{jobParameters['input.file.path']}") String path,
+        @Value("#{stepExecutionContext['" + TransactionFilePartitioner.START_KEY + "']}") Long start,
+        @Value("#{stepExecutionContext['" + TransactionFilePartitioner.END_KEY + "']}") Long end,
+        @Value("${imports.dedup.false-positive-rate}") double falsePositiveRate) {
+        return new TransactionDuplicateFilter(transactionBatchRepository, transactionArchiveService, Path.of(path),
+            start, end, falsePositiveRate);
+    }
+
+    @Bean
+    @StepScope
+    public TransactionDuplicateWriter transactionItemWriter(DataSource dataSource,
+                                                            TransactionDuplicateFilter duplicateFilter) {
         JdbcBatchItemWriter<Transaction> writer = new JdbcBatchItemWriter<>();
         writer.setItemSqlParameterSourceProvider(new BeanPropertyItemSqlParameterSourceProvider<>());
-        String sql = "INSERT INTO transaction (id, user_id, type, category, initial_amount, initial_currency, date_time, description, amount_in_base_currency, job_id) " +
-            "VALUES (:id, :user.id, :typeAsString, :categoryAsString, :initialAmount, :currencyCode, :dateTime, :description, :amountInBaseCurrency, :jobId)";
-        writer.setSql(sql);
+        writer.setSql(TransactionBatchRepository.INSERT_SQL);
         writer.setDataSource(dataSource);
         writer.afterPropertiesSet();
-        return writer;
+        return new TransactionDuplicateWriter(duplicateFilter, new TransactionTotalsWriter(writer));
     }
 
     @Bean
-    public JobLauncher asyncJobLauncher() throws Exception {
+    public JobLauncher importJobLauncher() throws Exception {
         TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
         jobLauncher.setJobRepository(jobRepository);
-        jobLauncher.setTaskExecutor(new SimpleAsyncTaskExecutor());
+        jobLauncher.setTaskExecutor(new SyncTaskExecutor());
         jobLauncher.afterPropertiesSet();
         return jobLauncher;
     }
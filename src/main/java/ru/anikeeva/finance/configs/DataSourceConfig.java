@@ -0,0 +1,67 @@
+package ru.anikeeva.finance.configs;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.anikeeva.finance.datasource.ReadYourWritesRegistry;
+import ru.anikeeva.finance.datasource.ReplicaLagMonitor;
+import ru.anikeeva.finance.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class DataSourceConfig {
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSourceProperties properties, MeterRegistry meterRegistry,
+                                               @Value("${datasource.replica.urls}") String[] urls,
+                                               @Value("${datasource.replica.maximum-pool-size}") int maximumPoolSize,
+                                               @Value("${datasource.replica.max-lag-in-ms}") long maxLagInMs) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : urls) {
+            if (url.isBlank()) continue;
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url.trim())
+                .build();
+            replica.setPoolName(name);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(name, replica);
+        }
+        return new ReplicaLagMonitor(replicas, maxLagInMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLagMonitor replicaLagMonitor,
+                                 ReadYourWritesRegistry readYourWritesRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        if (!replicaLagMonitor.replicas().isEmpty()) {
+            ReplicaRoutingDataSource replicaRouting =
+                new ReplicaRoutingDataSource(primaryDataSource, replicaLagMonitor, readYourWritesRegistry);
+            replicaRouting.afterPropertiesSet();
+            dataSource.setReadOnlyDataSource(replicaRouting);
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,16 @@
+package ru.anikeeva.finance.configs;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+import ru.anikeeva.finance.repositories.budget.TransactionSpecifications;
+
+public class PostgresFunctionContributor implements FunctionContributor {
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+            TransactionSpecifications.DESCRIPTION_MATCHES_FUNCTION,
+            "to_tsvector('russian', coalesce(?1, '')) @@ plainto_tsquery('russian', ?2)",
+            functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN));
+    }
+}
@@ -23,6 +23,7 @@ import ru.anikeeva.finance.dto.budget.CreateBudgetRequest;
 import ru.anikeeva.finance.dto.budget.CreateBudgetResponse;
 import ru.anikeeva.finance.dto.budget.ReadBudgetResponse;
 import ru.anikeeva.finance.dto.budget.UpdateBudgetRequest;
+import ru.anikeeva.finance.executors.UserWriteLaneExecutor;
 import ru.anikeeva.finance.security.impl.UserDetailsImpl;
 import ru.anikeeva.finance.services.budget.BudgetService;
 
@@ -35,6 +36,7 @@ import java.util.UUID;
 @Validated
 public class BudgetController {
     private final BudgetService budgetService;
+    private final UserWriteLaneExecutor writeLaneExecutor;
 
     @PostMapping
     @Operation(summary = "Создание бюджета")
@@ -42,7 +44,8 @@ public class BudgetController {
         @AuthenticationPrincipal UserDetailsImpl currentUser,
         @RequestBody @Valid CreateBudgetRequest request
     ) {
-        return ResponseEntity.ok(budgetService.createBudget(currentUser, request));
+        return ResponseEntity.ok(writeLaneExecutor.execute(currentUser.getId(), () ->
+            budgetService.createBudget(currentUser, request)));
     }
 
     @GetMapping
@@ -68,14 +71,15 @@ public class BudgetController {
         @PathVariable UUID id,
         @RequestBody @Valid UpdateBudgetRequest request
     ) {
-        return ResponseEntity.ok(budgetService.updateBudget(currentUser, id, request));
+        return ResponseEntity.ok(writeLaneExecutor.execute(currentUser.getId(), () ->
+            budgetService.updateBudget(currentUser, id, request)));
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Удаление бюджета")
     public ResponseEntity<Void> deleteBudget(@AuthenticationPrincipal UserDetailsImpl currentUser,
                                              @PathVariable UUID id) {
-        budgetService.deleteBudget(currentUser, id);
+        writeLaneExecutor.run(currentUser.getId(), () -> budgetService.deleteBudget(currentUser, id));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
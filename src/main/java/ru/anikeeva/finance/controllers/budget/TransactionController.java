@@ -2,7 +2,10 @@ package ru.anikeeva.finance.controllers.budget;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -12,17 +15,30 @@ import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import ru.anikeeva.finance.dto.budget.CreateTransactionBatchResponse;
 import ru.anikeeva.finance.dto.budget.CreateTransactionRequest;
 import ru.anikeeva.finance.dto.budget.CreateTransactionResponse;
+import ru.anikeeva.finance.dto.budget.ImportJobResponse;
 import ru.anikeeva.finance.dto.budget.TransactionResponse;
+import ru.anikeeva.finance.dto.budget.TransactionSearchRequest;
+import ru.anikeeva.finance.dto.budget.TransactionSliceResponse;
 import ru.anikeeva.finance.dto.budget.UpdateTransactionRequest;
+import ru.anikeeva.finance.dto.notifications.ImportProgressNotification;
+import ru.anikeeva.finance.executors.UserWriteLaneExecutor;
 import ru.anikeeva.finance.security.impl.UserDetailsImpl;
 import ru.anikeeva.finance.services.budget.TransactionService;
+import ru.anikeeva.finance.services.idempotency.IdempotencyService;
+import ru.anikeeva.finance.services.imports.ImportStatusService;
+import ru.anikeeva.finance.services.imports.TransactionStreamImportService;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Tag(name = "Транзакции", description = "Контроллер управления транзакциями")
@@ -31,14 +47,35 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final UserWriteLaneExecutor writeLaneExecutor;
+    private final IdempotencyService idempotencyService;
+    private final TransactionStreamImportService streamImportService;
+    private final ImportStatusService importStatusService;
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     @Operation(summary = "Создание транзакции", description = "Создает новую транзакцию для текущего пользователя")
     @PostMapping
     public ResponseEntity<CreateTransactionResponse> createTransaction(
-        @AuthenticationPrincipal UserDetailsImpl currentUser, @RequestBody CreateTransactionRequest request
+        @AuthenticationPrincipal UserDetailsImpl currentUser, @RequestBody CreateTransactionRequest request,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     )
     {
-        return ResponseEntity.ok(transactionService.createTransaction(currentUser, request));
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, currentUser.getId(),
+            idempotencyService.fingerprintOf(request), CreateTransactionResponse.class, () ->
+                writeLaneExecutor.execute(currentUser.getId(), () ->
+                    transactionService.createTransaction(currentUser, request))));
+    }
+
+    @Operation(summary = "Пакетное создание транзакций",
+        description = "Создает до 1000 транзакций за один запрос и возвращает результат по каждой из них")
+    @PostMapping("/batch")
+    public ResponseEntity<CreateTransactionBatchResponse> createTransactions(
+        @AuthenticationPrincipal UserDetailsImpl currentUser, @RequestBody List<CreateTransactionRequest> requests
+    )
+    {
+        return ResponseEntity.ok(writeLaneExecutor.execute(currentUser.getId(), () ->
+            transactionService.createTransactions(currentUser, requests)));
     }
 
     @Operation(summary = "Просмотр транзакции", description = "Отображает информацию о выбранной транзакции")
@@ -49,34 +86,88 @@ public class TransactionController {
     }
 
     @Operation(summary = "Просмотр всех транзакций", description = "Отображает список транзакций текущего пользователя")
-    @GetMapping
+    @GetMapping(params = "page")
     public ResponseEntity<Page<TransactionResponse>> findTransactions(
         @AuthenticationPrincipal UserDetailsImpl currentUser, @RequestParam int page, @RequestParam int limit) {
         return ResponseEntity.ok(transactionService.showAllTransactions(currentUser, page, limit));
     }
 
+    @Operation(summary = "Просмотр транзакций по курсору",
+        description = "Отображает транзакции текущего пользователя от новых к старым без подсчета общего количества. " +
+            "Для получения следующей части передается курсор из предыдущего ответа")
+    @GetMapping(params = "!page")
+    public ResponseEntity<TransactionSliceResponse> findTransactionsByCursor(
+        @AuthenticationPrincipal UserDetailsImpl currentUser, @RequestParam(required = false) String cursor,
+        @RequestParam int limit) {
+        return ResponseEntity.ok(transactionService.showTransactionsByCursor(currentUser, cursor, limit));
+    }
+
+    @Operation(summary = "Поиск транзакций",
+        description = "Ищет транзакции текущего пользователя по фильтрам и тексту описания, " +
+            "результаты отсортированы от новых к старым и разбиты на части по курсору")
+    @GetMapping("/search")
+    public ResponseEntity<TransactionSliceResponse> searchTransactions(
+        @AuthenticationPrincipal UserDetailsImpl currentUser, @ParameterObject @Valid TransactionSearchRequest request,
+        @RequestParam(required = false) String cursor, @RequestParam int limit) {
+        return ResponseEntity.ok(transactionService.searchTransactions(currentUser, request, cursor, limit));
+    }
+
     @Operation(summary = "Изменение транзакции",
         description = "Изменяет указанные поля выбранной транзакции текущего пользователя")
     @PatchMapping("/{id}")
     public ResponseEntity<TransactionResponse> updateTransaction(@AuthenticationPrincipal UserDetailsImpl currentUser,
                                                                  @PathVariable UUID id,
                                                                  @RequestBody UpdateTransactionRequest request) {
-        return ResponseEntity.ok(transactionService.updateTransaction(currentUser, id, request));
+        return ResponseEntity.ok(writeLaneExecutor.execute(currentUser.getId(), () ->
+            transactionService.updateTransaction(currentUser, id, request)));
     }
 
     @Operation(summary = "Удаление транзакции", description = "Удаляет выбранную транзакцию текущего пользователя")
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@AuthenticationPrincipal UserDetailsImpl currentUser,
                                                   @PathVariable UUID id) {
-        transactionService.deleteTransaction(currentUser, id);
+        writeLaneExecutor.run(currentUser.getId(), () -> transactionService.deleteTransaction(currentUser, id));
         return ResponseEntity.noContent().build();
     }
 
     @Operation(summary = "Импорт транзакций из файла .csv",
         description = "Позволяет загрузить файл .csv с транзакциями, который инициирует batch-обработку и запись в базу")
     @PostMapping("/import")
-    public ResponseEntity<String> uploadFileWithTransactions(@AuthenticationPrincipal UserDetailsImpl currentUser,
-                                                             @RequestParam MultipartFile file) {
-        return ResponseEntity.ok(transactionService.uploadFileWithTransactions(currentUser, file));
+    public ResponseEntity<ImportJobResponse> uploadFileWithTransactions(
+        @AuthenticationPrincipal UserDetailsImpl currentUser, @RequestParam MultipartFile file,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        String fingerprint = idempotencyKey == null ? null : idempotencyService.fingerprintOf(file);
+        return ResponseEntity.ok(idempotencyService.execute(idempotencyKey, currentUser.getId(), fingerprint,
+            ImportJobResponse.class, () -> transactionService.uploadFileWithTransactions(currentUser, file)));
+    }
+
+    @Operation(summary = "Потоковый импорт транзакций из файла выписки",
+        description = "Разбирает тело запроса по мере поступления и сохраняет транзакции частями по 100 строк. " +
+            "Выписки OFX, QIF и CAMT.053 разбираются теми же ридерами, что и в batch-импорте. " +
+            "Крупные файлы и запросы с restartable=true сохраняются на диск и обрабатываются batch-задачей")
+    @PostMapping(value = "/import/stream", consumes = {"text/csv", "text/plain", "text/xml", "application/xml",
+        "application/x-ofx", "application/octet-stream"})
+    public ResponseEntity<ImportJobResponse> streamTransactions(
+        @AuthenticationPrincipal UserDetailsImpl currentUser, HttpServletRequest request,
+        @RequestParam(defaultValue = "false") boolean restartable,
+        @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) throws IOException {
+        long contentLength = request.getContentLengthLong();
+        String fingerprint = idempotencyKey == null ? null : idempotencyService.fingerprintOf(Map.of(
+            "contentType", String.valueOf(request.getContentType()), "contentLength", contentLength,
+            "restartable", restartable));
+        return ResponseEntity.ok(idempotencyService.executeStreaming(idempotencyKey, currentUser.getId(), fingerprint,
+            request.getInputStream(), ImportJobResponse.class, body -> streamImportService.importTransactions(
+                currentUser, body, contentLength, restartable)));
+    }
+
+    @Operation(summary = "Состояние импорта транзакций",
+        description = "Возвращает позицию в очереди или прогресс импорта по идентификатору задачи. " +
+            "Те же данные во время импорта публикуются в /topic/imports/{jobId}")
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportProgressNotification> getImportStatus(
+        @AuthenticationPrincipal UserDetailsImpl currentUser, @PathVariable String jobId) {
+        return ResponseEntity.ok(importStatusService.getStatus(currentUser.getId(), jobId));
     }
-}
\ No newline at end of file
+}
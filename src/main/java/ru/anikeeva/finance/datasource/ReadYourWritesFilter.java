@@ -0,0 +1,33 @@
+package ru.anikeeva.finance.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReadYourWritesRegistry readYourWritesRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        UUID userId = SAFE_METHODS.contains(request.getMethod()) ? null : ReadYourWritesRegistry.currentUserId();
+        if (userId != null) readYourWritesRegistry.recordWrite(userId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (userId != null) readYourWritesRegistry.recordWrite(userId);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.anikeeva.finance.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+@Component
+public class ReadYourWritesRegistry {
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final Map<UUID, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long windowInMs;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ReadYourWritesRegistry(@Value("${datasource.replica.read-your-writes-window-in-ms}") long windowInMs) {
+        this(windowInMs, System::currentTimeMillis);
+    }
+
+    ReadYourWritesRegistry(final long windowInMs, final LongSupplier clock) {
+        this.windowInMs = windowInMs;
+        this.clock = clock;
+    }
+
+    public void recordWrite(final UUID userId) {
+        long now = clock.getAsLong();
+        lastWrites.put(userId, now);
+        if (lastWrites.size() > CLEANUP_THRESHOLD) {
+            lastWrites.values().removeIf(writtenAt -> now - writtenAt > windowInMs);
+        }
+    }
+
+    public boolean isSticky(final UUID userId) {
+        if (userId == null) return false;
+        Long writtenAt = lastWrites.get(userId);
+        if (writtenAt == null) return false;
+        if (clock.getAsLong() - writtenAt > windowInMs) {
+            lastWrites.remove(userId, writtenAt);
+            return false;
+        }
+        return true;
+    }
+
+    public static UUID currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserDetailsImpl user
+            ? user.getId()
+            : null;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.anikeeva.finance.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+    private static final String LAG_SQL = """
+        SELECT CASE
+                   WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                   ELSE (EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+               END
+        """;
+
+    private final Map<String, DataSource> replicas;
+    private final Map<String, Double> lagsInMs = new ConcurrentHashMap<>();
+    private final long maxLagInMs;
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaLagMonitor(final Map<String, DataSource> replicas, final long maxLagInMs,
+                             final MeterRegistry meterRegistry) {
+        this.replicas = Map.copyOf(replicas);
+        this.maxLagInMs = maxLagInMs;
+        for (String name : replicas.keySet()) {
+            lagsInMs.put(name, Double.NaN);
+            Gauge.builder("finance.datasource.replica.lag", lagsInMs, lags -> lags.getOrDefault(name, Double.NaN))
+                .description("Отставание реплики от основной базы в миллисекундах")
+                .tag("replica", name)
+                .register(meterRegistry);
+        }
+    }
+
+    public Map<String, DataSource> replicas() {
+        return replicas;
+    }
+
+    public List<String> healthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public void refresh() {
+        List<String> available = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            Long lag = measureLag(replica.getKey(), replica.getValue());
+            lagsInMs.put(replica.getKey(), lag == null ? Double.NaN : lag.doubleValue());
+            if (lag == null) continue;
+            if (lag <= maxLagInMs) {
+                available.add(replica.getKey());
+            } else {
+                log.warn("Реплика {} отстает на {} мс и исключена из чтения", replica.getKey(), lag);
+            }
+        }
+        available.sort(null);
+        if (!available.equals(healthyReplicas)) {
+            log.info("Состав реплик для чтения изменился: {}", available);
+        }
+        healthyReplicas = List.copyOf(available);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    private Long measureLag(final String name, final DataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(LAG_SQL)) {
+            return resultSet.next() ? resultSet.getLong(1) : null;
+        } catch (SQLException e) {
+            log.warn("Реплика {} недоступна: {}", name, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package ru.anikeeva.finance.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesRegistry readYourWritesRegistry;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(final DataSource primary, final ReplicaLagMonitor replicaLagMonitor,
+                                    final ReadYourWritesRegistry readYourWritesRegistry) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesRegistry = readYourWritesRegistry;
+        Map<Object, Object> targets = new HashMap<>(replicaLagMonitor.replicas());
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (readYourWritesRegistry.isSticky(ReadYourWritesRegistry.currentUserId())) return PRIMARY;
+        List<String> healthy = replicaLagMonitor.healthyReplicas();
+        if (healthy.isEmpty()) return PRIMARY;
+        return healthy.get(Math.floorMod(counter.getAndIncrement(), healthy.size()));
+    }
+}
@@ -0,0 +1,18 @@
+package ru.anikeeva.finance.dto.budget;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Ответ на запрос пакетного создания транзакций")
+public record CreateTransactionBatchResponse(
+    @Schema(description = "Число созданных транзакций")
+    int created,
+
+    @Schema(description = "Число отклоненных транзакций")
+    int rejected,
+
+    @Schema(description = "Результаты по каждой транзакции в порядке запроса")
+    List<TransactionBatchItemResult> results
+)
+{}
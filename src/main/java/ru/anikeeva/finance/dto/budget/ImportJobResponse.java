@@ -0,0 +1,25 @@
+package ru.anikeeva.finance.dto.budget;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Ответ на запрос импорта транзакций из файла")
+public record ImportJobResponse(
+    @Schema(description = "Идентификатор задачи импорта, отсутствует при потоковом импорте")
+    String jobId,
+
+    @Schema(description = "Позиция в очереди импорта, 0 — импорт уже запущен")
+    int queuePosition,
+
+    @Schema(description = "Число сохраненных транзакций, заполняется при потоковом импорте")
+    Long imported,
+
+    @Schema(description = "Число пропущенных строк с ошибками, заполняется при потоковом импорте")
+    Long skipped,
+
+    @Schema(description = "Число пропущенных дубликатов, заполняется при потоковом импорте")
+    Long duplicates,
+
+    @Schema(description = "Сообщение о состоянии импорта")
+    String message
+)
+{}
@@ -0,0 +1,21 @@
+package ru.anikeeva.finance.dto.budget;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Результат создания транзакции из пакета")
+public record TransactionBatchItemResult(
+    @Schema(description = "Порядковый номер транзакции в запросе, начиная с 0")
+    int index,
+
+    @Schema(description = "Уникальный идентификатор созданной транзакции")
+    UUID id,
+
+    @Schema(description = "Флаг успеха создания транзакции")
+    boolean isSuccess,
+
+    @Schema(description = "Причина отказа в создании транзакции")
+    String error
+)
+{}
@@ -0,0 +1,43 @@
+package ru.anikeeva.finance.dto.budget;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import org.springframework.format.annotation.DateTimeFormat;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.Set;
+
+@Schema(description = "Фильтры поиска транзакций, все поля необязательны")
+public record TransactionSearchRequest(
+    @Schema(description = "Тип транзакции - доход или расход", example = "EXPENSE")
+    ETransactionType type,
+
+    @Schema(description = "Категории транзакций", example = "[\"FOOD\", \"CAFE\"]")
+    Set<ETransactionCategory> categories,
+
+    @Schema(description = "Минимальная сумма в базовой валюте пользователя", example = "100.00")
+    BigDecimal minAmount,
+
+    @Schema(description = "Максимальная сумма в базовой валюте пользователя", example = "5000.00")
+    BigDecimal maxAmount,
+
+    @Schema(description = "Валюта транзакции", example = "USD")
+    Currency currency,
+
+    @Schema(description = "Начало периода", example = "2025-01-01T00:00:00")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime from,
+
+    @Schema(description = "Конец периода", example = "2025-12-31T23:59:59")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    LocalDateTime to,
+
+    @Schema(description = "Текст для полнотекстового поиска по описанию", example = "корм котенок")
+    @Size(max = 255)
+    String query
+)
+{}
@@ -0,0 +1,18 @@
+package ru.anikeeva.finance.dto.budget;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Часть списка транзакций с курсором продолжения")
+public record TransactionSliceResponse(
+    @Schema(description = "Транзакции, отсортированные от новых к старым")
+    List<TransactionResponse> content,
+
+    @Schema(description = "Курсор для получения следующей части списка")
+    String nextCursor,
+
+    @Schema(description = "Флаг наличия следующей части списка")
+    boolean hasNext
+)
+{}
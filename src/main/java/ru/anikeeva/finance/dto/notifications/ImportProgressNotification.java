@@ -0,0 +1,37 @@
+package ru.anikeeva.finance.dto.notifications;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Состояние импорта транзакций из файла")
+public record ImportProgressNotification(
+    @Schema(description = "Идентификатор задачи импорта")
+    String jobId,
+
+    @Schema(description = "Статус импорта: QUEUED, STARTING, STARTED, COMPLETED, FAILED и т.д.")
+    String status,
+
+    @Schema(description = "Позиция в очереди импорта, 0 — импорт уже запущен")
+    int queuePosition,
+
+    @Schema(description = "Прочитано строк")
+    long read,
+
+    @Schema(description = "Записано транзакций")
+    long written,
+
+    @Schema(description = "Пропущено строк с ошибками")
+    long skipped,
+
+    @Schema(description = "Пропущено транзакций, уже сохраненных ранее")
+    long duplicates,
+
+    @Schema(description = "Оценка общего числа строк в файле")
+    Long estimatedTotal,
+
+    @Schema(description = "Скорость обработки, строк в секунду")
+    double rowsPerSecond,
+
+    @Schema(description = "Оценка оставшегося времени в секундах")
+    Long etaSeconds
+)
+{}
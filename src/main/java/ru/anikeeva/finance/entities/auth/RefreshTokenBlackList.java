@@ -9,6 +9,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import ru.anikeeva.finance.annotations.UuidV7;
 
 import java.util.UUID;
 
@@ -20,7 +21,7 @@ import java.util.UUID;
 @Builder
 public class RefreshTokenBlackList {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(name = "token", nullable = false, unique = true)
@@ -14,6 +14,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.anikeeva.finance.annotations.UuidV7;
 import ru.anikeeva.finance.entities.enums.EBudgetPeriod;
 import ru.anikeeva.finance.entities.enums.ETransactionCategory;
 import ru.anikeeva.finance.entities.user.User;
@@ -30,7 +31,7 @@ import java.util.UUID;
 @Table(name = "budgets")
 public class Budget {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @ManyToOne
@@ -13,6 +13,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.UpdateTimestamp;
+import ru.anikeeva.finance.annotations.UuidV7;
 import ru.anikeeva.finance.entities.enums.ECurrencySource;
 
 import java.math.BigDecimal;
@@ -29,7 +30,7 @@ import java.util.UUID;
 @Table(name = "currency_rates")
 public class CurrencyRate {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(name = "currency", nullable = false)
@@ -8,12 +8,12 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.anikeeva.finance.annotations.UuidV7;
 import ru.anikeeva.finance.entities.enums.ETransactionCategory;
 import ru.anikeeva.finance.entities.enums.ETransactionType;
 import ru.anikeeva.finance.entities.user.User;
@@ -24,7 +24,6 @@ import java.util.Currency;
 import java.util.UUID;
 
 @Entity
-@Table
 @Getter
 @Setter
 @Builder
@@ -32,7 +31,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Transaction {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @ManyToOne
@@ -65,6 +64,9 @@ public class Transaction {
     @Column(name = "job_id")
     private Long jobId;
 
+    @Column(name = "fingerprint")
+    private String fingerprint;
+
     @Override
     public String toString() {
         return "Transaction [id=" + id + ", user=" + user + ", initialAmount=" + initialAmount + ", category=" + category;
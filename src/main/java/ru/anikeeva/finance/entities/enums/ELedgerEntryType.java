@@ -0,0 +1,8 @@
+package ru.anikeeva.finance.entities.enums;
+
+public enum ELedgerEntryType {
+    OPENING,
+    TRANSACTION,
+    REVERSAL,
+    IMPORT
+}
@@ -0,0 +1,7 @@
+package ru.anikeeva.finance.entities.enums;
+
+public enum EOutboxEventType {
+    TRANSACTION_CREATED,
+    TRANSACTION_UPDATED,
+    TRANSACTION_DELETED
+}
@@ -0,0 +1,62 @@
+package ru.anikeeva.finance.entities.ledger;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import ru.anikeeva.finance.annotations.UuidV7;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Immutable
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "balance_snapshot")
+public class BalanceSnapshot {
+    @Id
+    @UuidV7
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private UUID userId;
+
+    @Column(name = "last_entry_id", nullable = false, updatable = false)
+    private long lastEntryId;
+
+    @Column(name = "balance", nullable = false, updatable = false)
+    private BigDecimal balance;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Override
+    public String toString() {
+        return "BalanceSnapshot [userId=" + userId + ", lastEntryId=" + lastEntryId + ", balance=" + balance + "]";
+    }
+
+    @Override
+    public int hashCode() {
+        return id == null ? 0 : id.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        BalanceSnapshot other = (BalanceSnapshot) obj;
+        return id != null && id.equals(other.id);
+    }
+}
@@ -12,7 +12,7 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.UuidGenerator;
+import ru.anikeeva.finance.annotations.UuidV7;
 import ru.anikeeva.finance.entities.user.User;
 
 import java.sql.Timestamp;
@@ -28,7 +28,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class VerificationToken {
     @Id
-    @UuidGenerator
+    @UuidV7
     UUID id;
 
     @Column(name = "token")
@@ -7,11 +7,15 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+import ru.anikeeva.finance.annotations.UuidV7;
 import ru.anikeeva.finance.entities.enums.ERole;
 
 import java.math.BigDecimal;
@@ -20,6 +24,7 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Getter
 @Setter
 @Builder
@@ -27,7 +32,7 @@ import java.util.UUID;
 @AllArgsConstructor
 public class User {
     @Id
-    @GeneratedValue
+    @UuidV7
     private UUID id;
 
     @Column(name = "username", unique = true, nullable = false)
@@ -43,7 +48,7 @@ public class User {
     @Column(name = "role", nullable = false)
     private ERole role;
 
-    @Column(name = "balance")
+    @Column(name = "balance", updatable = false)
     private BigDecimal balance;
 
     @Column(name = "base_currency")
@@ -58,6 +63,11 @@ public class User {
     @Column(name = "is_mailing_agree", nullable = false)
     private Boolean isMailingAgree = false;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Override
     public String toString() {
         return username;
@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -71,7 +72,8 @@ public class GlobalExceptionHandler {
     @ExceptionHandler({
         IntegrationException.class,
         BadDataException.class,
-        BudgetLimitExceedingException.class
+        BudgetLimitExceedingException.class,
+        IdempotencyConflictException.class
     })
     public ResponseEntity<ErrorResponse> handleIntegrationException(Exception e, HttpServletRequest request) {
         log.error("Перехвачен {}: {} | URI: {}", e.getClass().getSimpleName(), e.getMessage(), request.getRequestURI());
@@ -85,6 +87,49 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailureException(
+        ObjectOptimisticLockingFailureException e, HttpServletRequest request) {
+        log.error("Перехвачен ObjectOptimisticLockingFailureException: {} | URI: {}", e.getMessage(),
+            request.getRequestURI());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.CONFLICT.value(),
+            HttpStatus.CONFLICT.getReasonPhrase(),
+            "Данные были изменены параллельным запросом, повторите операцию",
+            request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(WriteLaneOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleWriteLaneOverloadedException(WriteLaneOverloadedException e,
+                                                                            HttpServletRequest request) {
+        log.error("Перехвачен WriteLaneOverloadedException: {} | URI: {}", e.getMessage(), request.getRequestURI());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+            e.getMessage(),
+            request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(ImportQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleImportQueueFullException(ImportQueueFullException e,
+                                                                        HttpServletRequest request) {
+        log.error("Перехвачен ImportQueueFullException: {} | URI: {}", e.getMessage(), request.getRequestURI());
+        ErrorResponse error = new ErrorResponse(
+            LocalDateTime.now(),
+            HttpStatus.TOO_MANY_REQUESTS.value(),
+            HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase(),
+            e.getMessage(),
+            request.getRequestURI()
+        );
+        return new ResponseEntity<>(error, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
     @ExceptionHandler(LoginLockException.class)
     public ResponseEntity<ErrorResponse> handleLoginLockException(LoginLockException e, HttpServletRequest request) {
         log.error("Перехвачен LoginLockException: {} | URI: {}", e.getMessage(), request.getRequestURI());
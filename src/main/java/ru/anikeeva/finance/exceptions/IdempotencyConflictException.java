@@ -0,0 +1,7 @@
+package ru.anikeeva.finance.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
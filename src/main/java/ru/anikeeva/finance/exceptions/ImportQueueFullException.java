@@ -0,0 +1,7 @@
+package ru.anikeeva.finance.exceptions;
+
+public class ImportQueueFullException extends RuntimeException {
+    public ImportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.anikeeva.finance.exceptions;
+
+public class WriteLaneOverloadedException extends RuntimeException {
+    public WriteLaneOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,306 @@
+package ru.anikeeva.finance.executors;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.anikeeva.finance.dto.budget.ImportJobResponse;
+import ru.anikeeva.finance.exceptions.ImportQueueFullException;
+import ru.anikeeva.finance.repositories.budget.ImportQueueRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+// Лимиты и очередь действуют в пределах узла: файлы импорта хранятся локально, поэтому импорт выполняет тот узел,
+// который его принял, а после перезапуска восстанавливает свою очередь из import_queue.
+@Component
+@Slf4j
+public class ImportJobScheduler {
+    public static final String INPUT_FILE_PARAMETER = "input.file.path";
+
+    private final JobLauncher jobLauncher;
+    private final Job importJob;
+    private final ImportQueueRepository importQueueRepository;
+    private final Path spoolDirectory;
+    private final int maxConcurrent;
+    private final int queueCapacity;
+    private final Timer waitTimer;
+    private final ExecutorService executor =
+        Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("import-job-", 0).factory());
+    private final Map<UUID, ArrayDeque<PendingImport>> queues = new LinkedHashMap<>();
+    private final Map<UUID, PendingImport> activeImports = new HashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final long createdAt = System.currentTimeMillis();
+
+    public ImportJobScheduler(@Qualifier("importJobLauncher") JobLauncher jobLauncher, Job importJob,
+                              ImportQueueRepository importQueueRepository, MeterRegistry meterRegistry,
+                              @Value("${imports.spool-directory}") Path spoolDirectory,
+                              @Value("${imports.max-concurrent}") int maxConcurrent,
+                              @Value("${imports.queue-capacity}") int queueCapacity) {
+        this.jobLauncher = jobLauncher;
+        this.importJob = importJob;
+        this.importQueueRepository = importQueueRepository;
+        this.spoolDirectory = spoolDirectory;
+        this.maxConcurrent = maxConcurrent;
+        this.queueCapacity = queueCapacity;
+        this.waitTimer = Timer.builder("finance.imports.wait")
+            .description("Время ожидания импорта в очереди")
+            .register(meterRegistry);
+        Gauge.builder("finance.imports.queue.depth", queued, AtomicInteger::get)
+            .description("Число импортов, ожидающих запуска")
+            .register(meterRegistry);
+        Gauge.builder("finance.imports.active", active, AtomicInteger::get)
+            .description("Число выполняющихся импортов")
+            .register(meterRegistry);
+    }
+
+    public synchronized int submit(final UUID userId, final JobParameters parameters) {
+        if (queued.get() >= queueCapacity) {
+            log.warn("Очередь импорта переполнена, запрос пользователя {} отклонен", userId);
+            throw new ImportQueueFullException("Очередь импорта переполнена, повторите попытку позже");
+        }
+        return enqueue(userId, parameters);
+    }
+
+    public Path createSpoolFile() throws IOException {
+        Files.createDirectories(spoolDirectory);
+        return Files.createTempFile(spoolDirectory, "transactions-", ".csv");
+    }
+
+    public ImportJobResponse submitFile(final UUID userId, final Path file) {
+        String jobId = UUID.randomUUID().toString();
+        JobParameters parameters = fileParameters(userId, file, jobId);
+        int queuePosition;
+        try {
+            importQueueRepository.save(jobId, userId, file.toString());
+            try {
+                queuePosition = submit(userId, parameters);
+            } catch (RuntimeException e) {
+                importQueueRepository.delete(jobId);
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            deleteInputFile(parameters);
+            throw e;
+        }
+        return new ImportJobResponse(jobId, queuePosition, null, null, null,
+            queuePosition == 0 ? "Импорт файла запущен" : "Импорт файла поставлен в очередь");
+    }
+
+    public <T> T runExclusive(final UUID userId, final Supplier<T> action) {
+        PendingImport running = new PendingImport(userId, new JobParameters(), System.nanoTime());
+        synchronized (this) {
+            if (activeImports.containsKey(userId) || queues.containsKey(userId)) {
+                log.warn("Импорт пользователя {} уже выполняется, потоковый импорт отклонен", userId);
+                throw new ImportQueueFullException("Импорт пользователя уже выполняется, повторите попытку позже");
+            }
+            if (active.get() >= maxConcurrent) {
+                log.warn("Все слоты импорта заняты, потоковый импорт пользователя {} отклонен", userId);
+                throw new ImportQueueFullException("Очередь импорта переполнена, повторите попытку позже");
+            }
+            active.incrementAndGet();
+            activeImports.put(userId, running);
+        }
+        try {
+            return action.get();
+        } finally {
+            synchronized (this) {
+                active.decrementAndGet();
+                activeImports.remove(userId);
+                dispatch();
+            }
+        }
+    }
+
+    public synchronized QueuedImport findQueued(final String jobId) {
+        for (PendingImport running : activeImports.values()) {
+            if (jobId.equals(running.parameters().getString("jobId"))) return new QueuedImport(running.userId(), 0);
+        }
+        for (ArrayDeque<PendingImport> queue : queues.values()) {
+            for (PendingImport pending : queue) {
+                if (jobId.equals(pending.parameters().getString("jobId"))) {
+                    return new QueuedImport(pending.userId(), positionOf(pending));
+                }
+            }
+        }
+        return null;
+    }
+
+    public synchronized int queueDepth() {
+        return queued.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        Set<Path> pendingFiles = new HashSet<>();
+        int recovered = 0;
+        for (ImportQueueRepository.QueuedFile queuedFile : importQueueRepository.findAll()) {
+            Path file = Path.of(queuedFile.filePath());
+            if (!Files.exists(file)) {
+                log.warn("Файл импорта {} пользователя {} не найден, импорт удален из очереди", file,
+                    queuedFile.userId());
+                importQueueRepository.delete(queuedFile.jobId());
+                continue;
+            }
+            pendingFiles.add(file.toAbsolutePath());
+            synchronized (this) {
+                enqueue(queuedFile.userId(), fileParameters(queuedFile.userId(), file, queuedFile.jobId()));
+            }
+            recovered++;
+        }
+        int deleted = deleteOrphanFiles(pendingFiles);
+        if (recovered > 0 || deleted > 0) {
+            log.info("Восстановлено импортов в очереди: {}, удалено потерянных файлов импорта: {}", recovered,
+                deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private int enqueue(final UUID userId, final JobParameters parameters) {
+        PendingImport pending = new PendingImport(userId, parameters, System.nanoTime());
+        queues.computeIfAbsent(userId, id -> new ArrayDeque<>()).addLast(pending);
+        queued.incrementAndGet();
+        dispatch();
+        return positionOf(pending);
+    }
+
+    private int deleteOrphanFiles(final Set<Path> pendingFiles) {
+        if (!Files.isDirectory(spoolDirectory)) return 0;
+        int deleted = 0;
+        try (Stream<Path> files = Files.list(spoolDirectory)) {
+            for (Path file : files.toList()) {
+                if (pendingFiles.contains(file.toAbsolutePath()) ||
+                    Files.getLastModifiedTime(file).toMillis() >= createdAt) {
+                    continue;
+                }
+                Files.deleteIfExists(file);
+                deleted++;
+            }
+        } catch (IOException e) {
+            log.error("Ошибка очистки каталога файлов импорта {}", spoolDirectory, e);
+        }
+        return deleted;
+    }
+
+    private void dispatch() {
+        while (active.get() < maxConcurrent) {
+            PendingImport next = pollNext();
+            if (next == null) return;
+            active.incrementAndGet();
+            activeImports.put(next.userId(), next);
+            executor.execute(() -> launch(next));
+        }
+    }
+
+    private PendingImport pollNext() {
+        Iterator<Map.Entry<UUID, ArrayDeque<PendingImport>>> iterator = queues.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, ArrayDeque<PendingImport>> entry = iterator.next();
+            if (activeImports.containsKey(entry.getKey())) continue;
+            PendingImport next = entry.getValue().pollFirst();
+            iterator.remove();
+            if (!entry.getValue().isEmpty()) queues.put(entry.getKey(), entry.getValue());
+            queued.decrementAndGet();
+            return next;
+        }
+        return null;
+    }
+
+    private int positionOf(final PendingImport pending) {
+        List<List<PendingImport>> rounds = new ArrayList<>();
+        queues.values().forEach(queue -> rounds.add(new ArrayList<>(queue)));
+        int position = 0;
+        for (int round = 0; round < queueCapacity; round++) {
+            for (List<PendingImport> queue : rounds) {
+                if (round >= queue.size()) continue;
+                position++;
+                if (queue.get(round) == pending) return position;
+            }
+        }
+        return 0;
+    }
+
+    private void launch(final PendingImport pending) {
+        waitTimer.record(System.nanoTime() - pending.submittedAt(), TimeUnit.NANOSECONDS);
+        try {
+            jobLauncher.run(importJob, pending.parameters());
+        } catch (Exception e) {
+            log.error("Не удалось запустить импорт пользователя {}", pending.userId(), e);
+            deleteInputFile(pending.parameters());
+        } finally {
+            forget(pending);
+            synchronized (this) {
+                active.decrementAndGet();
+                activeImports.remove(pending.userId());
+                dispatch();
+            }
+        }
+    }
+
+    private void forget(final PendingImport pending) {
+        String jobId = pending.parameters().getString("jobId");
+        if (jobId == null) return;
+        try {
+            importQueueRepository.delete(jobId);
+        } catch (RuntimeException e) {
+            log.error("Ошибка удаления импорта {} из сохраненной очереди", jobId, e);
+        }
+    }
+
+    private static JobParameters fileParameters(final UUID userId, final Path file, final String jobId) {
+        return new JobParametersBuilder()
+            .addString(INPUT_FILE_PARAMETER, file.toString())
+            .addString("userId", userId.toString())
+            .addLong("time", System.currentTimeMillis())
+            .addString("jobId", jobId)
+            .toJobParameters();
+    }
+
+    private static void deleteInputFile(final JobParameters parameters) {
+        String path = parameters.getString(INPUT_FILE_PARAMETER);
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(Path.of(path));
+        } catch (IOException e) {
+            log.error("Ошибка удаления файла {} после неудачного запуска импорта", path, e);
+        }
+    }
+
+    public record QueuedImport(UUID userId, int position) {
+    }
+
+    private record PendingImport(UUID userId, JobParameters parameters, long submittedAt) {
+    }
+}
@@ -0,0 +1,124 @@
+package ru.anikeeva.finance.executors;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.exceptions.IntegrationException;
+import ru.anikeeva.finance.exceptions.WriteLaneOverloadedException;
+import ru.anikeeva.finance.services.user.RequestUserContext;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class UserWriteLaneExecutor {
+    private static final ThreadLocal<Boolean> IN_LANE = ThreadLocal.withInitial(() -> false);
+    private static final int QUEUED = 0;
+    private static final int RUNNING = 1;
+    private static final int ABANDONED = 2;
+
+    private final ThreadPoolExecutor[] lanes;
+    private final Timer waitTimer;
+    private final long timeoutInSeconds;
+
+    public UserWriteLaneExecutor(MeterRegistry meterRegistry,
+                                 @Value("${write-lanes.count}") int laneCount,
+                                 @Value("${write-lanes.queue-capacity}") int queueCapacity,
+                                 @Value("${write-lanes.timeout-in-seconds}") long timeoutInSeconds) {
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        this.timeoutInSeconds = timeoutInSeconds;
+        for (int i = 0; i < laneCount; i++) {
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofVirtual().name("write-lane-" + i).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+            lanes[i] = lane;
+            Gauge.builder("finance.write-lanes.queue.depth", lane, executor -> executor.getQueue().size())
+                .tag("lane", String.valueOf(i))
+                .register(meterRegistry);
+        }
+        this.waitTimer = Timer.builder("finance.write-lanes.wait").register(meterRegistry);
+    }
+
+    public <T> T execute(final UUID userId, final Supplier<T> action) {
+        if (IN_LANE.get()) {
+            return action.get();
+        }
+        long submittedAt = System.nanoTime();
+        Map<Object, User> requestUsers = RequestUserContext.capture();
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        Future<T> future;
+        try {
+            future = laneFor(userId).submit(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) return null;
+                waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                IN_LANE.set(true);
+                try {
+                    return RequestUserContext.callWith(requestUsers, action);
+                } finally {
+                    IN_LANE.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Очередь операций записи пользователя {} переполнена", userId);
+            throw new WriteLaneOverloadedException("Слишком много одновременных операций, повторите попытку позже");
+        }
+        try {
+            try {
+                return future.get(timeoutInSeconds, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                if (state.compareAndSet(QUEUED, ABANDONED)) {
+                    future.cancel(false);
+                    log.warn("Превышено время ожидания операции записи пользователя {} в очереди", userId);
+                    throw new WriteLaneOverloadedException(
+                        "Слишком много одновременных операций, повторите попытку позже");
+                }
+                log.info("Операция записи пользователя {} уже выполняется, ожидание завершения", userId);
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            if (e.getCause() instanceof Error error) throw error;
+            throw new IntegrationException("Ошибка выполнения операции записи");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Операция записи прервана");
+        }
+    }
+
+    public void run(final UUID userId, final Runnable action) {
+        execute(userId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public int queueDepth(final UUID userId) {
+        return laneFor(userId).getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    private ThreadPoolExecutor laneFor(final UUID userId) {
+        return lanes[Math.floorMod(userId.hashCode(), lanes.length)];
+    }
+}
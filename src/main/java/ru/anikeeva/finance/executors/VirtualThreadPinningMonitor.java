@@ -0,0 +1,86 @@
+package ru.anikeeva.finance.executors;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_LOGGED_FRAMES = 12;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private final Timer pinnedTimer;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinning-diagnostics.enabled}") boolean enabled,
+                                       @Value("${virtual-threads.pinning-diagnostics.threshold-in-ms}")
+                                       long thresholdInMs) {
+        this.enabled = enabled;
+        this.threshold = Duration.ofMillis(thresholdInMs);
+        this.pinnedCounter = Counter.builder("finance.virtual-threads.pinned")
+            .description("Количество закреплений виртуальных потоков за несущими потоками")
+            .register(meterRegistry);
+        this.pinnedTimer = Timer.builder("finance.virtual-threads.pinned.duration")
+            .description("Длительность закрепления виртуальных потоков")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!enabled || recordingStream != null) return;
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        log.info("Диагностика закрепления виртуальных потоков включена, порог {} мс", threshold.toMillis());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (recordingStream == null) return;
+        recordingStream.close();
+        recordingStream = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        pinnedCounter.increment();
+        pinnedTimer.record(event.getDuration());
+        log.warn("Виртуальный поток {} был закреплен за несущим потоком на {} мс:\n{}",
+            event.getThread() == null ? "?" : event.getThread().getJavaName(), event.getDuration().toMillis(),
+            format(event.getStackTrace()));
+    }
+
+    private static String format(final RecordedStackTrace stackTrace) {
+        if (stackTrace == null) return "    стек недоступен";
+        return stackTrace.getFrames().stream()
+            .limit(MAX_LOGGED_FRAMES)
+            .map(VirtualThreadPinningMonitor::format)
+            .collect(Collectors.joining("\n"));
+    }
+
+    private static String format(final RecordedFrame frame) {
+        return "    at " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName() +
+            (frame.isJavaFrame() ? ":" + frame.getLineNumber() : " (native)");
+    }
+}
@@ -5,9 +5,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
-import ru.anikeeva.finance.entities.budget.Transaction;
+import org.springframework.batch.core.explore.JobExplorer;
 import ru.anikeeva.finance.entities.enums.ETransactionType;
 import ru.anikeeva.finance.repositories.budget.TransactionRepository;
+import ru.anikeeva.finance.services.imports.ImportProgressService;
+import ru.anikeeva.finance.services.imports.TransactionTotalsWriter;
+import ru.anikeeva.finance.services.ledger.LedgerService;
 import ru.anikeeva.finance.services.user.UserService;
 import ru.anikeeva.finance.services.websocket.WebSocketNotificationService;
 
@@ -16,7 +19,8 @@ import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.List;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -25,6 +29,8 @@ public class ImportJobExecutionListener implements JobExecutionListener {
     private final UserService userService;
     private final TransactionRepository transactionRepository;
     private final WebSocketNotificationService notificationService;
+    private final ImportProgressService progressService;
+    private final JobExplorer jobExplorer;
 
     @Override
     public void beforeJob(JobExecution jobExecution) {
@@ -36,20 +42,16 @@ public class ImportJobExecutionListener implements JobExecutionListener {
         String jobName = jobExecution.getJobInstance().getJobName();
         BatchStatus status = jobExecution.getStatus();
         String userIdStr = jobExecution.getJobParameters().getString("userId");
+        progressService.complete(jobExecution);
         if (status == BatchStatus.COMPLETED) {
             log.info("Batch Job успешно завершена: {}", jobName);
-            Long jobId = jobExecution.getJobId();
             if (userIdStr != null) {
                 UUID userId = UUID.fromString(userIdStr);
-                List<Transaction> transactions = transactionRepository.findAllByJobId(jobId);
-                BigDecimal totalChange = transactions.stream()
-                    .map(tx -> tx.getType() == ETransactionType.INCOME
-                        ? tx.getInitialAmount()
-                        : tx.getInitialAmount().negate())
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-                userService.recalculateBalance(userId, totalChange);
-                notificationService.notifyJobCompletion(UUID.fromString(userIdStr),
-                    "Импорт файла успешно завершен!"
+                userService.recalculateBalance(userId, totalChange(jobExecution));
+                long duplicates = ImportProgressService.snapshot(jobExecution).duplicates();
+                notificationService.notifyJobCompletion(UUID.fromString(userIdStr), duplicates == 0
+                    ? "Импорт файла успешно завершен!"
+                    : "Импорт файла успешно завершен! Пропущено дубликатов: " + duplicates
                 );
             }
         } else if (status == BatchStatus.FAILED) {
@@ -75,4 +77,21 @@ public class ImportJobExecutionListener implements JobExecutionListener {
             log.error("Ошибка удаления временного файла после выполнения Job: {}", jobName, e);
         }
     }
+
+    private BigDecimal totalChange(final JobExecution jobExecution) {
+        Map<ETransactionType, BigDecimal> totals = null;
+        if (jobExplorer.getJobExecutions(jobExecution.getJobInstance()).size() == 1) {
+            totals = TransactionTotalsWriter.totalsOf(jobExecution);
+        }
+        if (totals == null) {
+            log.info("Итоги импорта {} пересчитываются по сохраненным транзакциям", jobExecution.getJobId());
+            totals = new EnumMap<>(ETransactionType.class);
+            for (Object[] row : transactionRepository.sumAmountsByJobIdGroupByType(jobExecution.getJobId())) {
+                totals.put((ETransactionType) row[0], (BigDecimal) row[1]);
+            }
+        }
+        return totals.entrySet().stream()
+            .map(total -> LedgerService.signedAmount(total.getKey(), total.getValue()))
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
 }
\ No newline at end of file
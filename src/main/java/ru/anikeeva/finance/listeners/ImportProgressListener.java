@@ -0,0 +1,19 @@
+package ru.anikeeva.finance.listeners;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import ru.anikeeva.finance.services.imports.ImportProgressService;
+
+@Component
+@RequiredArgsConstructor
+public class ImportProgressListener implements ChunkListener {
+    private final ImportProgressService progressService;
+
+    @Override
+    public void afterChunk(@NonNull ChunkContext context) {
+        progressService.publish(context.getStepContext().getStepExecution().getJobExecution());
+    }
+}
@@ -1,6 +1,9 @@
 package ru.anikeeva.finance.mappers;
 
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.mapping.FieldSetMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.batch.item.file.transform.FieldSet;
 import org.springframework.lang.NonNull;
 import ru.anikeeva.finance.dto.budget.TransactionImportDto;
@@ -12,6 +15,16 @@ import java.time.format.DateTimeFormatter;
 public class TransactionFieldSetMapper implements FieldSetMapper<TransactionImportDto> {
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
 
+    public static LineMapper<TransactionImportDto> lineMapper() {
+        DefaultLineMapper<TransactionImportDto> lineMapper = new DefaultLineMapper<>();
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames("type", "category", "initialAmount", "initialCurrency", "dateTime", "description");
+        tokenizer.setDelimiter(",");
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(new TransactionFieldSetMapper());
+        return lineMapper;
+    }
+
     @Override
     @NonNull
     public TransactionImportDto mapFieldSet(FieldSet fieldSet) {
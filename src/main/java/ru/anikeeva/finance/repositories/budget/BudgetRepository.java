@@ -9,6 +9,7 @@ import ru.anikeeva.finance.entities.enums.EBudgetPeriod;
 import ru.anikeeva.finance.entities.enums.ETransactionCategory;
 import ru.anikeeva.finance.entities.user.User;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -19,4 +20,6 @@ public interface BudgetRepository extends JpaRepository<Budget, UUID> {
     Page<Budget> findAllByUser(User user, Pageable pageable);
 
     List<Budget> findAllByUserAndCategory(User user, ETransactionCategory category);
+
+    List<Budget> findAllByUserAndCategoryIn(User user, Collection<ETransactionCategory> categories);
 }
\ No newline at end of file
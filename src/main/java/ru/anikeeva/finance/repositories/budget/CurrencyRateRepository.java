@@ -1,10 +1,13 @@
 package ru.anikeeva.finance.repositories.budget;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.anikeeva.finance.entities.budget.CurrencyRate;
 import ru.anikeeva.finance.entities.enums.ECurrencySource;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Currency;
 import java.util.List;
 import java.util.Optional;
@@ -14,4 +17,8 @@ public interface CurrencyRateRepository extends JpaRepository<CurrencyRate, UUID
     Optional<CurrencyRate> findTopByCurrencyAndSourceOrderByUpdatedAtDesc(Currency currency, ECurrencySource source);
 
     List<CurrencyRate> findByUpdatedAtAfter(LocalDateTime since);
+
+    @Query("SELECT r FROM CurrencyRate r WHERE r.currency IN :currencies AND r.updatedAt = " +
+        "(SELECT MAX(r2.updatedAt) FROM CurrencyRate r2 WHERE r2.currency = r.currency AND r2.source = r.source)")
+    List<CurrencyRate> findLatestByCurrencyIn(@Param("currencies") Collection<Currency> currencies);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class ImportExecutionRepository {
+    private static final String FIND_EXECUTION_SQL = "SELECT job_execution_id FROM batch_job_execution_params " +
+        "WHERE parameter_name = 'jobId' AND parameter_value = ? ORDER BY job_execution_id DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Long> findExecutionIdByJobId(final String jobId) {
+        return jdbcTemplate.queryForList(FIND_EXECUTION_SQL, Long.class, jobId).stream().findFirst();
+    }
+}
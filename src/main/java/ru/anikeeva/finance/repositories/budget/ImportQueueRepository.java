@@ -0,0 +1,36 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class ImportQueueRepository {
+    private static final String INSERT_SQL = "INSERT INTO import_queue (job_id, user_id, file_path, submitted_at) " +
+        "VALUES (?, ?, ?, ?)";
+    private static final String FIND_ALL_SQL = "SELECT job_id, user_id, file_path FROM import_queue " +
+        "ORDER BY submitted_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void save(final String jobId, final UUID userId, final String filePath) {
+        jdbcTemplate.update(INSERT_SQL, jobId, userId, filePath, LocalDateTime.now());
+    }
+
+    public void delete(final String jobId) {
+        jdbcTemplate.update("DELETE FROM import_queue WHERE job_id = ?", jobId);
+    }
+
+    public List<QueuedFile> findAll() {
+        return jdbcTemplate.query(FIND_ALL_SQL, (rs, rowNum) -> new QueuedFile(rs.getString("job_id"),
+            rs.getObject("user_id", UUID.class), rs.getString("file_path")));
+    }
+
+    public record QueuedFile(String jobId, UUID userId, String filePath) {
+    }
+}
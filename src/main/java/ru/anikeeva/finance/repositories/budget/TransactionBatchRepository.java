@@ -0,0 +1,68 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.anikeeva.finance.entities.budget.Transaction;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionBatchRepository {
+    public static final String INSERT_SQL = "INSERT INTO transaction (id, user_id, type, category, initial_amount, " +
+        "initial_currency, date_time, description, amount_in_base_currency, job_id, fingerprint) VALUES (:id, " +
+        ":user.id, :typeAsString, :categoryAsString, :initialAmount, :currencyCode, :dateTime, :description, " +
+        ":amountInBaseCurrency, :jobId, :fingerprint)";
+
+    private static final String FINGERPRINTS_IN_RANGE = "FROM transaction WHERE user_id = :userId " +
+        "AND date_time >= :from AND date_time < :to AND fingerprint IS NOT NULL";
+    private static final String EXISTING_FINGERPRINTS_SQL = "SELECT fingerprint FROM transaction " +
+        "WHERE user_id = :userId AND fingerprint IN (:fingerprints)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(final List<Transaction> transactions) {
+        SqlParameterSource[] parameters = transactions.stream()
+            .map(BeanPropertySqlParameterSource::new)
+            .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, parameters);
+    }
+
+    public long countFingerprints(final UUID userId, final LocalDateTime from, final LocalDateTime to) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) " + FINGERPRINTS_IN_RANGE,
+            rangeParameters(userId, from, to), Long.class);
+        return count == null ? 0 : count;
+    }
+
+    public void forEachFingerprint(final UUID userId, final LocalDateTime from, final LocalDateTime to,
+                                   final Consumer<String> consumer) {
+        jdbcTemplate.query("SELECT fingerprint " + FINGERPRINTS_IN_RANGE, rangeParameters(userId, from, to),
+            resultSet -> consumer.accept(resultSet.getString(1)));
+    }
+
+    public Set<String> findExistingFingerprints(final UUID userId, final Collection<String> fingerprints) {
+        if (fingerprints.isEmpty()) return Set.of();
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+            .addValue("userId", userId)
+            .addValue("fingerprints", fingerprints);
+        return new HashSet<>(jdbcTemplate.queryForList(EXISTING_FINGERPRINTS_SQL, parameters, String.class));
+    }
+
+    private static MapSqlParameterSource rangeParameters(final UUID userId, final LocalDateTime from,
+                                                         final LocalDateTime to) {
+        return new MapSqlParameterSource()
+            .addValue("userId", userId)
+            .addValue("from", from)
+            .addValue("to", to);
+    }
+}
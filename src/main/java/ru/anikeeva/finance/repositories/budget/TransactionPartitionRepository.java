@@ -0,0 +1,159 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionPartitionRepository {
+    public static final String TABLE = "transaction";
+    public static final String PARTITIONED_TABLE = "transaction_partitioned";
+    public static final String LEGACY_TABLE = "transaction_legacy";
+
+    private static final long ADVISORY_LOCK_KEY = 7_314_902_551L;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{4}_\\d{2})");
+    private static final List<String> INDEX_SUFFIXES = List.of("user_id_date_time_id", "user_id_type_date_time_id",
+        "user_id_category_date_time_id", "job_id", "description_fts", "user_id_fingerprint_date_time");
+    private static final String COLUMNS = "id, user_id, type, category, initial_amount, initial_currency, " +
+        "amount_in_base_currency, date_time, description, job_id, fingerprint";
+    private static final String BACKFILL_SQL = "WITH batch AS (SELECT " + COLUMNS + " FROM " + TABLE +
+        " WHERE id > ? ORDER BY id LIMIT ? FOR SHARE), copied AS (INSERT INTO " + PARTITIONED_TABLE + " (" + COLUMNS +
+        ") SELECT " + COLUMNS + " FROM batch ON CONFLICT (id, date_time) DO NOTHING) " +
+        "SELECT id FROM batch ORDER BY id DESC LIMIT 1";
+    private static final String FINGERPRINT_BACKFILL_SQL = "WITH batch AS (SELECT id FROM users WHERE id > ? " +
+        "ORDER BY id LIMIT ?), normalized AS (SELECT id, user_id, job_id, type || '|' || " +
+        "to_char(date_time, 'YYYY-MM-DD\"T\"HH24:MI:SS') || '|' || initial_amount::text || '|' || " +
+        "coalesce(initial_currency, '') || '|' || lower(btrim(regexp_replace(coalesce(description, ''), " +
+        "'\\s+', ' ', 'g'))) AS normalized FROM " + TABLE + " WHERE user_id IN (SELECT id FROM batch) " +
+        "AND job_id IS NOT NULL AND initial_amount IS NOT NULL), numbered AS (SELECT id, user_id, " +
+        "encode(sha256(convert_to(normalized || '#' || row_number() OVER (PARTITION BY user_id, job_id, normalized " +
+        "ORDER BY id), 'UTF8')), 'hex') AS fingerprint FROM normalized), deduplicated AS (SELECT id, user_id, " +
+        "fingerprint FROM (SELECT id, user_id, fingerprint, row_number() OVER (PARTITION BY user_id, fingerprint " +
+        "ORDER BY id) AS occurrence FROM numbered) ranked WHERE occurrence = 1), updated AS (UPDATE " + TABLE +
+        " t SET fingerprint = d.fingerprint FROM deduplicated d WHERE t.id = d.id AND t.fingerprint IS NULL " +
+        "AND NOT EXISTS (SELECT 1 FROM " + TABLE + " e WHERE e.user_id = d.user_id AND " +
+        "e.fingerprint = d.fingerprint)) SELECT id FROM batch ORDER BY id DESC LIMIT 1";
+    private static final String PARTITIONS_SQL = "SELECT c.relname FROM pg_inherits i " +
+        "JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?) ORDER BY c.relname";
+    private static final String DETACH_PENDING_SQL = "SELECT coalesce(bool_or(inhdetachpending), false) " +
+        "FROM pg_inherits WHERE inhrelid = to_regclass(?)";
+    private static final String DEFAULT_PARTITION_SQL = "SELECT c.relname FROM pg_partitioned_table p " +
+        "JOIN pg_class c ON c.oid = p.partdefid WHERE p.partrelid = to_regclass(?)";
+    private static final String HAS_DEFAULT_PARTITION_SQL = "SELECT coalesce(bool_or(partdefid <> 0), false) " +
+        "FROM pg_partitioned_table WHERE partrelid = to_regclass(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static String partitionName(final YearMonth month) {
+        return TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    public static YearMonth partitionMonth(final String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        return matcher.matches() ? YearMonth.parse(matcher.group(1), PARTITION_SUFFIX) : null;
+    }
+
+    public boolean tryLockMaintenance(final long lockTimeoutInMs) {
+        jdbcTemplate.queryForObject("SELECT set_config('lock_timeout', ?, true)", String.class,
+            String.valueOf(lockTimeoutInMs));
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+            ADVISORY_LOCK_KEY));
+    }
+
+    public boolean isMigrationPending() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+            PARTITIONED_TABLE));
+    }
+
+    public List<String> findPartitions(final String parentTable) {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, parentTable);
+    }
+
+    public int createPartition(final String parentTable, final YearMonth month) {
+        String partition = partitionName(month);
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " (LIKE " + parentTable +
+            " INCLUDING DEFAULTS)");
+        int moved = 0;
+        List<String> defaultPartition = jdbcTemplate.queryForList(DEFAULT_PARTITION_SQL, String.class, parentTable);
+        if (!defaultPartition.isEmpty()) {
+            jdbcTemplate.execute("LOCK TABLE " + defaultPartition.getFirst() + " IN EXCLUSIVE MODE");
+            moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + defaultPartition.getFirst() +
+                " WHERE date_time >= ? AND date_time < ? RETURNING " + COLUMNS + ") INSERT INTO " + partition + " (" +
+                COLUMNS + ") SELECT " + COLUMNS + " FROM moved", from, to);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + parentTable + " ATTACH PARTITION " + partition + " FOR VALUES FROM ('" +
+            from.toLocalDate() + "') TO ('" + to.toLocalDate() + "')");
+        return moved;
+    }
+
+    public boolean detachPartition(final String partition, final long lockTimeoutInMs) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            session.execute("SET lock_timeout = " + lockTimeoutInMs);
+            try {
+                if (!Boolean.TRUE.equals(session.queryForObject("SELECT pg_try_advisory_lock(?)", Boolean.class,
+                    ADVISORY_LOCK_KEY))) {
+                    return false;
+                }
+                try {
+                    session.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition + detachMode(session,
+                        partition));
+                } finally {
+                    session.queryForObject("SELECT pg_advisory_unlock(?)", Boolean.class, ADVISORY_LOCK_KEY);
+                }
+                return true;
+            } finally {
+                session.execute("RESET lock_timeout");
+            }
+        }));
+    }
+
+    private static String detachMode(final JdbcTemplate session, final String partition) {
+        if (Boolean.TRUE.equals(session.queryForObject(DETACH_PENDING_SQL, Boolean.class, partition))) {
+            return " FINALIZE";
+        }
+        return Boolean.TRUE.equals(session.queryForObject(HAS_DEFAULT_PARTITION_SQL, Boolean.class, TABLE))
+            ? ""
+            : " CONCURRENTLY";
+    }
+
+    public UUID copyBatchToPartitioned(final UUID afterId, final int limit) {
+        List<UUID> lastId = jdbcTemplate.queryForList(BACKFILL_SQL, UUID.class, afterId, limit);
+        return lastId.isEmpty() ? null : lastId.getFirst();
+    }
+
+    public UUID backfillFingerprints(final UUID afterUserId, final int limit) {
+        List<UUID> lastUserId = jdbcTemplate.queryForList(FINGERPRINT_BACKFILL_SQL, UUID.class, afterUserId, limit);
+        return lastUserId.isEmpty() ? null : lastUserId.getFirst();
+    }
+
+    public void swapToPartitioned() {
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + ", " + PARTITIONED_TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("DROP TRIGGER trg_transaction_mirror_to_partitioned ON " + TABLE);
+        jdbcTemplate.execute("DROP FUNCTION mirror_transaction_to_partitioned()");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+        for (String suffix : INDEX_SUFFIXES) {
+            jdbcTemplate.execute("ALTER INDEX IF EXISTS idx_" + TABLE + "_" + suffix + " RENAME TO idx_" +
+                LEGACY_TABLE + "_" + suffix);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + PARTITIONED_TABLE + " RENAME TO " + TABLE);
+        for (String suffix : INDEX_SUFFIXES) {
+            jdbcTemplate.execute("ALTER INDEX idx_" + PARTITIONED_TABLE + "_" + suffix + " RENAME TO idx_" + TABLE +
+                "_" + suffix);
+        }
+    }
+}
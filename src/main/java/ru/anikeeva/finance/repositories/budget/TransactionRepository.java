@@ -1,8 +1,13 @@
 package ru.anikeeva.finance.repositories.budget;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.anikeeva.finance.entities.budget.Transaction;
 import ru.anikeeva.finance.entities.enums.ETransactionCategory;
@@ -17,11 +22,30 @@ import java.util.UUID;
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     Page<Transaction> findAllByUserId(UUID userId, Pageable pageable);
 
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId ORDER BY t.dateTime DESC, t.id DESC")
+    Slice<Transaction> findSliceByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.dateTime <= :dateTime " +
+        "AND (t.dateTime < :dateTime OR t.id < :id) ORDER BY t.dateTime DESC, t.id DESC")
+    Slice<Transaction> findSliceByUserIdBefore(@Param("userId") UUID userId, @Param("dateTime") LocalDateTime dateTime,
+                                               @Param("id") UUID id, Pageable pageable);
+
     List<Transaction> findAllByUserIdAndTypeAndDateTimeBetween(UUID userId, ETransactionType type,
                                                                LocalDateTime startDate, LocalDateTime endDate);
 
-    List<Transaction> findAllByJobId(long jobId);
+    @Query("SELECT t.type, SUM(COALESCE(t.amountInBaseCurrency, t.initialAmount)) FROM Transaction t " +
+        "WHERE t.jobId = :jobId GROUP BY t.type")
+    List<Object[]> sumAmountsByJobIdGroupByType(@Param("jobId") long jobId);
 
     List<Transaction> findAllByUserAndCategoryAndDateTimeBetween(User user, ETransactionCategory category,
                                                                  LocalDateTime startDate, LocalDateTime endDate);
+
+    @Query("SELECT DISTINCT t.user.id, EXTRACT(YEAR FROM t.dateTime) FROM Transaction t WHERE t.dateTime < :before")
+    List<Object[]> findUserYearsBefore(@Param("before") LocalDateTime before);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Transaction t WHERE t.user.id = :userId AND t.dateTime >= :from AND t.dateTime < :to " +
+        "ORDER BY t.dateTime")
+    List<Transaction> findAllByUserIdInRangeForUpdate(@Param("userId") UUID userId, @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to);
 }
\ No newline at end of file
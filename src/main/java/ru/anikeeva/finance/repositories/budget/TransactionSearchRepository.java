@@ -0,0 +1,34 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+import ru.anikeeva.finance.entities.budget.Transaction;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TransactionSearchRepository {
+    private final EntityManager entityManager;
+
+    public Slice<Transaction> findSlice(final Specification<Transaction> specification, final int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Transaction> query = cb.createQuery(Transaction.class);
+        Root<Transaction> root = query.from(Transaction.class);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) query.where(predicate);
+        query.orderBy(cb.desc(root.get("dateTime")), cb.desc(root.get("id")));
+        List<Transaction> result = entityManager.createQuery(query).setMaxResults(limit + 1).getResultList();
+        boolean hasNext = result.size() > limit;
+        return new SliceImpl<>(hasNext ? result.subList(0, limit) : result, PageRequest.ofSize(limit), hasNext);
+    }
+}
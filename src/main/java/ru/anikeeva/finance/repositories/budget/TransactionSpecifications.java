@@ -0,0 +1,72 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import org.springframework.data.jpa.domain.Specification;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.UUID;
+
+public final class TransactionSpecifications {
+    public static final String DESCRIPTION_MATCHES_FUNCTION = "description_matches";
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> belongsTo(final UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Transaction> hasType(final ETransactionType type) {
+        return type == null ? null : (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Transaction> hasCategoryIn(final Collection<ETransactionCategory> categories) {
+        return categories == null || categories.isEmpty()
+            ? null
+            : (root, query, cb) -> root.get("category").in(categories);
+    }
+
+    public static Specification<Transaction> amountFrom(final BigDecimal minAmount) {
+        return minAmount == null
+            ? null
+            : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amountInBaseCurrency"), minAmount);
+    }
+
+    public static Specification<Transaction> amountTo(final BigDecimal maxAmount) {
+        return maxAmount == null
+            ? null
+            : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amountInBaseCurrency"), maxAmount);
+    }
+
+    public static Specification<Transaction> hasCurrency(final Currency currency) {
+        return currency == null ? null : (root, query, cb) -> cb.equal(root.get("initialCurrency"), currency);
+    }
+
+    public static Specification<Transaction> dateFrom(final LocalDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dateTime"), from);
+    }
+
+    public static Specification<Transaction> dateTo(final LocalDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("dateTime"), to);
+    }
+
+    public static Specification<Transaction> descriptionMatches(final String text) {
+        return text == null || text.isBlank()
+            ? null
+            : (root, query, cb) -> cb.isTrue(cb.function(DESCRIPTION_MATCHES_FUNCTION, Boolean.class,
+                root.get("description"), cb.literal(text.strip())));
+    }
+
+    public static Specification<Transaction> before(final LocalDateTime dateTime, final UUID id) {
+        return dateTime == null
+            ? null
+            : (root, query, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.get("dateTime"), dateTime),
+                cb.or(cb.lessThan(root.get("dateTime"), dateTime), cb.lessThan(root.get("id"), id)));
+    }
+}
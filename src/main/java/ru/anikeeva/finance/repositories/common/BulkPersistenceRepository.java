@@ -0,0 +1,41 @@
+package ru.anikeeva.finance.repositories.common;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public class BulkPersistenceRepository {
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public BulkPersistenceRepository(EntityManager entityManager,
+                                     @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Transactional
+    public <T> int persistAll(final Collection<T> entities) {
+        List<T> pending = new ArrayList<>(Math.min(entities.size(), batchSize));
+        for (T entity : entities) {
+            entityManager.persist(entity);
+            pending.add(entity);
+            if (pending.size() == batchSize) flush(pending);
+        }
+        flush(pending);
+        return entities.size();
+    }
+
+    private <T> void flush(final List<T> pending) {
+        if (pending.isEmpty()) return;
+        entityManager.flush();
+        pending.forEach(entityManager::detach);
+        pending.clear();
+    }
+}
@@ -0,0 +1,16 @@
+package ru.anikeeva.finance.repositories.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.anikeeva.finance.entities.ledger.BalanceSnapshot;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, UUID> {
+    Optional<BalanceSnapshot> findTopByUserIdOrderByLastEntryIdDesc(UUID userId);
+
+    List<BalanceSnapshot> findTop2ByUserIdOrderByLastEntryIdDesc(UUID userId);
+}
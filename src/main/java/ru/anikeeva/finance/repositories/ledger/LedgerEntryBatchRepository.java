@@ -0,0 +1,27 @@
+package ru.anikeeva.finance.repositories.ledger;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.anikeeva.finance.entities.ledger.LedgerEntry;
+
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class LedgerEntryBatchRepository {
+    public static final String INSERT_SQL = "INSERT INTO ledger_entry (user_id, transaction_id, type, amount, " +
+        "reverses_entry_id, created_at) VALUES (:userId, :transactionId, :typeAsString, :amount, :reversesEntryId, " +
+        "now())";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void insertAll(final List<LedgerEntry> entries) {
+        SqlParameterSource[] parameters = entries.stream()
+            .map(BeanPropertySqlParameterSource::new)
+            .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, parameters);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.anikeeva.finance.repositories.ledger;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.anikeeva.finance.entities.enums.ELedgerEntryType;
+import ru.anikeeva.finance.entities.ledger.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+    @Query("SELECT e FROM LedgerEntry e WHERE e.transactionId = :transactionId AND e.type = :type " +
+        "AND NOT EXISTS (SELECT r.id FROM LedgerEntry r WHERE r.reversesEntryId = e.id) ORDER BY e.id DESC")
+    List<LedgerEntry> findUnreversedByTransactionId(@Param("transactionId") UUID transactionId,
+                                                    @Param("type") ELedgerEntryType type);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e WHERE e.userId = :userId AND e.id > :afterId")
+    BigDecimal sumAfter(@Param("userId") UUID userId, @Param("afterId") long afterId);
+
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e " +
+        "WHERE e.userId = :userId AND e.id > :afterId AND e.id <= :toId")
+    BigDecimal sumBetween(@Param("userId") UUID userId, @Param("afterId") long afterId, @Param("toId") long toId);
+
+    @Query("SELECT COALESCE(MAX(e.id), 0L) FROM LedgerEntry e WHERE e.userId = :userId")
+    long findLastEntryId(@Param("userId") UUID userId);
+
+    boolean existsByUserIdAndType(UUID userId, ELedgerEntryType type);
+}
@@ -0,0 +1,31 @@
+package ru.anikeeva.finance.repositories.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.anikeeva.finance.entities.outbox.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    @Query(value = "SELECT * FROM outbox_event WHERE processed_at IS NULL AND next_attempt_at <= :now " +
+        "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockPendingBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.processedAt IS NULL")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event_delivery WHERE event_id IN " +
+        "(SELECT id FROM outbox_event WHERE processed_at < :before)", nativeQuery = true)
+    int deleteDeliveriesProcessedBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_event WHERE processed_at < :before", nativeQuery = true)
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
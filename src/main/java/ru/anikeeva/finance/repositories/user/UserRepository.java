@@ -26,6 +26,16 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("UPDATE User u SET u.balance = u.balance + :changes WHERE u.id = :id")
     int updateBalance(@Param("id") UUID id, @Param("changes") BigDecimal changes);
 
+    @Modifying
+    @Query("UPDATE User u SET u.balance = u.balance - :amount WHERE u.id = :id AND u.balance >= :amount")
+    int withdrawBalance(@Param("id") UUID id, @Param("amount") BigDecimal amount);
+
+    @Query(value = "SELECT balance FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    BigDecimal lockBalance(@Param("id") UUID id);
+
+    @Query("SELECT u.id FROM User u")
+    Page<UUID> findAllIds(@NonNull Pageable pageable);
+
     Page<User> findAll(@NonNull Pageable pageable);
 
     Page<User> findAllByIsEnabled(@NonNull Boolean isEnabled, @NonNull Pageable pageable);
@@ -15,8 +15,10 @@ public class CurrencyRateScheduler {
     @Scheduled(cron = "0 0 0 * * *")
     public void scheduledUpdateRates() {
         log.info("Запуск обновления курсов валют");
-        currencyRateService.updateCurrencyRatesWithFallback()
-            .doOnError(e -> log.error("Ошибка обновления курсов валют", e))
-            .subscribe();
+        try {
+            currencyRateService.updateCurrencyRatesWithFallback().block();
+        } catch (Exception e) {
+            log.error("Ошибка обновления курсов валют", e);
+        }
     }
 }
\ No newline at end of file
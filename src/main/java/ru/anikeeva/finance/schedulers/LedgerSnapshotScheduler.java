@@ -0,0 +1,80 @@
+package ru.anikeeva.finance.schedulers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.repositories.user.UserRepository;
+import ru.anikeeva.finance.services.ledger.LedgerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LedgerSnapshotScheduler {
+    private final UserRepository userRepository;
+    private final LedgerService ledgerService;
+
+    @Value("${ledger.page-size}")
+    private int pageSize;
+
+    @Value("${ledger.verification-threads}")
+    private int verificationThreads;
+
+    @Scheduled(cron = "0 0 1 * * *")
+    public void scheduledSnapshots() {
+        log.info("Запуск создания снимков баланса");
+        forEachUserPage(userIds -> userIds.forEach(userId -> {
+            try {
+                ledgerService.createSnapshot(userId);
+            } catch (Exception e) {
+                log.error("Ошибка создания снимка баланса пользователя {}", userId, e);
+            }
+        }));
+    }
+
+    @Scheduled(cron = "0 0 3 * * *")
+    public void scheduledVerification() {
+        log.info("Запуск сверки снимков баланса с журналом");
+        List<UUID> mismatched = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(verificationThreads)) {
+            forEachUserPage(userIds -> {
+                List<Future<Boolean>> results = userIds.stream()
+                    .map(userId -> executor.submit(() -> ledgerService.verifyUser(userId)))
+                    .toList();
+                for (int i = 0; i < userIds.size(); i++) {
+                    try {
+                        if (!results.get(i).get()) mismatched.add(userIds.get(i));
+                    } catch (ExecutionException e) {
+                        log.error("Ошибка сверки баланса пользователя {}", userIds.get(i), e.getCause());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            });
+        }
+        log.info("Сверка снимков баланса завершена, расхождений: {}", mismatched.size());
+    }
+
+    private void forEachUserPage(final Consumer<List<UUID>> action) {
+        Page<UUID> page;
+        int pageNumber = 0;
+        do {
+            page = userRepository.findAllIds(PageRequest.of(pageNumber++, pageSize, Sort.by("id")));
+            action.accept(page.getContent());
+        } while (page.hasNext() && !Thread.currentThread().isInterrupted());
+    }
+}
@@ -0,0 +1,61 @@
+package ru.anikeeva.finance.schedulers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.services.outbox.OutboxDispatchResult;
+import ru.anikeeva.finance.services.outbox.OutboxService;
+
+import java.time.LocalDateTime;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatchScheduler {
+    private final OutboxService outboxService;
+
+    @Value("${outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${outbox.poll-interval-in-ms}")
+    private long pollIntervalInMs;
+
+    @Value("${outbox.max-backoff-in-ms}")
+    private long maxBackoffInMs;
+
+    @Value("${outbox.retention-in-days}")
+    private int retentionInDays;
+
+    private int failedRuns;
+    private long resumeAt;
+
+    @Scheduled(fixedDelayString = "${outbox.poll-interval-in-ms}")
+    public void scheduledDispatch() {
+        if (System.currentTimeMillis() < resumeAt) return;
+        try {
+            OutboxDispatchResult result;
+            do {
+                result = outboxService.dispatchBatch();
+            } while (result.dispatched() == batchSize);
+            failedRuns = 0;
+        } catch (Exception e) {
+            log.error("Ошибка обработки событий outbox", e);
+            backOff();
+        }
+    }
+
+    @Scheduled(cron = "0 30 0 * * *")
+    public void scheduledPurge() {
+        log.info("Запуск очистки обработанных событий outbox");
+        outboxService.purgeProcessed(LocalDateTime.now().minusDays(retentionInDays));
+    }
+
+    private void backOff() {
+        long delay = Math.min(maxBackoffInMs, pollIntervalInMs << Math.min(failedRuns, 16));
+        failedRuns++;
+        resumeAt = System.currentTimeMillis() + delay;
+        log.warn("Обработка outbox приостановлена на {} мс после ошибки", delay);
+    }
+}
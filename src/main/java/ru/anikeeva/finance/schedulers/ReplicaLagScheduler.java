@@ -0,0 +1,24 @@
+package ru.anikeeva.finance.schedulers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.datasource.ReplicaLagMonitor;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReplicaLagScheduler {
+    private final ReplicaLagMonitor replicaLagMonitor;
+
+    @Scheduled(fixedDelayString = "${datasource.replica.check-interval-in-ms}")
+    public void scheduledLagCheck() {
+        if (replicaLagMonitor.replicas().isEmpty()) return;
+        try {
+            replicaLagMonitor.refresh();
+        } catch (Exception e) {
+            log.error("Ошибка проверки отставания реплик", e);
+        }
+    }
+}
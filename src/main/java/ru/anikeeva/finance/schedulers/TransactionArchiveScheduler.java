@@ -0,0 +1,31 @@
+package ru.anikeeva.finance.schedulers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+
+import java.time.LocalDate;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionArchiveScheduler {
+    private final TransactionArchiveService archiveService;
+
+    @Scheduled(cron = "0 0 4 * * *")
+    public void scheduledArchive() {
+        log.info("Запуск архивации старых транзакций");
+        int archived = 0;
+        for (TransactionArchiveService.ArchivableYear userYear : archiveService.findArchivableYears(LocalDate.now())) {
+            try {
+                archived += archiveService.archiveYear(userYear.userId(), userYear.year());
+            } catch (Exception e) {
+                log.error("Ошибка архивации транзакций пользователя {} за {} год", userYear.userId(), userYear.year(),
+                    e);
+            }
+        }
+        log.info("Архивация завершена, перенесено {} транзакций", archived);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.anikeeva.finance.schedulers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.services.budget.TransactionPartitionService;
+
+import java.time.YearMonth;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionScheduler {
+    private final TransactionPartitionService partitionService;
+
+    @Value("${partitions.backfill-batches-per-run}")
+    private int backfillBatchesPerRun;
+
+    @Scheduled(cron = "0 0 2 * * *")
+    public void scheduledPartitionCreation() {
+        log.info("Запуск создания будущих секций таблицы транзакций");
+        try {
+            partitionService.createFuturePartitions(YearMonth.now());
+        } catch (Exception e) {
+            log.error("Ошибка создания секций таблицы транзакций", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${partitions.backfill-interval-in-ms}")
+    public void scheduledMigration() {
+        try {
+            for (int i = 0; i < backfillBatchesPerRun; i++) {
+                if (!partitionService.migrateBatch()) break;
+            }
+        } catch (Exception e) {
+            log.error("Ошибка переноса транзакций в секционированную таблицу", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${partitions.backfill-interval-in-ms}")
+    public void scheduledFingerprintBackfill() {
+        try {
+            for (int i = 0; i < backfillBatchesPerRun; i++) {
+                if (!partitionService.backfillFingerprintBatch()) break;
+            }
+        } catch (Exception e) {
+            log.error("Ошибка заполнения отпечатков импортированных транзакций", e);
+        }
+    }
+
+    @Scheduled(cron = "0 30 2 1 * *")
+    public void scheduledDetach() {
+        log.info("Запуск отсоединения устаревших секций таблицы транзакций");
+        try {
+            partitionService.detachExpiredPartitions(YearMonth.now());
+        } catch (Exception e) {
+            log.error("Ошибка отсоединения секций таблицы транзакций", e);
+        }
+    }
+}
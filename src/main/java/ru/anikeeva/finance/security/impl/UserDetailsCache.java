@@ -0,0 +1,78 @@
+package ru.anikeeva.finance.security.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+@Component
+@Slf4j
+public class UserDetailsCache {
+    private static final String INVALIDATION_CHANNEL = "user-details-invalidation";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Map<String, CachedUserDetails> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlInMillis;
+
+    private record CachedUserDetails(UserDetailsImpl userDetails, long expiresAt) {}
+
+    public UserDetailsCache(RedisTemplate<String, String> redisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            @Value("${user-details-cache.max-size}") int maxSize,
+                            @Value("${user-details-cache.ttl-in-seconds}") long ttlInSeconds) {
+        this.redisTemplate = redisTemplate;
+        this.maxSize = maxSize;
+        this.ttlInMillis = ttlInSeconds * 1000;
+        listenerContainer.addMessageListener((message, pattern) ->
+                evictLocally(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public UserDetailsImpl get(final String username, final Function<String, UserDetailsImpl> loader) {
+        long now = System.currentTimeMillis();
+        CachedUserDetails cached = cache.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.userDetails();
+        }
+        UserDetailsImpl userDetails = loader.apply(username);
+        if (cache.size() >= maxSize) {
+            evictExpired(now);
+        }
+        if (cache.size() < maxSize) {
+            cache.put(username, new CachedUserDetails(userDetails, now + ttlInMillis));
+        }
+        return userDetails;
+    }
+
+    public void invalidate(final String username) {
+        evictLocally(username);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, username);
+        } catch (Exception e) {
+            log.error("Не удалось разослать инвалидацию кэша пользователя {} другим узлам: {}", username,
+                e.getMessage());
+        }
+    }
+
+    private void evictLocally(final String username) {
+        cache.remove(username);
+    }
+
+    private void evictExpired(final long now) {
+        Iterator<CachedUserDetails> iterator = cache.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() <= now) {
+                iterator.remove();
+            }
+        }
+    }
+}
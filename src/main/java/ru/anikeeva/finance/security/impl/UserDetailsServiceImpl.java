@@ -12,9 +12,14 @@ import ru.anikeeva.finance.services.user.UserService;
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
     private final UserService userService;
+    private final UserDetailsCache userDetailsCache;
 
     @Override
     public UserDetails loadUserByUsername(final String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadUserDetails);
+    }
+
+    private UserDetailsImpl loadUserDetails(final String username) {
         User user = userService.findUserByUsername(username);
         if (user == null) {
             throw new UsernameNotFoundException(username);
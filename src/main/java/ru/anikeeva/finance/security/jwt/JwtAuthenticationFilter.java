@@ -29,16 +29,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
         throws ServletException, IOException {
         String authHeader = request.getHeader(AUTHORIZATION_HEADER);
-        String token = null;
-        String username = null;
+        JwtClaims claims = null;
         if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)) {
-            token = authHeader.substring(BEARER_PREFIX.length());
-            username = jwtService.extractUsername(token);
+            claims = jwtService.verifyToken(authHeader.substring(BEARER_PREFIX.length()));
         }
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (claims != null && SecurityContextHolder.getContext().getAuthentication() == null) {
             UserDetails userDetails = applicationContext.getBean(UserDetailsServiceImpl.class)
-                .loadUserByUsername(username);
-            if (jwtService.validateToken(token, userDetails)) {
+                .loadUserByUsername(claims.username());
+            if (jwtService.validateClaims(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -47,4 +45,4 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,14 @@
+package ru.anikeeva.finance.security.jwt;
+
+import java.time.Instant;
+
+public record JwtClaims(
+    String username,
+    Instant issuedAt,
+    Instant expiresAt
+)
+{
+    public boolean isExpired() {
+        return !expiresAt.isAfter(Instant.now());
+    }
+}
@@ -1,33 +1,39 @@
 package ru.anikeeva.finance.security.jwt;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import java.security.NoSuchAlgorithmException;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
+@Slf4j
 public class JwtService {
-    private String secretKey = "";
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final Map<String, JwtClaims> verifiedTokens = new ConcurrentHashMap<>();
 
     private static final long ACCESS_EXPIRATION = 5 * 60;
     private static final long REFRESH_EXPIRATION = 60 * 24 * 60 * 60;
+    private static final int VERIFIED_TOKENS_MAX_SIZE = 10_000;
 
     public JwtService() {
         try {
             KeyGenerator keyGen = KeyGenerator.getInstance("HmacSHA256");
-            SecretKey sk = keyGen.generateKey();
-            secretKey = Base64.getEncoder().encodeToString(sk.getEncoded());
+            key = Keys.hmacShaKeyFor(keyGen.generateKey().getEncoded());
+            parser = Jwts.parser().verifyWith(key).build();
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException(e);
         }
@@ -42,12 +48,24 @@ public class JwtService {
     }
 
     public boolean validateToken(final String token, final UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(parseClaims(token), userDetails);
+    }
+
+    public boolean validateClaims(final JwtClaims claims, final UserDetails userDetails) {
+        return claims.username().equals(userDetails.getUsername()) && !claims.isExpired();
     }
 
     public String extractUsername(final String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseClaims(token).username();
+    }
+
+    public JwtClaims verifyToken(final String token) {
+        try {
+            return parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Передан невалидный токен доступа: {}", e.getMessage());
+            return null;
+        }
     }
 
     private String generateToken(final UserDetails userDetails, final long expires) {
@@ -59,33 +77,26 @@ public class JwtService {
             .issuedAt(new Date(System.currentTimeMillis()))
             .expiration(new Date(System.currentTimeMillis() + expires * 1000))
             .and()
-            .signWith(getKey())
+            .signWith(key)
             .compact();
     }
 
-    private <T> T extractClaim(final String token, final Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(final String token) {
-        return Jwts.parser()
-            .verifyWith(getKey())
-            .build()
-            .parseSignedClaims(token)
-            .getPayload();
-    }
-
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
-    private boolean isTokenExpired(final String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    private Date extractExpiration(final String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private JwtClaims parseClaims(final String token) {
+        String tokenHash = DigestUtils.sha256Hex(token);
+        JwtClaims cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            if (!cached.isExpired()) return cached;
+            verifiedTokens.remove(tokenHash);
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        JwtClaims jwtClaims = new JwtClaims(claims.getSubject(), claims.getIssuedAt().toInstant(),
+            claims.getExpiration().toInstant());
+        if (verifiedTokens.size() >= VERIFIED_TOKENS_MAX_SIZE) {
+            verifiedTokens.values().removeIf(JwtClaims::isExpired);
+        }
+        if (verifiedTokens.size() < VERIFIED_TOKENS_MAX_SIZE) {
+            verifiedTokens.put(tokenHash, jwtClaims);
+        }
+        return jwtClaims;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,227 @@
+package ru.anikeeva.finance.services.archive;
+
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.AMOUNT_SCALE;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.EPOCH;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.FINGERPRINT_BYTES;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.MAGIC;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.NULL_AMOUNT;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.NULL_INDEX;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.NULL_JOB_ID;
+import static ru.anikeeva.finance.services.archive.TransactionArchiveWriter.VERSION;
+
+public final class TransactionArchiveReader {
+    private final ByteBuffer buffer;
+    private final int rowCount;
+    private final List<String> types;
+    private final List<String> categories;
+    private final List<String> currencies;
+    private final int timestampsOffset;
+    private final int idsOffset;
+    private final int typesOffset;
+    private final int categoriesOffset;
+    private final int currenciesOffset;
+    private final int initialAmountsOffset;
+    private final int baseAmountsOffset;
+    private final int descriptionsRawLength;
+    private final int descriptionsOffset;
+    private final int descriptionsLength;
+    private final int jobIdsOffset;
+    private final int fingerprintsOffset;
+
+    private TransactionArchiveReader(final ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        byte version = buffer.get(4);
+        if (buffer.getInt(0) != MAGIC || version < 1 || version > VERSION) {
+            throw new IOException("Неизвестный формат файла архива транзакций");
+        }
+        rowCount = buffer.getInt(5);
+        buffer.position(9);
+        types = readDictionary();
+        categories = readDictionary();
+        currencies = readDictionary();
+        int timestampsLength = buffer.getInt();
+        timestampsOffset = buffer.position();
+        idsOffset = timestampsOffset + timestampsLength;
+        typesOffset = idsOffset + rowCount * 16;
+        categoriesOffset = typesOffset + rowCount;
+        currenciesOffset = categoriesOffset + rowCount;
+        initialAmountsOffset = currenciesOffset + rowCount;
+        baseAmountsOffset = initialAmountsOffset + rowCount * 8;
+        int descriptionsHeader = baseAmountsOffset + rowCount * 8;
+        descriptionsRawLength = buffer.getInt(descriptionsHeader);
+        descriptionsLength = buffer.getInt(descriptionsHeader + 4);
+        descriptionsOffset = descriptionsHeader + 8;
+        jobIdsOffset = version >= 2 ? descriptionsOffset + descriptionsLength : -1;
+        fingerprintsOffset = version >= 2 ? jobIdsOffset + rowCount * 8 : -1;
+    }
+
+    public static TransactionArchiveReader open(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new TransactionArchiveReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public List<Transaction> read(final LocalDateTime from, final LocalDateTime to, final ETransactionType type) {
+        int typeIndex = type == null ? NULL_INDEX : types.indexOf(type.name());
+        if (typeIndex < 0) return List.of();
+        long[] timestamps = decodeTimestamps();
+        long fromMicros = from == null ? Long.MIN_VALUE : ChronoUnit.MICROS.between(EPOCH, from);
+        long toMicros = to == null ? Long.MAX_VALUE : ChronoUnit.MICROS.between(EPOCH, to);
+        List<Integer> matched = new ArrayList<>();
+        for (int i = 0; i < rowCount; i++) {
+            if (timestamps[i] < fromMicros) continue;
+            if (timestamps[i] > toMicros) break;
+            if (type == null || Byte.toUnsignedInt(buffer.get(typesOffset + i)) == typeIndex) matched.add(i);
+        }
+        if (matched.isEmpty()) return List.of();
+        String[] descriptions = decodeDescriptions();
+        List<Transaction> result = new ArrayList<>(matched.size());
+        for (int row : matched) result.add(toTransaction(row, timestamps[row], descriptions[row]));
+        return result;
+    }
+
+    public List<String> readFingerprints(final LocalDateTime from, final LocalDateTime to) {
+        if (fingerprintsOffset < 0) return List.of();
+        long[] timestamps = decodeTimestamps();
+        long fromMicros = ChronoUnit.MICROS.between(EPOCH, from);
+        long toMicros = ChronoUnit.MICROS.between(EPOCH, to);
+        List<String> fingerprints = new ArrayList<>();
+        for (int i = 0; i < rowCount; i++) {
+            if (timestamps[i] < fromMicros) continue;
+            if (timestamps[i] > toMicros) break;
+            String fingerprint = fingerprint(i);
+            if (fingerprint != null) fingerprints.add(fingerprint);
+        }
+        return fingerprints;
+    }
+
+    public Optional<Transaction> findById(final UUID id) {
+        for (int i = 0; i < rowCount; i++) {
+            int offset = idsOffset + i * 16;
+            if (buffer.getLong(offset) == id.getMostSignificantBits() &&
+                buffer.getLong(offset + 8) == id.getLeastSignificantBits()) {
+                return Optional.of(toTransaction(i, decodeTimestamps()[i], decodeDescriptions()[i]));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private Transaction toTransaction(final int row, final long micros, final String description) {
+        int idOffset = idsOffset + row * 16;
+        int currencyIndex = Byte.toUnsignedInt(buffer.get(currenciesOffset + row));
+        return Transaction.builder()
+            .id(new UUID(buffer.getLong(idOffset), buffer.getLong(idOffset + 8)))
+            .type(ETransactionType.valueOf(types.get(Byte.toUnsignedInt(buffer.get(typesOffset + row)))))
+            .category(ETransactionCategory.valueOf(
+                categories.get(Byte.toUnsignedInt(buffer.get(categoriesOffset + row)))))
+            .initialCurrency(currencyIndex == NULL_INDEX ? null : Currency.getInstance(currencies.get(currencyIndex)))
+            .initialAmount(toAmount(buffer.getLong(initialAmountsOffset + row * 8)))
+            .amountInBaseCurrency(toAmount(buffer.getLong(baseAmountsOffset + row * 8)))
+            .dateTime(EPOCH.plus(micros, ChronoUnit.MICROS))
+            .description(description)
+            .jobId(jobId(row))
+            .fingerprint(fingerprint(row))
+            .build();
+    }
+
+    private Long jobId(final int row) {
+        if (jobIdsOffset < 0) return null;
+        long jobId = buffer.getLong(jobIdsOffset + row * 8);
+        return jobId == NULL_JOB_ID ? null : jobId;
+    }
+
+    private String fingerprint(final int row) {
+        if (fingerprintsOffset < 0) return null;
+        byte[] bytes = new byte[FINGERPRINT_BYTES];
+        buffer.get(fingerprintsOffset + row * FINGERPRINT_BYTES, bytes);
+        for (byte value : bytes) {
+            if (value != 0) return HexFormat.of().formatHex(bytes);
+        }
+        return null;
+    }
+
+    private long[] decodeTimestamps() {
+        long[] timestamps = new long[rowCount];
+        int position = timestampsOffset;
+        long previous = 0;
+        for (int i = 0; i < rowCount; i++) {
+            long value = 0;
+            int shift = 0;
+            byte current;
+            do {
+                current = buffer.get(position++);
+                value |= (long) (current & 0x7F) << shift;
+                shift += 7;
+            } while ((current & 0x80) != 0);
+            previous += (value >>> 1) ^ -(value & 1);
+            timestamps[i] = previous;
+        }
+        return timestamps;
+    }
+
+    private String[] decodeDescriptions() {
+        ByteBuffer raw = ByteBuffer.allocate(descriptionsRawLength);
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice(descriptionsOffset, descriptionsLength));
+            while (!inflater.finished() && raw.hasRemaining()) {
+                if (inflater.inflate(raw) == 0 && inflater.needsInput()) break;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Поврежден блок описаний в архиве транзакций", e);
+        } finally {
+            inflater.end();
+        }
+        raw.flip();
+        String[] descriptions = new String[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            int length = raw.getInt();
+            if (length >= 0) {
+                descriptions[i] = StandardCharsets.UTF_8.decode(raw.slice(raw.position(), length)).toString();
+                raw.position(raw.position() + length);
+            }
+        }
+        return descriptions;
+    }
+
+    private List<String> readDictionary() {
+        int size = Byte.toUnsignedInt(buffer.get());
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int length = Short.toUnsignedInt(buffer.getShort());
+            values.add(StandardCharsets.UTF_8.decode(buffer.slice(buffer.position(), length)).toString());
+            buffer.position(buffer.position() + length);
+        }
+        return values;
+    }
+
+    private static BigDecimal toAmount(final long unscaled) {
+        return unscaled == NULL_AMOUNT ? null : BigDecimal.valueOf(unscaled, AMOUNT_SCALE);
+    }
+}
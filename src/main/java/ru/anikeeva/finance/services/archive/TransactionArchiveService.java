@@ -0,0 +1,194 @@
+package ru.anikeeva.finance.services.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.exceptions.IntegrationException;
+import ru.anikeeva.finance.repositories.budget.TransactionRepository;
+import ru.anikeeva.finance.services.budget.TransactionCursor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+public class TransactionArchiveService {
+    public static final Comparator<Transaction> NEWEST_FIRST = Comparator
+        .comparing(Transaction::getDateTime)
+        .thenComparing(Transaction::getId, TransactionArchiveService::compareIds)
+        .reversed();
+
+    private static final String FILE_EXTENSION = ".ftx";
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final Path directory;
+    private final int archiveAfterYears;
+
+    public TransactionArchiveService(final TransactionRepository transactionRepository,
+                                     @Value("${archive.directory}") final Path directory,
+                                     @Value("${archive.after-years}") final int archiveAfterYears) {
+        this.transactionRepository = transactionRepository;
+        this.directory = directory;
+        this.archiveAfterYears = archiveAfterYears;
+    }
+
+    public List<ArchivableYear> findArchivableYears(final LocalDate today) {
+        LocalDateTime before = LocalDate.of(today.getYear() - archiveAfterYears, 1, 1).atStartOfDay();
+        return transactionRepository.findUserYearsBefore(before).stream()
+            .map(row -> new ArchivableYear((UUID) row[0], ((Number) row[1]).intValue()))
+            .toList();
+    }
+
+    @Transactional
+    public int archiveYear(final UUID userId, final int year) {
+        LocalDateTime from = LocalDate.of(year, 1, 1).atStartOfDay();
+        List<Transaction> transactions = transactionRepository.findAllByUserIdInRangeForUpdate(userId, from,
+            from.plusYears(1));
+        if (transactions.isEmpty()) return 0;
+        Path file = fileFor(userId, year);
+        Map<UUID, Transaction> rows = new LinkedHashMap<>();
+        try {
+            if (Files.exists(file)) {
+                TransactionArchiveReader.open(file).read(null, null, null)
+                    .forEach(transaction -> rows.put(transaction.getId(), transaction));
+            }
+            transactions.forEach(transaction -> rows.put(transaction.getId(), transaction));
+            TransactionArchiveWriter.write(file, new ArrayList<>(rows.values()));
+        } catch (IOException e) {
+            throw new IntegrationException("Не удалось записать архив транзакций");
+        }
+        List<UUID> ids = transactions.stream().map(Transaction::getId).toList();
+        for (int i = 0; i < ids.size(); i += DELETE_CHUNK_SIZE) {
+            transactionRepository.deleteAllByIdInBatch(ids.subList(i, Math.min(ids.size(), i + DELETE_CHUNK_SIZE)));
+        }
+        log.info("Транзакции пользователя {} за {} год перенесены в архив: {} записей", userId, year,
+            transactions.size());
+        return transactions.size();
+    }
+
+    public List<Transaction> findTransactions(final User user, final ETransactionType type,
+                                              final LocalDateTime from, final LocalDateTime to) {
+        return archivedYears(user.getId()).stream()
+            .filter(year -> year >= from.getYear() && year <= to.getYear())
+            .flatMap(year -> owned(openYear(user.getId(), year).read(from, to, type), user).stream())
+            .toList();
+    }
+
+    public Optional<Transaction> findById(final UUID userId, final UUID transactionId) {
+        for (int year : archivedYears(userId).descendingSet()) {
+            Optional<Transaction> found = openYear(userId, year).findById(transactionId);
+            if (found.isPresent()) {
+                found.get().setUser(User.builder().id(userId).build());
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Transaction> findBefore(final UUID userId, final TransactionCursor position, final int limit) {
+        User owner = User.builder().id(userId).build();
+        List<Transaction> result = new ArrayList<>();
+        for (int year : archivedYears(userId).descendingSet()) {
+            if (position != null && year > position.dateTime().getYear()) continue;
+            owned(openYear(userId, year).read(null, null, null), owner).stream()
+                .filter(transaction -> position == null || isBefore(transaction, position))
+                .sorted(NEWEST_FIRST)
+                .limit(limit - result.size())
+                .forEach(result::add);
+            if (result.size() >= limit) break;
+        }
+        return result;
+    }
+
+    public Set<String> findFingerprints(final UUID userId, final LocalDateTime from, final LocalDateTime to) {
+        Set<String> fingerprints = new HashSet<>();
+        for (int year : archivedYears(userId)) {
+            if (year < from.getYear() || year > to.getYear()) continue;
+            fingerprints.addAll(openYear(userId, year).readFingerprints(from, to));
+        }
+        return fingerprints;
+    }
+
+    public LocalDateTime archivedUntil(final UUID userId) {
+        TreeSet<Integer> years = archivedYears(userId);
+        return years.isEmpty() ? null : LocalDate.of(years.last() + 1, 1, 1).atStartOfDay();
+    }
+
+    public static List<Transaction> merge(final List<Transaction> live, final List<Transaction> archived) {
+        if (archived.isEmpty()) return live;
+        Map<UUID, Transaction> byId = live.stream()
+            .collect(Collectors.toMap(Transaction::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        archived.forEach(transaction -> byId.putIfAbsent(transaction.getId(), transaction));
+        return new ArrayList<>(byId.values());
+    }
+
+    public static int compareIds(final UUID first, final UUID second) {
+        int result = Long.compareUnsigned(first.getMostSignificantBits(), second.getMostSignificantBits());
+        return result != 0 ? result
+            : Long.compareUnsigned(first.getLeastSignificantBits(), second.getLeastSignificantBits());
+    }
+
+    private static boolean isBefore(final Transaction transaction, final TransactionCursor position) {
+        int byDate = transaction.getDateTime().compareTo(position.dateTime());
+        return byDate < 0 || (byDate == 0 && compareIds(transaction.getId(), position.id()) < 0);
+    }
+
+    private static List<Transaction> owned(final List<Transaction> transactions, final User owner) {
+        transactions.forEach(transaction -> transaction.setUser(owner));
+        return transactions;
+    }
+
+    private TransactionArchiveReader openYear(final UUID userId, final int year) {
+        try {
+            return TransactionArchiveReader.open(fileFor(userId, year));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private TreeSet<Integer> archivedYears(final UUID userId) {
+        Path userDirectory = directory.resolve(userId.toString());
+        TreeSet<Integer> years = new TreeSet<>();
+        if (!Files.isDirectory(userDirectory)) return years;
+        try (Stream<Path> files = Files.list(userDirectory)) {
+            files.map(file -> file.getFileName().toString())
+                .filter(name -> name.endsWith(FILE_EXTENSION))
+                .map(name -> name.substring(0, name.length() - FILE_EXTENSION.length()))
+                .filter(name -> !name.isEmpty() && name.chars().allMatch(Character::isDigit))
+                .map(Integer::parseInt)
+                .forEach(years::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return years;
+    }
+
+    public record ArchivableYear(UUID userId, int year) {
+    }
+
+    private Path fileFor(final UUID userId, final int year) {
+        return directory.resolve(userId.toString()).resolve(year + FILE_EXTENSION);
+    }
+}
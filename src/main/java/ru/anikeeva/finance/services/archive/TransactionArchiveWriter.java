@@ -0,0 +1,170 @@
+package ru.anikeeva.finance.services.archive;
+
+import ru.anikeeva.finance.entities.budget.Transaction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+public final class TransactionArchiveWriter {
+    static final int MAGIC = 0x46545841;
+    static final byte VERSION = 2;
+    static final long NULL_AMOUNT = Long.MIN_VALUE;
+    static final long NULL_JOB_ID = Long.MIN_VALUE;
+    static final int FINGERPRINT_BYTES = 32;
+    static final int NULL_INDEX = 0xFF;
+    static final int AMOUNT_SCALE = 2;
+    static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private TransactionArchiveWriter() {
+    }
+
+    public static void write(final Path file, final List<Transaction> transactions) throws IOException {
+        List<Transaction> rows = transactions.stream()
+            .sorted(Comparator.comparing(Transaction::getDateTime))
+            .toList();
+        Dictionary types = new Dictionary();
+        Dictionary categories = new Dictionary();
+        Dictionary currencies = new Dictionary();
+        for (Transaction row : rows) {
+            types.register(row.getTypeAsString());
+            categories.register(row.getCategoryAsString());
+            currencies.register(row.getCurrencyCode());
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(rows.size());
+        types.writeTo(out);
+        categories.writeTo(out);
+        currencies.writeTo(out);
+
+        ByteArrayOutputStream timestamps = new ByteArrayOutputStream();
+        long previous = 0;
+        for (Transaction row : rows) {
+            long micros = ChronoUnit.MICROS.between(EPOCH, row.getDateTime());
+            writeVarLong(timestamps, zigZag(micros - previous));
+            previous = micros;
+        }
+        out.writeInt(timestamps.size());
+        timestamps.writeTo(out);
+
+        for (Transaction row : rows) {
+            out.writeLong(row.getId().getMostSignificantBits());
+            out.writeLong(row.getId().getLeastSignificantBits());
+        }
+        for (Transaction row : rows) out.writeByte(types.indexOf(row.getTypeAsString()));
+        for (Transaction row : rows) out.writeByte(categories.indexOf(row.getCategoryAsString()));
+        for (Transaction row : rows) out.writeByte(currencies.indexOf(row.getCurrencyCode()));
+        for (Transaction row : rows) out.writeLong(toUnscaled(row.getInitialAmount()));
+        for (Transaction row : rows) out.writeLong(toUnscaled(row.getAmountInBaseCurrency()));
+
+        ByteArrayOutputStream descriptions = new ByteArrayOutputStream();
+        DataOutputStream descriptionsOut = new DataOutputStream(descriptions);
+        for (Transaction row : rows) {
+            if (row.getDescription() == null) {
+                descriptionsOut.writeInt(-1);
+            } else {
+                byte[] bytes = row.getDescription().getBytes(StandardCharsets.UTF_8);
+                descriptionsOut.writeInt(bytes.length);
+                descriptionsOut.write(bytes);
+            }
+        }
+        byte[] compressed = deflate(descriptions.toByteArray());
+        out.writeInt(descriptions.size());
+        out.writeInt(compressed.length);
+        out.write(compressed);
+        for (Transaction row : rows) out.writeLong(row.getJobId() == null ? NULL_JOB_ID : row.getJobId());
+        for (Transaction row : rows) {
+            out.write(row.getFingerprint() == null
+                ? new byte[FINGERPRINT_BYTES]
+                : HexFormat.of().parseHex(row.getFingerprint()));
+        }
+        out.flush();
+
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer content = ByteBuffer.wrap(buffer.toByteArray());
+            while (content.hasRemaining()) channel.write(content);
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static long toUnscaled(final BigDecimal amount) {
+        if (amount == null) return NULL_AMOUNT;
+        return amount.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarLong(final ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static byte[] deflate(final byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(chunk);
+                out.write(chunk, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> indexes = new LinkedHashMap<>();
+
+        void register(final String value) {
+            if (value != null) indexes.putIfAbsent(value, indexes.size());
+            if (indexes.size() >= NULL_INDEX) {
+                throw new IllegalStateException("Слишком много значений в словаре архива");
+            }
+        }
+
+        int indexOf(final String value) {
+            return value == null ? NULL_INDEX : indexes.get(value);
+        }
+
+        void writeTo(final DataOutputStream out) throws IOException {
+            List<String> values = new ArrayList<>(indexes.keySet());
+            out.writeByte(values.size());
+            for (String value : values) out.writeUTF(value);
+        }
+    }
+}
@@ -27,6 +27,7 @@ public class PasswordService {
         }
         user.setPassword(passwordEncoder.encode(request.newPassword()));
         userRepository.save(user);
+        userService.invalidateCachedUser(user.getUsername());
         log.info("Пароль пользователя {} успешно изменен", currentUser.getUsername());
     }
 }
\ No newline at end of file
@@ -3,6 +3,7 @@ package ru.anikeeva.finance.services.budget;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.anikeeva.finance.dto.analytics.AnalyticsCategoriesResponse;
 import ru.anikeeva.finance.dto.analytics.AnalyticsCategoryResponse;
 import ru.anikeeva.finance.dto.analytics.AnalyticsMetricsRequest;
@@ -37,6 +38,7 @@ public class AnalyticsService {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
 
+    @Transactional(readOnly = true)
     public AnalyticsTransactionsResponse getAnalyticsTransactions(final UserDetailsImpl currentUser,
                                                                   final String startDateString,
                                                                   final String endDateString) {
@@ -51,6 +53,7 @@ public class AnalyticsService {
         );
     }
 
+    @Transactional(readOnly = true)
     public AnalyticsCategoriesResponse getAnalyticsByCategories(final UserDetailsImpl currentUser,
                                                               final String startDateString,
                                                               final String endDateString,
@@ -72,6 +75,7 @@ public class AnalyticsService {
         return new AnalyticsCategoriesResponse(categoriesResponses);
     }
 
+    @Transactional(readOnly = true)
     public AnalyticsMetricsResponse getAnalyticsByMetrics(final UserDetailsImpl currentUser,
                                                           final AnalyticsMetricsRequest request) {
         User user = userService.findUserByUsername(currentUser.getUsername());
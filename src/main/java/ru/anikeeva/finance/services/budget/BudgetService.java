@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.anikeeva.finance.dto.budget.CreateBudgetRequest;
 import ru.anikeeva.finance.dto.budget.CreateBudgetResponse;
 import ru.anikeeva.finance.dto.budget.ReadBudgetResponse;
@@ -34,7 +35,9 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -60,6 +63,7 @@ public class BudgetService {
         return new CreateBudgetResponse(budget.getId(), true);
     }
 
+    @Transactional(readOnly = true)
     public Page<ReadBudgetResponse> getAllBudgets(final UserDetailsImpl currentUser, final int page, final int size) {
         User user = userService.findUserByUsername(currentUser.getUsername());
         Pageable pageable = PageRequest.of(page, size);
@@ -67,6 +71,7 @@ public class BudgetService {
         return budgets.map(budgetMapper::fromBudget);
     }
 
+    @Transactional(readOnly = true)
     public ReadBudgetResponse getBudget(UserDetailsImpl currentUser, final UUID id) {
         User user = userService.findUserByUsername(currentUser.getUsername());
         Budget budget = findBudgetById(id);
@@ -110,66 +115,74 @@ public class BudgetService {
         }
     }
 
+    public Map<ETransactionCategory, String> findExceededBudgets(final User user,
+                                                                 final Map<ETransactionCategory, BigDecimal> amounts) {
+        Map<ETransactionCategory, String> exceeded = new EnumMap<>(ETransactionCategory.class);
+        if (amounts.isEmpty()) return exceeded;
+        for (Budget budget : budgetRepository.findAllByUserAndCategoryIn(user, amounts.keySet())) {
+            ETransactionCategory category = budget.getCategory();
+            if (exceeded.containsKey(category)) continue;
+            try {
+                checkBudgetByPeriod(user, category, amounts.get(category), budget.getPeriod(), List.of(budget));
+            } catch (BudgetLimitExceedingException e) {
+                exceeded.put(category, e.getMessage());
+            }
+        }
+        return exceeded;
+    }
+
+    public void notifyBudgetUsage(final User user, final ETransactionCategory category) {
+        for (Budget budget : budgetRepository.findAllByUserAndCategory(user, category)) {
+            BudgetPeriodRange range = resolvePeriod(budget.getPeriod());
+            BigDecimal consumed = sumPeriodAmount(user, category, range);
+            BigDecimal limit = budget.getLimitAmount();
+            if (consumed.compareTo(limit.multiply(EXCESS_PERCENTAGE)) >= 0 && consumed.compareTo(limit) < 0) {
+                notificationService.sendBudgetWarning(user.getId().toString(), new BudgetNotification(
+                    String.format("Внимание! Вы израсходовали более %.0f%% бюджета по категории %s", 80.0,
+                        category.name()),
+                    limit.subtract(consumed),
+                    category.name()
+                ));
+            }
+        }
+    }
+
     private Budget findBudgetById(final UUID id) {
         return budgetRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Бюджет не найден"));
     }
 
+    private record BudgetPeriodRange(LocalDateTime startDate, LocalDateTime endDate, String name) {}
+
+    private BudgetPeriodRange resolvePeriod(final EBudgetPeriod period) {
+        LocalDate now = LocalDate.now();
+        return switch (period) {
+            case DAY -> new BudgetPeriodRange(LocalDateTime.of(now, LocalTime.MIN), LocalDateTime.of(now, LocalTime.MAX),
+                "дневной");
+            case WEEK -> new BudgetPeriodRange(now.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(),
+                now.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).atTime(LocalTime.MAX), "недельный");
+            case MONTH -> new BudgetPeriodRange(now.withDayOfMonth(1).atStartOfDay(),
+                now.with(TemporalAdjusters.lastDayOfMonth()).atTime(LocalTime.MAX), "месячный");
+            case YEAR -> new BudgetPeriodRange(now.withDayOfYear(1).atStartOfDay(),
+                now.with(TemporalAdjusters.lastDayOfYear()).atTime(LocalTime.MAX), "годовой");
+            case null -> throw new IntegrationException("Не удалось рассчитать бюджет");
+        };
+    }
+
+    private BigDecimal sumPeriodAmount(final User user, final ETransactionCategory category,
+                                       final BudgetPeriodRange range) {
+        return transactionRepository.findAllByUserAndCategoryAndDateTimeBetween(user, category, range.startDate(),
+            range.endDate()).stream().map(Transaction::getInitialAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     private void checkBudgetByPeriod(final User user, final ETransactionCategory category, final BigDecimal amount,
                                      final EBudgetPeriod period, List<Budget> budgets) {
-        LocalDate now = LocalDate.now();
-        LocalDateTime startDate;
-        LocalDateTime endDate;
-        String periodStr;
-        switch (period) {
-            case DAY: {
-                startDate = LocalDateTime.of(now, LocalTime.MIN);
-                endDate = LocalDateTime.of(now, LocalTime.MAX);
-                periodStr = "дневной";
-                break;
-            }
-            case WEEK: {
-                startDate = now.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay();
-                endDate = now.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY)).atTime(LocalTime.MAX);
-                periodStr = "недельный";
-                break;
-            }
-            case MONTH: {
-                startDate = now.withDayOfMonth(1).atStartOfDay();
-                endDate = now.with(TemporalAdjusters.lastDayOfMonth()).atTime(LocalTime.MAX);
-                periodStr = "месячный";
-                break;
-            }
-            case YEAR: {
-                startDate = now.withDayOfYear(1).atStartOfDay();
-                endDate = now.with(TemporalAdjusters.lastDayOfYear()).atTime(LocalTime.MAX);
-                periodStr = "годовой";
-                break;
-            }
-            default: {
-                startDate = null;
-                endDate = null;
-                periodStr = null;
-            }
-        }
-        if (startDate == null || endDate == null || periodStr == null) {
-            throw new IntegrationException("Не удалось рассчитать бюджет");
-        }
+        BudgetPeriodRange range = resolvePeriod(period);
         Budget periodBudget = budgets.stream().filter(budget -> budget.getPeriod().equals(period))
             .findFirst().orElseThrow(() -> new EntityNotFoundException("Бюджет на период не найден"));
 
-        BigDecimal periodAmount = transactionRepository.findAllByUserAndCategoryAndDateTimeBetween(user, category,
-            startDate, endDate).stream().map(Transaction::getInitialAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal periodAmount = sumPeriodAmount(user, category, range);
         BigDecimal consumed = periodAmount.add(amount);
         BigDecimal limit = periodBudget.getLimitAmount();
-        BigDecimal threshold = limit.multiply(EXCESS_PERCENTAGE);
-
-        if (consumed.compareTo(threshold) >= 0 && consumed.compareTo(limit) < 0) {
-            notificationService.sendBudgetWarning(user.getId().toString(), new BudgetNotification(
-                String.format("Внимание! Вы израсходовали более %.0f%% бюджета по категории %s", 80.0, category.name()),
-                limit.subtract(periodAmount),
-                category.name()
-            ));
-        }
 
         if (consumed.compareTo(limit) > 0) {
             notificationService.sendBudgetWarning(user.getId().toString(), new BudgetNotification(
@@ -179,7 +192,7 @@ public class BudgetService {
                 category.name()
             ));
             throw new BudgetLimitExceedingException(String.format("Превышен %s лимит расходов по категории, " +
-                "доступный остаток %.2f руб.", periodStr, limit.subtract(periodAmount)));
+                "доступный остаток %.2f руб.", range.name(), limit.subtract(periodAmount)));
         }
     }
 }
\ No newline at end of file
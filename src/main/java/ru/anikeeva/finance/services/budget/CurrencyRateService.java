@@ -10,18 +10,23 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import ru.anikeeva.finance.dto.budget.OpenExchangeRatesResponse;
 import ru.anikeeva.finance.entities.budget.CurrencyRate;
 import ru.anikeeva.finance.entities.enums.ECurrencySource;
 import ru.anikeeva.finance.exceptions.EntityNotFoundException;
 import ru.anikeeva.finance.repositories.budget.CurrencyRateRepository;
+import ru.anikeeva.finance.repositories.common.BulkPersistenceRepository;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Currency;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -30,6 +35,7 @@ import java.util.Optional;
 public class CurrencyRateService {
     private final WebClient webClient;
     private final CurrencyRateRepository currencyRateRepository;
+    private final BulkPersistenceRepository bulkPersistenceRepository;
 
     @Value("${currency-rates.url.central-bank}")
     private String centralBankUrl;
@@ -86,7 +92,9 @@ public class CurrencyRateService {
                     }
                     log.info("Завершено обновление курсов валют с сайта ЦБ РФ. Обновлено {} записей",
                         currencyRates.size());
-                    return Mono.fromCallable(() -> currencyRateRepository.saveAll(currencyRates)).then();
+                    return Mono.fromCallable(() -> bulkPersistenceRepository.persistAll(currencyRates))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .then();
                 } catch (Exception e) {
                     log.error("Ошибка парсинга курсов валют с сайта ЦБ РФ", e);
                     return Mono.error(e);
@@ -127,7 +135,9 @@ public class CurrencyRateService {
                         .toList();
                     log.info("Завершено обновление курсов валют с OpenExchangeRates. Обновлено {} записей",
                         currencyRates.size());
-                    return Mono.fromCallable(() -> currencyRateRepository.saveAll(currencyRates)).then();
+                    return Mono.fromCallable(() -> bulkPersistenceRepository.persistAll(currencyRates))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .then();
                 } catch (Exception e) {
                     log.error("Ошибка парсинга курсов валют с OpenExchangeRates", e);
                     return Mono.error(e);
@@ -148,4 +158,17 @@ public class CurrencyRateService {
             }
         }
     }
-}
\ No newline at end of file
+
+    public CurrencyRateSnapshot getCurrencyRateSnapshot(final Collection<Currency> currencies) {
+        Map<Currency, BigDecimal> rates = new HashMap<>();
+        if (!currencies.isEmpty()) {
+            for (CurrencyRate rate : currencyRateRepository.findLatestByCurrencyIn(currencies)) {
+                if (rate.getSource() == ECurrencySource.CENTRAL_BANK || !rates.containsKey(rate.getCurrency())) {
+                    rates.put(rate.getCurrency(), rate.getValueInRelationToBaseCurrency());
+                }
+            }
+        }
+        log.info("Сформирован снимок курсов для {} валют", rates.size());
+        return new CurrencyRateSnapshot(rates);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.anikeeva.finance.services.budget;
+
+import ru.anikeeva.finance.exceptions.EntityNotFoundException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+
+public record CurrencyRateSnapshot(Map<Currency, BigDecimal> ratesInRub) {
+    private static final Currency RUB = Currency.getInstance("RUB");
+
+    public CurrencyRateSnapshot {
+        ratesInRub = Map.copyOf(ratesInRub);
+    }
+
+    public BigDecimal convert(final BigDecimal amount, final Currency currency, final Currency baseCurrency) {
+        if (currency.equals(baseCurrency)) return amount;
+        BigDecimal amountInRub = amount.multiply(rateOf(currency));
+        if (baseCurrency.equals(RUB)) return amountInRub;
+        return amountInRub.divide(rateOf(baseCurrency), 2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal rateOf(final Currency currency) {
+        if (currency.equals(RUB)) return BigDecimal.ONE;
+        BigDecimal rate = ratesInRub.get(currency);
+        if (rate == null) {
+            throw new EntityNotFoundException("Курс валюты не найден");
+        }
+        return rate;
+    }
+}
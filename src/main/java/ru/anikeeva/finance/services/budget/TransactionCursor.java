@@ -0,0 +1,35 @@
+package ru.anikeeva.finance.services.budget;
+
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public record TransactionCursor(LocalDateTime dateTime, UUID id) {
+    private static final String SEPARATOR = "|";
+
+    public static TransactionCursor of(final Transaction transaction) {
+        return new TransactionCursor(transaction.getDateTime(), transaction.getId());
+    }
+
+    public static TransactionCursor decode(final String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            if (separator < 0) throw new IllegalArgumentException();
+            return new TransactionCursor(LocalDateTime.parse(value.substring(0, separator)),
+                UUID.fromString(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadDataException("Некорректный курсор продолжения списка транзакций");
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((dateTime + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,113 @@
+package ru.anikeeva.finance.services.budget;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anikeeva.finance.repositories.budget.TransactionPartitionRepository;
+
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static ru.anikeeva.finance.repositories.budget.TransactionPartitionRepository.PARTITIONED_TABLE;
+import static ru.anikeeva.finance.repositories.budget.TransactionPartitionRepository.TABLE;
+
+@Service
+@Slf4j
+public class TransactionPartitionService {
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+
+    private final TransactionPartitionRepository partitionRepository;
+    private final int monthsAhead;
+    private final int detachAfterMonths;
+    private final int backfillBatchSize;
+    private final int fingerprintBatchUsers;
+    private final long lockTimeoutInMs;
+    private final AtomicReference<UUID> backfillCursor = new AtomicReference<>(MIN_ID);
+    private final AtomicReference<UUID> fingerprintCursor = new AtomicReference<>(MIN_ID);
+
+    public TransactionPartitionService(final TransactionPartitionRepository partitionRepository,
+                                       @Value("${partitions.months-ahead}") final int monthsAhead,
+                                       @Value("${partitions.detach-after-months}") final int detachAfterMonths,
+                                       @Value("${partitions.backfill-batch-size}") final int backfillBatchSize,
+                                       @Value("${partitions.fingerprint-batch-users}") final int fingerprintBatchUsers,
+                                       @Value("${partitions.lock-timeout-in-ms}") final long lockTimeoutInMs) {
+        this.partitionRepository = partitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.detachAfterMonths = detachAfterMonths;
+        this.backfillBatchSize = backfillBatchSize;
+        this.fingerprintBatchUsers = fingerprintBatchUsers;
+        this.lockTimeoutInMs = lockTimeoutInMs;
+    }
+
+    @Transactional
+    public int createFuturePartitions(final YearMonth currentMonth) {
+        if (!partitionRepository.tryLockMaintenance(lockTimeoutInMs)) return 0;
+        String parentTable = partitionRepository.isMigrationPending() ? PARTITIONED_TABLE : TABLE;
+        Set<String> existing = new HashSet<>(partitionRepository.findPartitions(parentTable));
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = currentMonth.plusMonths(i);
+            if (!existing.contains(TransactionPartitionRepository.partitionName(month))) {
+                int moved = partitionRepository.createPartition(parentTable, month);
+                if (moved > 0) {
+                    log.info("В секцию за {} перенесено {} транзакций из секции по умолчанию", month, moved);
+                }
+                created++;
+            }
+        }
+        if (created > 0) {
+            log.info("Создано {} секций таблицы транзакций начиная с {}", created, currentMonth);
+        }
+        return created;
+    }
+
+    @Transactional
+    public boolean migrateBatch() {
+        if (!partitionRepository.isMigrationPending() || !partitionRepository.tryLockMaintenance(lockTimeoutInMs)) {
+            return false;
+        }
+        UUID lastId = partitionRepository.copyBatchToPartitioned(backfillCursor.get(), backfillBatchSize);
+        if (lastId != null) {
+            backfillCursor.set(lastId);
+            return true;
+        }
+        partitionRepository.swapToPartitioned();
+        backfillCursor.set(MIN_ID);
+        log.info("Перенос транзакций в секционированную таблицу завершен, прежняя таблица переименована в {}",
+            TransactionPartitionRepository.LEGACY_TABLE);
+        return false;
+    }
+
+    @Transactional
+    public boolean backfillFingerprintBatch() {
+        UUID cursor = fingerprintCursor.get();
+        if (cursor == null || !partitionRepository.tryLockMaintenance(lockTimeoutInMs)) return false;
+        UUID lastUserId = partitionRepository.backfillFingerprints(cursor, fingerprintBatchUsers);
+        fingerprintCursor.set(lastUserId);
+        if (lastUserId == null) {
+            log.info("Заполнение отпечатков ранее импортированных транзакций завершено");
+        }
+        return lastUserId != null;
+    }
+
+    public int detachExpiredPartitions(final YearMonth currentMonth) {
+        if (detachAfterMonths <= 0 || partitionRepository.isMigrationPending()) return 0;
+        YearMonth threshold = currentMonth.minusMonths(detachAfterMonths);
+        int detached = 0;
+        for (String partition : partitionRepository.findPartitions(TABLE)) {
+            YearMonth month = TransactionPartitionRepository.partitionMonth(partition);
+            if (month == null || !month.isBefore(threshold)) continue;
+            if (!partitionRepository.detachPartition(partition, lockTimeoutInMs)) {
+                log.info("Отсоединение секций отложено: обслуживание таблицы транзакций выполняет другой узел");
+                break;
+            }
+            log.info("Секция {} отсоединена от таблицы транзакций", partition);
+            detached++;
+        }
+        return detached;
+    }
+}
@@ -1,6 +1,9 @@
 package ru.anikeeva.finance.services.budget;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.annotation.AfterStep;
 import org.springframework.batch.core.annotation.BeforeStep;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemProcessor;
@@ -13,47 +16,102 @@ import ru.anikeeva.finance.entities.enums.ETransactionCategory;
 import ru.anikeeva.finance.entities.enums.ETransactionType;
 import ru.anikeeva.finance.entities.user.User;
 import ru.anikeeva.finance.exceptions.BadDataException;
+import ru.anikeeva.finance.generators.UuidV7Generator;
+import ru.anikeeva.finance.services.imports.TransactionDuplicateFilter;
+import ru.anikeeva.finance.services.imports.TransactionDuplicateWriter;
+import ru.anikeeva.finance.services.imports.TransactionFilePartitioner;
+import ru.anikeeva.finance.services.imports.TransactionFingerprints;
 import ru.anikeeva.finance.services.user.UserService;
 
 import java.math.BigDecimal;
 import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 @Component
 @StepScope
+@Slf4j
 public class TransactionProcessor implements ItemProcessor<TransactionImportDto, Transaction> {
     private final UUID userId;
     private final UserService userService;
+    private final CurrencyRateService currencyRateService;
+    private final TransactionDuplicateFilter duplicateFilter;
+    private TransactionFingerprints fingerprints = new TransactionFingerprints();
     private Long jobId;
-    private final TransactionService transactionService;
+    private User currentUser;
+    private CurrencyRateSnapshot rates;
 
     public TransactionProcessor(@Value("#{jobParameters['userId']}") String userIdStr,
-                                UserService userService, TransactionService transactionService) {
+                                UserService userService, CurrencyRateService currencyRateService,
+                                TransactionDuplicateFilter duplicateFilter) {
         this.userId = UUID.fromString(userIdStr);
         this.userService = userService;
-        this.transactionService = transactionService;
+        this.currencyRateService = currencyRateService;
+        this.duplicateFilter = duplicateFilter;
     }
 
     @BeforeStep
-    public void beforeStep(StepExecution stepExecution) {
-        this.jobId = stepExecution.getJobExecution().getJobId();
+    public void beforeStep(StepExecution stepExecution) throws Exception {
+        prepare(stepExecution.getJobExecution().getJobId());
+        if (duplicateFilter != null) {
+            duplicateFilter.load(userId);
+            Map<String, Integer> preceding = new HashMap<>(
+                TransactionFilePartitioner.occurrencesOf(stepExecution.getExecutionContext()));
+            duplicateFilter.forEachResumed(stepExecution.getExecutionContext(), item -> {
+                String key = fingerprintKey(item);
+                if (key != null) preceding.merge(key, 1, Integer::sum);
+            });
+            fingerprints = new TransactionFingerprints(preceding);
+        }
+    }
+
+    @AfterStep
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (duplicateFilter != null) {
+            log.info("Шаг {}: проверено в БД вероятных дубликатов {}, пропущено дубликатов {}",
+                stepExecution.getStepName(), duplicateFilter.probes(),
+                TransactionDuplicateWriter.duplicatesOf(stepExecution));
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    public void prepare(final Long jobId) {
+        this.jobId = jobId;
+        this.currentUser = userService.findUserById(userId);
+        this.rates = currencyRateService.getCurrencyRateSnapshot(Currency.getAvailableCurrencies());
     }
 
     @Override
     public Transaction process(@NonNull TransactionImportDto item) throws Exception {
+        Transaction transaction = toTransaction(item);
+        transaction.setFingerprint(fingerprints.next(transaction));
+        if (duplicateFilter != null && duplicateFilter.isArchived(transaction.getFingerprint())) return null;
+        return transaction;
+    }
+
+    public String fingerprintKey(final TransactionImportDto item) {
+        try {
+            return TransactionFingerprints.normalize(toTransaction(item));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private Transaction toTransaction(final TransactionImportDto item) {
         if (userId == null) {
             throw new BadDataException("Id пользователя не найдено в параметрах Job");
         }
-        User currentUser = userService.findUserById(userId);
         if (item.initialAmount() == null || item.initialAmount().doubleValue() < 0) {
             throw new BadDataException("Сумма транзакции некорректна");
         }
-        Currency initialCurrency = Currency.getInstance(item.initialCurrency().toUpperCase());
-        BigDecimal amountInBaseCurrency = initialCurrency.equals(currentUser.getBaseCurrency())
-            ? item.initialAmount()
-            : transactionService.calculateAmountWithBaseCurrency(currentUser, item.initialAmount(), initialCurrency);
+        Currency initialCurrency = item.initialCurrency() == null
+            ? currentUser.getBaseCurrency()
+            : Currency.getInstance(item.initialCurrency().toUpperCase());
+        BigDecimal amountInBaseCurrency = rates.convert(item.initialAmount(), initialCurrency,
+            currentUser.getBaseCurrency());
         return Transaction.builder()
-            .id(UUID.randomUUID())
+            .id(UuidV7Generator.randomUuid())
             .user(currentUser)
             .type(ETransactionType.valueOf(item.type()))
             .category(ETransactionCategory.valueOf(item.category().toUpperCase()))
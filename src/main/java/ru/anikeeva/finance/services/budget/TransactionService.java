@@ -1,42 +1,64 @@
 package ru.anikeeva.finance.services.budget;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.core.Job;
-import org.springframework.batch.core.JobParameters;
-import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
+import ru.anikeeva.finance.dto.budget.CreateTransactionBatchResponse;
 import ru.anikeeva.finance.dto.budget.CreateTransactionRequest;
 import ru.anikeeva.finance.dto.budget.CreateTransactionResponse;
+import ru.anikeeva.finance.dto.budget.ImportJobResponse;
+import ru.anikeeva.finance.dto.budget.TransactionBatchItemResult;
 import ru.anikeeva.finance.dto.budget.TransactionResponse;
+import ru.anikeeva.finance.dto.budget.TransactionSearchRequest;
+import ru.anikeeva.finance.dto.budget.TransactionSliceResponse;
 import ru.anikeeva.finance.dto.budget.UpdateTransactionRequest;
 import ru.anikeeva.finance.entities.budget.CurrencyRate;
 import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
 import ru.anikeeva.finance.entities.enums.ETransactionType;
 import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.exceptions.BadDataException;
 import ru.anikeeva.finance.exceptions.EmptyRequestException;
 import ru.anikeeva.finance.exceptions.EntityNotFoundException;
 import ru.anikeeva.finance.exceptions.InsufficientFundsException;
 import ru.anikeeva.finance.exceptions.IntegrationException;
 import ru.anikeeva.finance.exceptions.NoRightsException;
+import ru.anikeeva.finance.executors.ImportJobScheduler;
+import ru.anikeeva.finance.generators.UuidV7Generator;
 import ru.anikeeva.finance.mappers.TransactionMapper;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
 import ru.anikeeva.finance.repositories.budget.TransactionRepository;
+import ru.anikeeva.finance.repositories.budget.TransactionSearchRepository;
+import ru.anikeeva.finance.repositories.budget.TransactionSpecifications;
 import ru.anikeeva.finance.repositories.user.UserRepository;
 import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+import ru.anikeeva.finance.services.ledger.LedgerService;
+import ru.anikeeva.finance.services.outbox.OutboxService;
 import ru.anikeeva.finance.services.user.UserService;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Currency;
+import java.util.EnumMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -47,40 +69,126 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final TransactionMapper transactionMapper;
     private final UserRepository userRepository;
-    private final JobLauncher asyncJobLauncher;
-    private final Job importJob;
+    private final ImportJobScheduler importJobScheduler;
     private final CurrencyRateService currencyRateService;
     private final BudgetService budgetService;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final OutboxService outboxService;
+    private final LedgerService ledgerService;
+    private final TransactionSearchRepository transactionSearchRepository;
+    private final TransactionArchiveService transactionArchiveService;
+
+    private static final int MAX_BATCH_SIZE = 1000;
+    private static final int MAX_SLICE_SIZE = 500;
 
     @Transactional
     public CreateTransactionResponse createTransaction(final UserDetailsImpl currentUser,
                                                        final CreateTransactionRequest request) {
         User user = userService.findUserByUsername(currentUser.getUsername());
-        checkBalanceForTransaction(currentUser, request.type(), request.initialAmount());
         BigDecimal amountInBaseCurrency = request.initialCurrency().equals(user.getBaseCurrency())
             ? request.initialAmount()
             : calculateAmountWithBaseCurrency(user, request.initialAmount(), request.initialCurrency());
         budgetService.checkBudgetNotExceeded(user, request.category(), amountInBaseCurrency);
+        applyBalanceChange(user, request.type(), amountInBaseCurrency);
         Transaction transaction = transactionMapper.toTransaction(request);
         transaction.setAmountInBaseCurrency(amountInBaseCurrency);
         transaction.setUser(user);
         transactionRepository.save(transaction);
+        ledgerService.recordTransaction(transaction);
+        outboxService.publish(EOutboxEventType.TRANSACTION_CREATED, transaction);
         log.info("Создана {}-транзакция {} на сумму {} {} для пользователя {}", request.type(), transaction.getId(),
             request.initialAmount(), request.initialCurrency(), user.getUsername());
-        switch (request.type()) {
-            case INCOME -> user.setBalance(user.getBalance().add(request.initialAmount()));
-            case EXPENSE -> user.setBalance(user.getBalance().subtract(request.initialAmount()));
-        }
-        userRepository.save(user);
-        log.info("Баланс пользователя изменен после выполнения транзакции {}", transaction.getId());
         return new CreateTransactionResponse(transaction.getId(), true);
     }
 
+    @Transactional
+    public CreateTransactionBatchResponse createTransactions(final UserDetailsImpl currentUser,
+                                                             final List<CreateTransactionRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new EmptyRequestException("Список транзакций пуст");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new BadDataException(String.format("Пакет не может содержать более %d транзакций", MAX_BATCH_SIZE));
+        }
+        User user = userService.findUserByUsername(currentUser.getUsername());
+        String[] errors = new String[requests.size()];
+        Set<Currency> currencies = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            errors[i] = validateBatchItem(requests.get(i));
+            if (errors[i] == null) {
+                currencies.add(requests.get(i).initialCurrency());
+            }
+        }
+        currencies.add(user.getBaseCurrency());
+        CurrencyRateSnapshot rates = currencyRateService.getCurrencyRateSnapshot(currencies);
+
+        BigDecimal[] amountsInBaseCurrency = new BigDecimal[requests.size()];
+        Map<ETransactionCategory, BigDecimal> amountsByCategory = new EnumMap<>(ETransactionCategory.class);
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) continue;
+            CreateTransactionRequest request = requests.get(i);
+            try {
+                amountsInBaseCurrency[i] = rates.convert(request.initialAmount(), request.initialCurrency(),
+                    user.getBaseCurrency());
+                amountsByCategory.merge(request.category(), amountsInBaseCurrency[i], BigDecimal::add);
+            } catch (EntityNotFoundException e) {
+                errors[i] = e.getMessage();
+            }
+        }
+        Map<ETransactionCategory, String> exceededBudgets = budgetService.findExceededBudgets(user, amountsByCategory);
+
+        List<Transaction> transactions = new ArrayList<>();
+        UUID[] ids = new UUID[requests.size()];
+        BigDecimal balanceChange = BigDecimal.ZERO;
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) continue;
+            CreateTransactionRequest request = requests.get(i);
+            if (exceededBudgets.containsKey(request.category())) {
+                errors[i] = exceededBudgets.get(request.category());
+                continue;
+            }
+            ids[i] = UuidV7Generator.randomUuid();
+            transactions.add(Transaction.builder()
+                .id(ids[i])
+                .user(user)
+                .type(request.type())
+                .category(request.category())
+                .initialAmount(request.initialAmount())
+                .initialCurrency(request.initialCurrency())
+                .amountInBaseCurrency(amountsInBaseCurrency[i])
+                .dateTime(request.dateTime())
+                .description(request.description())
+                .build());
+            balanceChange = request.type() == ETransactionType.INCOME
+                ? balanceChange.add(amountsInBaseCurrency[i])
+                : balanceChange.subtract(amountsInBaseCurrency[i]);
+        }
+        if (!transactions.isEmpty()) {
+            applyBalanceDelta(user, balanceChange);
+            transactionBatchRepository.insertAll(transactions);
+            ledgerService.recordTransactions(transactions);
+            outboxService.publishAll(EOutboxEventType.TRANSACTION_CREATED, transactions);
+        }
+
+        List<TransactionBatchItemResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            results.add(new TransactionBatchItemResult(i, ids[i], errors[i] == null, errors[i]));
+        }
+        log.info("Пакетно создано {} из {} транзакций для пользователя {}", transactions.size(), requests.size(),
+            user.getUsername());
+        return new CreateTransactionBatchResponse(transactions.size(), requests.size() - transactions.size(), results);
+    }
+
+    @Transactional(readOnly = true)
     public TransactionResponse showTransaction(final UserDetailsImpl currentUser, final UUID transactionId) {
-        Transaction transaction = findTransactionForUser(currentUser, transactionId);
+        Transaction transaction = transactionRepository.findById(transactionId)
+            .or(() -> transactionArchiveService.findById(currentUser.getId(), transactionId))
+            .orElseThrow(() -> new EntityNotFoundException("Транзакция не найдена"));
+        checkOwner(currentUser, transaction);
         return transactionMapper.toTransactionResponse(transaction);
     }
 
+    @Transactional(readOnly = true)
     public Page<TransactionResponse> showAllTransactions(final UserDetailsImpl currentUser,
                                                          final int page,
                                                          final int limit) {
@@ -89,6 +197,50 @@ public class TransactionService {
         return transactions.map(transactionMapper::toTransactionResponse);
     }
 
+    @Transactional(readOnly = true)
+    public TransactionSliceResponse showTransactionsByCursor(final UserDetailsImpl currentUser, final String cursor,
+                                                             final int limit) {
+        checkSliceSize(limit);
+        Pageable pageable = PageRequest.ofSize(limit);
+        Slice<Transaction> transactions;
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findSliceByUserId(currentUser.getId(), pageable);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findSliceByUserIdBefore(currentUser.getId(), position.dateTime(),
+                position.id(), pageable);
+        }
+        return toSliceResponse(withArchived(currentUser.getId(), cursor, transactions, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionSliceResponse searchTransactions(final UserDetailsImpl currentUser,
+                                                       final TransactionSearchRequest request, final String cursor,
+                                                       final int limit) {
+        checkSliceSize(limit);
+        if (request.minAmount() != null && request.maxAmount() != null &&
+            request.minAmount().compareTo(request.maxAmount()) > 0) {
+            throw new BadDataException("Минимальная сумма больше максимальной");
+        }
+        if (request.from() != null && request.to() != null && request.from().isAfter(request.to())) {
+            throw new BadDataException("Начало периода позже его окончания");
+        }
+        TransactionCursor position = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        Specification<Transaction> specification = Specification.allOf(
+            TransactionSpecifications.belongsTo(currentUser.getId()),
+            TransactionSpecifications.hasType(request.type()),
+            TransactionSpecifications.hasCategoryIn(request.categories()),
+            TransactionSpecifications.amountFrom(request.minAmount()),
+            TransactionSpecifications.amountTo(request.maxAmount()),
+            TransactionSpecifications.hasCurrency(request.currency()),
+            TransactionSpecifications.dateFrom(request.from()),
+            TransactionSpecifications.dateTo(request.to()),
+            TransactionSpecifications.descriptionMatches(request.query()),
+            position == null ? null : TransactionSpecifications.before(position.dateTime(), position.id()));
+        return toSliceResponse(transactionSearchRepository.findSlice(specification, limit));
+    }
+
+    @Transactional
     public TransactionResponse updateTransaction(final UserDetailsImpl currentUser, final UUID transactionId,
                                                  final UpdateTransactionRequest request) {
         Transaction transaction = findTransactionForUser(currentUser, transactionId);
@@ -97,49 +249,68 @@ public class TransactionService {
             log.info("Попытка изменить транзакцию {} с пустым запросом", transaction.getId());
             throw new EmptyRequestException("Запрос на изменение транзакции пустой");
         }
-        ETransactionType type = request.type() != null ? request.type() : transaction.getType();
-        checkBalanceForTransaction(currentUser, type, request.initialAmount());
+        User user = userService.findUserByUsername(currentUser.getUsername());
+        ETransactionType previousType = transaction.getType();
+        BigDecimal previousAmount = transaction.getInitialAmount();
+        Currency previousCurrency = transaction.getInitialCurrency();
+        BigDecimal previousSignedAmount = ledgerService.findEffectiveAmount(transaction);
         transactionMapper.updateTransactionFromUpdateTransactionRequest(request, transaction);
+        boolean isBalanceAffected = transaction.getType() != previousType ||
+            !Objects.equals(transaction.getInitialCurrency(), previousCurrency) ||
+            (transaction.getInitialAmount() != null && previousAmount != null &&
+                transaction.getInitialAmount().compareTo(previousAmount) != 0);
+        if (isBalanceAffected) {
+            transaction.setAmountInBaseCurrency(transaction.getInitialCurrency().equals(user.getBaseCurrency())
+                ? transaction.getInitialAmount()
+                : calculateAmountWithBaseCurrency(user, transaction.getInitialAmount(),
+                    transaction.getInitialCurrency()));
+            applyBalanceDelta(user, LedgerService.signedAmount(transaction).subtract(previousSignedAmount));
+            ledgerService.recordReversal(transaction);
+            ledgerService.recordTransaction(transaction);
+        }
         transactionRepository.save(transaction);
+        outboxService.publish(EOutboxEventType.TRANSACTION_UPDATED, transaction);
         log.info("Детали транзакции {} были изменены пользователем", transaction.getId());
         return transactionMapper.toTransactionResponse(transaction);
     }
 
+    @Transactional
     public void deleteTransaction(final UserDetailsImpl currentUser, final UUID transactionId) {
         Transaction transaction = findTransactionForUser(currentUser, transactionId);
+        applyBalanceDelta(transaction.getUser(), ledgerService.findEffectiveAmount(transaction).negate());
+        ledgerService.recordReversal(transaction);
         transactionRepository.delete(transaction);
+        outboxService.publish(EOutboxEventType.TRANSACTION_DELETED, transaction);
         log.info("Транзакция {} была удалена пользователем", transaction.getId());
     }
 
     public BigDecimal getAmountByTransactionType(final User user, final LocalDateTime startDate,
                                                  final LocalDateTime endDate, final ETransactionType transactionType) {
-        return transactionRepository.findAllByUserIdAndTypeAndDateTimeBetween(user.getId(), transactionType, startDate,
-            endDate).stream()
+        return getAllTransactionsByType(user, startDate, endDate, transactionType).stream()
             .map(Transaction::getAmountInBaseCurrency).reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getAllTransactionsByType(final User user, final LocalDateTime startDate,
                                                       final LocalDateTime endDate, ETransactionType type) {
-        return transactionRepository.findAllByUserIdAndTypeAndDateTimeBetween(user.getId(), type, startDate, endDate);
+        return TransactionArchiveService.merge(
+            transactionRepository.findAllByUserIdAndTypeAndDateTimeBetween(user.getId(), type, startDate, endDate),
+            transactionArchiveService.findTransactions(user, type, startDate, endDate));
     }
 
-    public String uploadFileWithTransactions(final UserDetailsImpl currentUser, final MultipartFile file) {
+    public ImportJobResponse uploadFileWithTransactions(final UserDetailsImpl currentUser, final MultipartFile file) {
+        Path tempFile;
         try {
-            Path tempFile = Files.createTempFile("transactions-", ".csv");
+            tempFile = importJobScheduler.createSpoolFile();
             file.transferTo(tempFile);
-            JobParameters params = new JobParametersBuilder()
-                .addString("input.file.path", tempFile.toString())
-                .addString("userId", currentUser.getId().toString())
-                .addLong("time", System.currentTimeMillis())
-                .addString("jobId", UUID.randomUUID().toString())
-                .toJobParameters();
-            asyncJobLauncher.run(importJob, params);
-            log.info("Инициирована загрузка csv-файла с транзакциями пользователем {}", currentUser.getUsername());
-            return "Импорт файла запущен";
-        } catch (Exception e) {
+        } catch (IOException e) {
             log.error("Ошибка загрузки csv-файла пользователем {}", currentUser.getUsername(), e);
             throw new IntegrationException("Ошибка загрузки файла .csv");
         }
+        ImportJobResponse response = importJobScheduler.submitFile(currentUser.getId(), tempFile);
+        log.info("Загрузка csv-файла с транзакциями пользователем {} поставлена в очередь, позиция {}",
+            currentUser.getUsername(), response.queuePosition());
+        return response;
     }
 
     public BigDecimal calculateAmountWithBaseCurrency(final User user, final BigDecimal amount, final Currency currency) {
@@ -156,21 +327,82 @@ public class TransactionService {
 
     private Transaction findTransactionForUser(final UserDetailsImpl currentUser, final UUID transactionId) {
         Transaction transaction = transactionRepository.findById(transactionId).orElseThrow(() ->
-            new EntityNotFoundException("Транзакция не найдена"));
+            transactionArchiveService.findById(currentUser.getId(), transactionId).isPresent()
+                ? new BadDataException("Транзакция перенесена в архив и не может быть изменена")
+                : new EntityNotFoundException("Транзакция не найдена"));
+        checkOwner(currentUser, transaction);
+        return transaction;
+    }
+
+    private void checkOwner(final UserDetailsImpl currentUser, final Transaction transaction) {
         if (!transaction.getUser().getId().equals(currentUser.getId())) {
             log.info("Попытка получить транзакцию другого пользователя со стороны {}", currentUser.getUsername());
             throw new NoRightsException("Транзакция не принадлежит текущему пользователю");
         }
-        return transaction;
     }
 
-    private void checkBalanceForTransaction(final UserDetailsImpl currentUser, final ETransactionType type,
-                                            final BigDecimal amount) {
-        User user = userService.findUserByUsername(currentUser.getUsername());
-        if (type.equals(ETransactionType.EXPENSE) && user.getBalance().compareTo(amount) < 0) {
-            log.info("Откат транзакции пользователя {} из-за недостаточного баланса. Сумма транзакции: {}, баланс: {}.",
-                user.getUsername(), amount, user.getBalance());
-            throw new InsufficientFundsException("Баланс пользователя меньше суммы транзакции");
+    private Slice<Transaction> withArchived(final UUID userId, final String cursor, final Slice<Transaction> live,
+                                            final int limit) {
+        LocalDateTime archivedUntil = transactionArchiveService.archivedUntil(userId);
+        if (archivedUntil == null) return live;
+        List<Transaction> content = live.getContent();
+        if (live.hasNext() && !content.getLast().getDateTime().isBefore(archivedUntil)) return live;
+        TransactionCursor position = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
+        List<Transaction> merged = new ArrayList<>(TransactionArchiveService.merge(content,
+            transactionArchiveService.findBefore(userId, position, limit + 1)));
+        merged.sort(TransactionArchiveService.NEWEST_FIRST);
+        boolean hasNext = live.hasNext() || merged.size() > limit;
+        return new SliceImpl<>(merged.subList(0, Math.min(limit, merged.size())), live.getPageable(), hasNext);
+    }
+
+    private void checkSliceSize(final int limit) {
+        if (limit <= 0 || limit > MAX_SLICE_SIZE) {
+            throw new BadDataException(String.format("Размер страницы должен быть от 1 до %d", MAX_SLICE_SIZE));
+        }
+    }
+
+    private TransactionSliceResponse toSliceResponse(final Slice<Transaction> transactions) {
+        List<Transaction> content = transactions.getContent();
+        String nextCursor = transactions.hasNext() ? TransactionCursor.of(content.getLast()).encode() : null;
+        return new TransactionSliceResponse(content.stream().map(transactionMapper::toTransactionResponse).toList(),
+            nextCursor, transactions.hasNext());
+    }
+
+    private String validateBatchItem(final CreateTransactionRequest request) {
+        if (request == null) return "Транзакция не передана";
+        if (request.type() == null) return "Не указан тип транзакции";
+        if (request.category() == null) return "Не указана категория транзакции";
+        if (request.initialAmount() == null || request.initialAmount().signum() <= 0) {
+            return "Сумма транзакции некорректна";
+        }
+        if (request.initialCurrency() == null) return "Не указана валюта транзакции";
+        if (request.dateTime() == null) return "Не указаны дата и время транзакции";
+        if (request.description() != null && request.description().length() > 255) {
+            return "Описание транзакции длиннее 255 символов";
+        }
+        return null;
+    }
+
+    private void applyBalanceChange(final User user, final ETransactionType type, final BigDecimal amount) {
+        switch (type) {
+            case INCOME -> userRepository.updateBalance(user.getId(), amount);
+            case EXPENSE -> {
+                if (userRepository.withdrawBalance(user.getId(), amount) == 0) {
+                    log.info("Откат транзакции пользователя {} из-за недостаточного баланса. Сумма транзакции: {}.",
+                        user.getUsername(), amount);
+                    throw new InsufficientFundsException("Баланс пользователя меньше суммы транзакции");
+                }
+            }
+        }
+        log.info("Баланс пользователя {} изменен после {}-транзакции на сумму {}", user.getUsername(), type, amount);
+    }
+
+    private void applyBalanceDelta(final User user, final BigDecimal delta) {
+        if (delta.signum() < 0) {
+            applyBalanceChange(user, ETransactionType.EXPENSE, delta.negate());
+        } else if (delta.signum() > 0) {
+            applyBalanceChange(user, ETransactionType.INCOME, delta);
         }
     }
-}
\ No newline at end of file
+
+}
@@ -0,0 +1,199 @@
+package ru.anikeeva.finance.services.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import ru.anikeeva.finance.exceptions.IdempotencyConflictException;
+import ru.anikeeva.finance.exceptions.IntegrationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyService {
+    private static final long IN_FLIGHT_WAIT_IN_SECONDS = 30;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Map<String, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+
+    private record InFlightRequest(String fingerprint, CompletableFuture<String> response) {}
+
+    private record StoredResponse(String fingerprint, boolean completed, String response) {}
+
+    public IdempotencyService(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                              @Value("${idempotency.ttl-in-hours}") long ttlInHours,
+                              @Value("${idempotency.lease-in-seconds}") long leaseInSeconds) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlInHours);
+        this.lease = Duration.ofSeconds(leaseInSeconds);
+    }
+
+    public <T> T execute(final String idempotencyKey, final UUID userId, final String fingerprint,
+                         final Class<T> responseType, final Supplier<T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.get();
+        }
+        String key = "idempotency-" + userId + "-" + idempotencyKey;
+        InFlightRequest request = new InFlightRequest(fingerprint, new CompletableFuture<>());
+        InFlightRequest leader = inFlight.putIfAbsent(key, request);
+        if (leader != null) {
+            checkFingerprint(key, leader.fingerprint(), fingerprint);
+            log.info("Повторный запрос с ключом идемпотентности {} ожидает выполнения исходного", key);
+            return fromJson(awaitLeader(leader), responseType);
+        }
+        try {
+            String response = executeOnce(key, fingerprint, action);
+            request.response().complete(response);
+            return fromJson(response, responseType);
+        } catch (RuntimeException e) {
+            request.response().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, request);
+        }
+    }
+
+    public <T> T executeStreaming(final String idempotencyKey, final UUID userId, final String fingerprint,
+                                  final InputStream body, final Class<T> responseType,
+                                  final Function<InputStream, T> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return action.apply(body);
+        }
+        String key = "idempotency-" + userId + "-" + idempotencyKey;
+        String stored = idempotencyStore.get(key);
+        if (stored != null) {
+            StoredResponse storedResponse = fromJson(stored, StoredResponse.class);
+            if (!storedResponse.completed()) {
+                throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности уже выполняется");
+            }
+            try {
+                checkFingerprint(key, storedResponse.fingerprint(), bodyFingerprint(fingerprint,
+                    DigestUtils.sha256(body)));
+            } catch (IOException e) {
+                throw new IntegrationException("Не удалось прочитать тело запроса");
+            }
+            log.info("Возвращен сохраненный ответ для ключа идемпотентности {}", key);
+            return fromJson(storedResponse.response(), responseType);
+        }
+        if (!idempotencyStore.putIfAbsent(key, toJson(new StoredResponse(fingerprint, false, null)), lease)) {
+            throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности уже выполняется");
+        }
+        try {
+            DigestInputStream digestStream = new DigestInputStream(body, DigestUtils.getSha256Digest()) {
+                @Override
+                public void close() {
+                }
+            };
+            T response = action.apply(digestStream);
+            digestStream.transferTo(OutputStream.nullOutputStream());
+            String bodyFingerprint = bodyFingerprint(fingerprint, digestStream.getMessageDigest().digest());
+            idempotencyStore.put(key, toJson(new StoredResponse(bodyFingerprint, true, toJson(response))), ttl);
+            return response;
+        } catch (IOException e) {
+            idempotencyStore.delete(key);
+            throw new IntegrationException("Не удалось прочитать тело запроса");
+        } catch (RuntimeException e) {
+            idempotencyStore.delete(key);
+            throw e;
+        }
+    }
+
+    public String fingerprintOf(final Object request) {
+        return DigestUtils.sha256Hex(toJson(request));
+    }
+
+    public String fingerprintOf(final MultipartFile file) {
+        try (InputStream inputStream = file.getInputStream()) {
+            return DigestUtils.sha256Hex(inputStream);
+        } catch (IOException e) {
+            throw new IntegrationException("Не удалось прочитать загруженный файл");
+        }
+    }
+
+    private <T> String executeOnce(final String key, final String fingerprint, final Supplier<T> action) {
+        String stored = idempotencyStore.get(key);
+        if (stored != null) {
+            StoredResponse storedResponse = fromJson(stored, StoredResponse.class);
+            checkFingerprint(key, storedResponse.fingerprint(), fingerprint);
+            if (!storedResponse.completed()) {
+                throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности уже выполняется");
+            }
+            log.info("Возвращен сохраненный ответ для ключа идемпотентности {}", key);
+            return storedResponse.response();
+        }
+        if (!idempotencyStore.putIfAbsent(key, toJson(new StoredResponse(fingerprint, false, null)), lease)) {
+            throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности уже выполняется");
+        }
+        try {
+            String response = toJson(action.get());
+            idempotencyStore.put(key, toJson(new StoredResponse(fingerprint, true, response)), ttl);
+            return response;
+        } catch (RuntimeException e) {
+            idempotencyStore.delete(key);
+            throw e;
+        }
+    }
+
+    private static String bodyFingerprint(final String fingerprint, final byte[] bodyDigest) {
+        return DigestUtils.sha256Hex(fingerprint + ":" + Hex.encodeHexString(bodyDigest));
+    }
+
+    private String awaitLeader(final InFlightRequest leader) {
+        try {
+            return leader.response().get(IN_FLIGHT_WAIT_IN_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) throw runtimeException;
+            throw new IntegrationException("Ошибка выполнения запроса");
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Запрос с этим ключом идемпотентности уже выполняется");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IntegrationException("Ожидание выполнения запроса прервано");
+        }
+    }
+
+    private void checkFingerprint(final String key, final String expected, final String actual) {
+        if (!expected.equals(actual)) {
+            log.info("Ключ идемпотентности {} повторно использован с другим содержимым запроса", key);
+            throw new IdempotencyConflictException("Ключ идемпотентности уже использован для другого запроса");
+        }
+    }
+
+    private String toJson(final Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IntegrationException("Не удалось сериализовать запрос");
+        }
+    }
+
+    private <T> T fromJson(final String json, final Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IntegrationException("Не удалось прочитать сохраненный ответ");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package ru.anikeeva.finance.services.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+public class IdempotencyStore {
+    private static final int FALLBACK_MAX_SIZE = 10_000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final Map<String, FallbackEntry> fallback = new ConcurrentHashMap<>();
+
+    private record FallbackEntry(String value, long expiresAt) {
+        boolean isExpired() {
+            return expiresAt <= System.currentTimeMillis();
+        }
+    }
+
+    public IdempotencyStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String get(final String key) {
+        try {
+            return redisTemplate.opsForValue().get(key);
+        } catch (Exception e) {
+            log.error("Не удалось прочитать ключ идемпотентности {} из Redis, используется локальное хранилище: {}",
+                key, e.getMessage());
+            FallbackEntry entry = fallback.get(key);
+            if (entry == null || entry.isExpired()) return null;
+            return entry.value();
+        }
+    }
+
+    public boolean putIfAbsent(final String key, final String value, final Duration ttl) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, ttl));
+        } catch (Exception e) {
+            log.error("Не удалось записать ключ идемпотентности {} в Redis, используется локальное хранилище: {}",
+                key, e.getMessage());
+            purgeFallbackIfFull();
+            FallbackEntry entry = new FallbackEntry(value, System.currentTimeMillis() + ttl.toMillis());
+            FallbackEntry previous = fallback.compute(key, (k, current) ->
+                current == null || current.isExpired() ? entry : current);
+            return previous == entry;
+        }
+    }
+
+    public void put(final String key, final String value, final Duration ttl) {
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (Exception e) {
+            log.error("Не удалось записать ключ идемпотентности {} в Redis, используется локальное хранилище: {}",
+                key, e.getMessage());
+            purgeFallbackIfFull();
+            fallback.put(key, new FallbackEntry(value, System.currentTimeMillis() + ttl.toMillis()));
+        }
+    }
+
+    public void delete(final String key) {
+        fallback.remove(key);
+        try {
+            redisTemplate.delete(key);
+        } catch (Exception e) {
+            log.error("Не удалось удалить ключ идемпотентности {} из Redis: {}", key, e.getMessage());
+        }
+    }
+
+    private void purgeFallbackIfFull() {
+        if (fallback.size() >= FALLBACK_MAX_SIZE) {
+            fallback.values().removeIf(FallbackEntry::isExpired);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.anikeeva.finance.services.imports;
+
+class BloomFilter {
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    BloomFilter(final long expectedItems, final double falsePositiveRate) {
+        long items = Math.max(1, expectedItems);
+        long size = (long) Math.ceil(-items * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bits = new long[(int) Math.max(1, (size + 63) >>> 6)];
+        bitCount = (long) bits.length << 6;
+        hashCount = (int) Math.max(1, Math.round((double) bitCount / items * Math.log(2)));
+    }
+
+    void put(final String fingerprint) {
+        long first = Long.parseUnsignedLong(fingerprint, 0, 16, 16);
+        long second = Long.parseUnsignedLong(fingerprint, 16, 32, 16);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(first + i * second, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    boolean mightContain(final String fingerprint) {
+        long first = Long.parseUnsignedLong(fingerprint, 0, 16, 16);
+        long second = Long.parseUnsignedLong(fingerprint, 16, 32, 16);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(first + i * second, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,121 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+public class Camt053ItemReader extends AbstractItemCountingItemStreamItemReader<TransactionImportDto> {
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final Path file;
+    private InputStream input;
+    private XMLStreamReader reader;
+
+    public Camt053ItemReader(final Path file) {
+        this.file = file;
+        setName("camt053ItemReader");
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        input = Files.newInputStream(file);
+        reader = FACTORY.createXMLStreamReader(input);
+    }
+
+    @Override
+    protected TransactionImportDto doRead() throws Exception {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("Ntry")) {
+                return readEntry();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (reader != null) reader.close();
+        if (input != null) input.close();
+        reader = null;
+        input = null;
+    }
+
+    private TransactionImportDto readEntry() throws XMLStreamException {
+        String amount = null;
+        String currency = null;
+        boolean debit = false;
+        String bookingDate = null;
+        String valueDate = null;
+        String remittance = null;
+        String entryInfo = null;
+        Deque<String> path = new ArrayDeque<>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                if (path.isEmpty()) break;
+                path.pop();
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) continue;
+            String name = reader.getLocalName();
+            String parent = path.peek();
+            if (parent == null && name.equals("Amt")) {
+                currency = reader.getAttributeValue(null, "Ccy");
+                amount = reader.getElementText();
+            } else if (parent == null && name.equals("CdtDbtInd")) {
+                debit = reader.getElementText().trim().equals("DBIT");
+            } else if (parent == null && name.equals("AddtlNtryInf")) {
+                entryInfo = reader.getElementText();
+            } else if ((name.equals("Dt") || name.equals("DtTm")) && "BookgDt".equals(parent)) {
+                bookingDate = reader.getElementText();
+            } else if ((name.equals("Dt") || name.equals("DtTm")) && "ValDt".equals(parent)) {
+                valueDate = reader.getElementText();
+            } else if (name.equals("Ustrd") && remittance == null) {
+                remittance = reader.getElementText();
+            } else {
+                path.push(name);
+            }
+        }
+        BigDecimal value = StatementItems.amount(amount);
+        return StatementItems.item(value == null || !debit ? value : value.negate(), currency,
+            parseDate(bookingDate != null ? bookingDate : valueDate), remittance != null ? remittance : entryInfo,
+            null);
+    }
+
+    private static LocalDateTime parseDate(final String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String value = raw.trim();
+        try {
+            if (value.length() == 10) return LocalDate.parse(value).atStartOfDay();
+            try {
+                return OffsetDateTime.parse(value).toLocalDateTime();
+            } catch (DateTimeParseException e) {
+                return LocalDateTime.parse(value);
+            }
+        } catch (DateTimeParseException e) {
+            throw new BadDataException("Неверный формат даты в выписке CAMT.053: " + raw);
+        }
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
@@ -0,0 +1,382 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+public class CsvTransactionItemReader extends AbstractItemCountingItemStreamItemReader<TransactionImportDto> {
+    private static final int FIELD_COUNT = 6;
+    private static final int TYPE = 0;
+    private static final int CATEGORY = 1;
+    private static final int AMOUNT = 2;
+    private static final int CURRENCY = 3;
+    private static final int DATE_TIME = 4;
+    private static final int DESCRIPTION = 5;
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_UNSCALED_DIGITS = 18;
+    private static final String[] TYPES = names(ETransactionType.values());
+    private static final String[] CATEGORIES = names(ETransactionCategory.values());
+    private static final String[] CURRENCY_CODES = new String[26 * 26 * 26];
+
+    private final Path file;
+    private final long start;
+    private final long end;
+    private final InputStream input;
+    private final int[] fieldStarts = new int[FIELD_COUNT];
+    private final int[] fieldEnds = new int[FIELD_COUNT];
+    private final boolean[] fieldEscaped = new boolean[FIELD_COUNT];
+    private FileChannel channel;
+    private ByteBuffer window;
+    private long windowStart;
+    private long position;
+    private byte[] pending;
+    private int pendingFrom;
+    private int pendingTo;
+    private boolean endOfStream;
+    private int lineNumber;
+    private int lineFrom;
+    private int lineTo;
+    private byte[] scratch = new byte[256];
+
+    public CsvTransactionItemReader(final Path file, final long start, final long end) {
+        this.file = file;
+        this.start = start;
+        this.end = end;
+        this.input = null;
+        setName("transactionItemReader");
+    }
+
+    public CsvTransactionItemReader(final InputStream input) {
+        this.file = null;
+        this.start = 0;
+        this.end = Long.MAX_VALUE;
+        this.input = input;
+        setName("transactionStreamReader");
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        window = null;
+        position = start;
+        lineNumber = 0;
+        if (input == null) {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+            return;
+        }
+        pending = new byte[STREAM_BUFFER_SIZE];
+        pendingFrom = 0;
+        pendingTo = 0;
+        endOfStream = false;
+        nextLine();
+    }
+
+    @Override
+    protected TransactionImportDto doRead() throws Exception {
+        if (!nextLine()) return null;
+        tokenize();
+        return new TransactionImportDto(
+            lookup(TYPE, TYPES, false),
+            lookup(CATEGORY, CATEGORIES, true),
+            parseAmount(),
+            currency(),
+            parseDateTime(),
+            string(DESCRIPTION));
+    }
+
+    @Override
+    protected void jumpToItem(final int itemIndex) throws Exception {
+        int skipped = 0;
+        while (skipped < itemIndex && nextLine()) skipped++;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        window = null;
+        pending = null;
+        if (input != null) input.close();
+        if (channel != null) channel.close();
+        channel = null;
+    }
+
+    private boolean nextLine() throws IOException {
+        return input == null ? nextMappedLine() : nextBufferedLine();
+    }
+
+    private boolean nextMappedLine() throws IOException {
+        while (position < end) {
+            if (window == null || position >= windowStart + window.limit()) map(position);
+            int from = (int) (position - windowStart);
+            int limit = window.limit();
+            int i = from;
+            while (i < limit && window.get(i) != '\n') i++;
+            if (i == limit && windowStart + limit < end) {
+                if (from == 0) {
+                    throw new FlatFileParseException("Строка превышает " + WINDOW_SIZE + " байт", "", lineNumber + 1);
+                }
+                map(position);
+                continue;
+            }
+            position = windowStart + Math.min(i + 1, limit);
+            lineNumber++;
+            lineFrom = from;
+            lineTo = i > from && window.get(i - 1) == '\r' ? i - 1 : i;
+            if (lineTo > lineFrom) return true;
+        }
+        return false;
+    }
+
+    private boolean nextBufferedLine() throws IOException {
+        while (true) {
+            int i = pendingFrom;
+            while (i < pendingTo && pending[i] != '\n') i++;
+            if (i == pendingTo && !endOfStream) {
+                fill();
+                continue;
+            }
+            if (pendingFrom == pendingTo) return false;
+            lineNumber++;
+            lineFrom = pendingFrom;
+            lineTo = i > lineFrom && pending[i - 1] == '\r' ? i - 1 : i;
+            pendingFrom = Math.min(i + 1, pendingTo);
+            if (lineTo > lineFrom) return true;
+        }
+    }
+
+    private void fill() throws IOException {
+        if (pendingFrom > 0) {
+            System.arraycopy(pending, pendingFrom, pending, 0, pendingTo - pendingFrom);
+            pendingTo -= pendingFrom;
+            pendingFrom = 0;
+        }
+        if (pendingTo == pending.length) {
+            if (pending.length >= WINDOW_SIZE) {
+                throw new FlatFileParseException("Строка превышает " + WINDOW_SIZE + " байт", "", lineNumber + 1);
+            }
+            pending = Arrays.copyOf(pending, pending.length * 2);
+        }
+        int read = input.read(pending, pendingTo, pending.length - pendingTo);
+        if (read < 0) endOfStream = true;
+        else pendingTo += read;
+        window = ByteBuffer.wrap(pending);
+    }
+
+    private void map(final long from) throws IOException {
+        windowStart = from;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(WINDOW_SIZE, end - from));
+    }
+
+    private void tokenize() {
+        int field = 0;
+        int i = lineFrom;
+        while (true) {
+            if (field == FIELD_COUNT) throw tokenCountException(field + 1);
+            if (i < lineTo && window.get(i) == '"') {
+                int j = i + 1;
+                boolean escaped = false;
+                while (j < lineTo) {
+                    if (window.get(j) == '"') {
+                        if (j + 1 < lineTo && window.get(j + 1) == '"') {
+                            escaped = true;
+                            j += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    j++;
+                }
+                fieldStarts[field] = i + 1;
+                fieldEnds[field] = j;
+                fieldEscaped[field] = escaped;
+                i = j + 1;
+                while (i < lineTo && window.get(i) != ',') i++;
+            } else {
+                int j = i;
+                while (j < lineTo && window.get(j) != ',') j++;
+                fieldStarts[field] = i;
+                fieldEnds[field] = j;
+                fieldEscaped[field] = false;
+                i = j;
+            }
+            field++;
+            if (i >= lineTo) break;
+            i++;
+            if (i == lineTo) {
+                if (field == FIELD_COUNT) throw tokenCountException(field + 1);
+                fieldStarts[field] = i;
+                fieldEnds[field] = i;
+                fieldEscaped[field] = false;
+                field++;
+                break;
+            }
+        }
+        if (field != FIELD_COUNT) throw tokenCountException(field);
+    }
+
+    private String lookup(final int field, final String[] names, final boolean ignoreCase) {
+        int from = trimStart(field);
+        int length = trimEnd(field, from) - from;
+        for (String name : names) {
+            if (name.length() == length && matches(name, from, ignoreCase)) return name;
+        }
+        return string(field);
+    }
+
+    private String currency() {
+        int from = trimStart(CURRENCY);
+        int to = trimEnd(CURRENCY, from);
+        if (to - from == 3) {
+            int first = letter(window.get(from));
+            int second = letter(window.get(from + 1));
+            int third = letter(window.get(from + 2));
+            if (first >= 0 && second >= 0 && third >= 0) {
+                int index = (first * 26 + second) * 26 + third;
+                String code = CURRENCY_CODES[index];
+                if (code == null) {
+                    code = new String(new char[]{(char) ('A' + first), (char) ('A' + second), (char) ('A' + third)});
+                    CURRENCY_CODES[index] = code;
+                }
+                return code;
+            }
+        }
+        return string(CURRENCY);
+    }
+
+    private BigDecimal parseAmount() {
+        int from = trimStart(AMOUNT);
+        int to = trimEnd(AMOUNT, from);
+        if (from == to) return null;
+        int i = from;
+        boolean negative = false;
+        byte first = window.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        long unscaled = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < to; i++) {
+            byte b = window.get(i);
+            if (b >= '0' && b <= '9') {
+                if (++digits > MAX_UNSCALED_DIGITS) return parseAmountSlow();
+                unscaled = unscaled * 10 + (b - '0');
+                if (scale >= 0) scale++;
+            } else if (b == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                throw new BadDataException("Сумма транзакции некорректна: " + string(AMOUNT));
+            }
+        }
+        if (digits == 0) throw new BadDataException("Сумма транзакции некорректна: " + string(AMOUNT));
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+    }
+
+    private BigDecimal parseAmountSlow() {
+        try {
+            return new BigDecimal(string(AMOUNT));
+        } catch (NumberFormatException e) {
+            throw new BadDataException("Сумма транзакции некорректна: " + string(AMOUNT));
+        }
+    }
+
+    private LocalDateTime parseDateTime() {
+        int from = trimStart(DATE_TIME);
+        int to = trimEnd(DATE_TIME, from);
+        if (from == to) return null;
+        if (to - from == 19 && window.get(from + 4) == '-' && window.get(from + 7) == '-' &&
+            window.get(from + 10) == 'T' && window.get(from + 13) == ':' && window.get(from + 16) == ':') {
+            int year = digits(from, 4);
+            int month = digits(from + 5, 2);
+            int day = digits(from + 8, 2);
+            int hour = digits(from + 11, 2);
+            int minute = digits(from + 14, 2);
+            int second = digits(from + 17, 2);
+            if (year >= 0 && month >= 0 && day >= 0 && hour >= 0 && minute >= 0 && second >= 0) {
+                try {
+                    return LocalDateTime.of(year, month, day, hour, minute, second);
+                } catch (DateTimeException ignored) {
+                }
+            }
+        }
+        throw new BadDataException("Неверный формат даты/времени: " + string(DATE_TIME));
+    }
+
+    private int digits(final int from, final int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            byte b = window.get(i);
+            if (b < '0' || b > '9') return -1;
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private String string(final int field) {
+        int from = trimStart(field);
+        int to = trimEnd(field, from);
+        int length = 0;
+        if (scratch.length < to - from) scratch = new byte[Math.max(to - from, scratch.length * 2)];
+        for (int i = from; i < to; i++) {
+            byte b = window.get(i);
+            scratch[length++] = b;
+            if (b == '"' && fieldEscaped[field]) i++;
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private boolean matches(final String name, final int from, final boolean ignoreCase) {
+        for (int i = 0; i < name.length(); i++) {
+            int b = window.get(from + i);
+            if (ignoreCase && b >= 'a' && b <= 'z') b -= 'a' - 'A';
+            if (b != name.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    private int trimStart(final int field) {
+        int i = fieldStarts[field];
+        while (i < fieldEnds[field] && window.get(i) <= ' ' && window.get(i) >= 0) i++;
+        return i;
+    }
+
+    private int trimEnd(final int field, final int from) {
+        int i = fieldEnds[field];
+        while (i > from && window.get(i - 1) <= ' ' && window.get(i - 1) >= 0) i--;
+        return i;
+    }
+
+    private static int letter(final byte b) {
+        if (b >= 'A' && b <= 'Z') return b - 'A';
+        if (b >= 'a' && b <= 'z') return b - 'a';
+        return -1;
+    }
+
+    private FlatFileParseException tokenCountException(final int actual) {
+        byte[] line = new byte[lineTo - lineFrom];
+        window.get(lineFrom, line);
+        return new FlatFileParseException("Неверное число полей в строке: ожидалось " + FIELD_COUNT + ", получено " +
+            actual, new String(line, StandardCharsets.UTF_8), lineNumber);
+    }
+
+    private static String[] names(final Enum<?>[] values) {
+        String[] names = new String[values.length];
+        for (int i = 0; i < values.length; i++) names[i] = values[i].name();
+        return names;
+    }
+}
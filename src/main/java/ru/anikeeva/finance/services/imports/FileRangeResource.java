@@ -0,0 +1,75 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FileRangeResource extends AbstractResource {
+    private final Path file;
+    private final long start;
+    private final long end;
+
+    public FileRangeResource(final Path file, final long start, final long end) {
+        this.file = file;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public boolean exists() {
+        return Files.isRegularFile(file);
+    }
+
+    @Override
+    public long contentLength() {
+        return end - start;
+    }
+
+    @Override
+    public String getDescription() {
+        return "file [" + file + "], bytes " + start + "-" + end;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ).position(start);
+        return new RangeInputStream(Channels.newInputStream(channel), end - start);
+    }
+
+    private static final class RangeInputStream extends InputStream {
+        private final InputStream delegate;
+        private long remaining;
+
+        private RangeInputStream(final InputStream delegate, final long remaining) {
+            this.delegate = delegate;
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) return -1;
+            int value = delegate.read();
+            if (value >= 0) remaining--;
+            return value;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            if (remaining <= 0) return -1;
+            int read = delegate.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) remaining -= read;
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package ru.anikeeva.finance.services.imports;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.configs.BatchConfig;
+import ru.anikeeva.finance.dto.notifications.ImportProgressNotification;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class ImportProgressService {
+    public static final String DESTINATION_PREFIX = "/topic/imports/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final long minIntervalNanos;
+    private final Map<Long, AtomicLong> lastPublished = new ConcurrentHashMap<>();
+
+    public ImportProgressService(final SimpMessagingTemplate messagingTemplate,
+                                 @Value("${imports.progress.min-interval-in-ms}") final long minIntervalInMs) {
+        this.messagingTemplate = messagingTemplate;
+        this.minIntervalNanos = TimeUnit.MILLISECONDS.toNanos(minIntervalInMs);
+    }
+
+    public void publish(final JobExecution jobExecution) {
+        AtomicLong last = lastPublished.computeIfAbsent(jobExecution.getId(), id -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        long previous = last.get();
+        if (previous != Long.MIN_VALUE && now - previous < minIntervalNanos) return;
+        if (!last.compareAndSet(previous, now)) return;
+        send(jobExecution);
+    }
+
+    public void complete(final JobExecution jobExecution) {
+        lastPublished.remove(jobExecution.getId());
+        send(jobExecution);
+    }
+
+    public static ImportProgressNotification snapshot(final JobExecution jobExecution) {
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        long duplicates = 0;
+        long readSkipped = 0;
+        Long estimatedTotal = null;
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (!stepExecution.getStepName().startsWith(BatchConfig.IMPORT_WORKER_STEP)) continue;
+            read += stepExecution.getReadCount();
+            long writerDuplicates = stepExecution.getExecutionContext()
+                .getLong(TransactionDuplicateWriter.DUPLICATES_KEY, 0L);
+            written += stepExecution.getWriteCount() - writerDuplicates;
+            skipped += stepExecution.getSkipCount();
+            duplicates += stepExecution.getFilterCount() + writerDuplicates;
+            readSkipped += stepExecution.getReadSkipCount();
+            if (stepExecution.getExecutionContext().containsKey(TransactionFilePartitioner.ESTIMATED_ROWS_KEY)) {
+                estimatedTotal = (estimatedTotal == null ? 0 : estimatedTotal) +
+                    stepExecution.getExecutionContext().getLong(TransactionFilePartitioner.ESTIMATED_ROWS_KEY);
+            }
+        }
+        long processed = read + readSkipped;
+        BatchStatus status = jobExecution.getStatus();
+        double rowsPerSecond = rate(processed, jobExecution.getStartTime(), jobExecution.getEndTime());
+        Long etaSeconds = null;
+        if (!status.isRunning()) {
+            etaSeconds = 0L;
+        } else if (estimatedTotal != null && rowsPerSecond > 0) {
+            etaSeconds = (long) Math.ceil(Math.max(0, estimatedTotal - processed) / rowsPerSecond);
+        }
+        return new ImportProgressNotification(jobExecution.getJobParameters().getString("jobId"), status.name(), 0,
+            read, written, skipped, duplicates, estimatedTotal, rowsPerSecond, etaSeconds);
+    }
+
+    private void send(final JobExecution jobExecution) {
+        ImportProgressNotification notification = snapshot(jobExecution);
+        if (notification.jobId() == null) return;
+        try {
+            messagingTemplate.convertAndSend(DESTINATION_PREFIX + notification.jobId(), notification);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось отправить прогресс импорта {}: {}", notification.jobId(), e.getMessage());
+        }
+    }
+
+    private static double rate(final long processed, final LocalDateTime startTime, final LocalDateTime endTime) {
+        if (startTime == null) return 0;
+        long millis = Duration.between(startTime, endTime == null ? LocalDateTime.now() : endTime).toMillis();
+        return millis <= 0 ? 0 : processed * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.core.step.skip.SkipLimitExceededException;
+import org.springframework.batch.core.step.skip.SkipPolicy;
+import org.springframework.dao.DuplicateKeyException;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+public class ImportSkipPolicy implements SkipPolicy {
+    private final int skipLimit;
+    private final String workerStepName;
+
+    public ImportSkipPolicy(final int skipLimit, final String workerStepName) {
+        this.skipLimit = skipLimit;
+        this.workerStepName = workerStepName;
+    }
+
+    @Override
+    public boolean shouldSkip(final Throwable t, final long skipCount) {
+        if (!(t instanceof BadDataException) && !(t instanceof DuplicateKeyException)) return false;
+        if (skipCount + siblingSkipCount() < skipLimit) return true;
+        throw new SkipLimitExceededException(skipLimit, t);
+    }
+
+    private long siblingSkipCount() {
+        StepContext context = StepSynchronizationManager.getContext();
+        if (context == null) return 0;
+        StepExecution current = context.getStepExecution();
+        return current.getJobExecution().getStepExecutions().stream()
+            .filter(execution -> execution != current && execution.getStepName().startsWith(workerStepName))
+            .mapToLong(StepExecution::getSkipCount)
+            .sum();
+    }
+}
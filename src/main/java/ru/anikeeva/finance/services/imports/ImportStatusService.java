@@ -0,0 +1,38 @@
+package ru.anikeeva.finance.services.imports;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.stereotype.Service;
+import ru.anikeeva.finance.dto.notifications.ImportProgressNotification;
+import ru.anikeeva.finance.exceptions.EntityNotFoundException;
+import ru.anikeeva.finance.executors.ImportJobScheduler;
+import ru.anikeeva.finance.repositories.budget.ImportExecutionRepository;
+
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class ImportStatusService {
+    private final ImportJobScheduler importJobScheduler;
+    private final ImportExecutionRepository importExecutionRepository;
+    private final JobExplorer jobExplorer;
+
+    public ImportProgressNotification getStatus(final UUID userId, final String jobId) {
+        JobExecution jobExecution = importExecutionRepository.findExecutionIdByJobId(jobId)
+            .map(jobExplorer::getJobExecution)
+            .orElse(null);
+        if (jobExecution != null) {
+            if (!userId.toString().equals(jobExecution.getJobParameters().getString("userId"))) {
+                throw new EntityNotFoundException("Импорт " + jobId + " не найден");
+            }
+            return ImportProgressService.snapshot(jobExecution);
+        }
+        ImportJobScheduler.QueuedImport queued = importJobScheduler.findQueued(jobId);
+        if (queued == null || !queued.userId().equals(userId)) {
+            throw new EntityNotFoundException("Импорт " + jobId + " не найден");
+        }
+        return new ImportProgressNotification(jobId, queued.position() == 0 ? "STARTING" : "QUEUED",
+            queued.position(), 0, 0, 0, 0, null, 0, null);
+    }
+}
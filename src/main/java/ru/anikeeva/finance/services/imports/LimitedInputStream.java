@@ -0,0 +1,54 @@
+package ru.anikeeva.finance.services.imports;
+
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+public class LimitedInputStream extends FilterInputStream {
+    private final long limit;
+    private long count;
+
+    public LimitedInputStream(final InputStream in, final long limit) {
+        super(in);
+        this.limit = limit;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value >= 0) advance(1);
+        return value;
+    }
+
+    @Override
+    public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read > 0) advance(read);
+        return read;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = super.skip(n);
+        advance(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void advance(final long bytes) {
+        count += bytes;
+        if (count > limit) {
+            throw new BadDataException("Размер загружаемого файла превышает допустимые " + limit + " байт");
+        }
+    }
+}
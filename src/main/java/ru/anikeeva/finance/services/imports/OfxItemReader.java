@@ -0,0 +1,142 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class OfxItemReader extends AbstractItemCountingItemStreamItemReader<TransactionImportDto> {
+    private static final int HEADER_BYTES = 1024;
+    private static final Pattern CHARSET = Pattern.compile("CHARSET:\\s*(\\d+)");
+    private static final Pattern XML_ENCODING = Pattern.compile("encoding=\"([^\"]+)\"");
+
+    private final Path file;
+    private BufferedReader reader;
+    private String currency;
+    private int pending = -1;
+
+    public OfxItemReader(final Path file) {
+        this.file = file;
+        setName("ofxItemReader");
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        reader = new BufferedReader(new InputStreamReader(Files.newInputStream(file), charsetOf(file)));
+        currency = null;
+        pending = -1;
+    }
+
+    @Override
+    protected TransactionImportDto doRead() throws Exception {
+        String tag;
+        while ((tag = nextTag()) != null) {
+            if (tag.equals("CURDEF")) currency = text();
+            else if (tag.equals("STMTTRN")) return readTransaction();
+        }
+        return null;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (reader != null) reader.close();
+        reader = null;
+    }
+
+    private TransactionImportDto readTransaction() throws IOException {
+        String amount = null;
+        String posted = null;
+        String name = null;
+        String memo = null;
+        String transactionCurrency = null;
+        String tag;
+        while ((tag = nextTag()) != null && !tag.equals("/STMTTRN")) {
+            switch (tag) {
+                case "TRNAMT" -> amount = text();
+                case "DTPOSTED" -> posted = text();
+                case "NAME" -> name = text();
+                case "MEMO" -> memo = text();
+                case "CURSYM" -> transactionCurrency = text();
+                default -> {
+                }
+            }
+        }
+        String description = name == null ? memo : memo == null || memo.equals(name) ? name : name + " — " + memo;
+        return StatementItems.item(StatementItems.amount(amount),
+            transactionCurrency != null ? transactionCurrency : currency, parseDate(posted), description, null);
+    }
+
+    private String nextTag() throws IOException {
+        int c;
+        do {
+            c = next();
+        } while (c != -1 && c != '<');
+        if (c == -1) return null;
+        StringBuilder tag = new StringBuilder();
+        while ((c = next()) != -1 && c != '>') tag.append((char) c);
+        return c == -1 ? null : tag.toString().trim().toUpperCase(Locale.ROOT);
+    }
+
+    private String text() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int c;
+        while ((c = next()) != -1 && c != '<') value.append((char) c);
+        if (c == '<') pending = c;
+        return unescape(value.toString().trim());
+    }
+
+    private int next() throws IOException {
+        if (pending != -1) {
+            int c = pending;
+            pending = -1;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private static String unescape(final String value) {
+        if (value.indexOf('&') < 0) return value;
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&apos;", "'")
+            .replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+
+    private static LocalDateTime parseDate(final String raw) {
+        if (raw == null || raw.length() < 8) return null;
+        try {
+            return LocalDateTime.of(Integer.parseInt(raw.substring(0, 4)), Integer.parseInt(raw.substring(4, 6)),
+                Integer.parseInt(raw.substring(6, 8)), timePart(raw, 8), timePart(raw, 10), timePart(raw, 12));
+        } catch (RuntimeException e) {
+            throw new BadDataException("Неверный формат даты в выписке OFX: " + raw);
+        }
+    }
+
+    private static int timePart(final String raw, final int from) {
+        if (raw.length() < from + 2 || !Character.isDigit(raw.charAt(from))) return 0;
+        return Integer.parseInt(raw.substring(from, from + 2));
+    }
+
+    private static Charset charsetOf(final Path file) throws IOException {
+        String header;
+        try (InputStream input = Files.newInputStream(file)) {
+            header = new String(input.readNBytes(HEADER_BYTES), StandardCharsets.ISO_8859_1);
+        }
+        Matcher xml = XML_ENCODING.matcher(header);
+        if (xml.find()) return Charset.forName(xml.group(1));
+        if (header.contains("ENCODING:UTF-8")) return StandardCharsets.UTF_8;
+        Matcher charset = CHARSET.matcher(header);
+        if (charset.find()) return Charset.forName("windows-" + charset.group(1));
+        return StandardCharsets.UTF_8;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+public class QifItemReader extends AbstractItemCountingItemStreamItemReader<TransactionImportDto> {
+    private static final Set<String> CASH_SECTIONS = Set.of("BANK", "CASH", "CCARD", "OTH A", "OTH L");
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ofPattern("M/d/yyyy"),
+        DateTimeFormatter.ofPattern("M/d/yy"),
+        DateTimeFormatter.ofPattern("d.M.yyyy"),
+        DateTimeFormatter.ofPattern("yyyy-M-d"));
+
+    private final Path file;
+    private BufferedReader reader;
+    private boolean cashSection;
+
+    public QifItemReader(final Path file) {
+        this.file = file;
+        setName("qifItemReader");
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        cashSection = false;
+    }
+
+    @Override
+    protected TransactionImportDto doRead() throws Exception {
+        String date = null;
+        String amount = null;
+        String payee = null;
+        String memo = null;
+        String category = null;
+        boolean started = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            char code = line.charAt(0);
+            String value = line.substring(1).trim();
+            if (code == '!') {
+                String header = value.toUpperCase(Locale.ROOT);
+                if (header.startsWith("TYPE:")) cashSection = CASH_SECTIONS.contains(header.substring(5).trim());
+                else if (header.startsWith("ACCOUNT")) cashSection = false;
+                continue;
+            }
+            if (!cashSection) continue;
+            if (code == '^') {
+                if (started) return toItem(date, amount, payee, memo, category);
+                continue;
+            }
+            started = true;
+            switch (code) {
+                case 'D' -> date = value;
+                case 'T', 'U' -> amount = amount == null ? value : amount;
+                case 'P' -> payee = value;
+                case 'M' -> memo = value;
+                case 'L' -> category = value;
+                default -> {
+                }
+            }
+        }
+        return started ? toItem(date, amount, payee, memo, category) : null;
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (reader != null) reader.close();
+        reader = null;
+    }
+
+    private static TransactionImportDto toItem(final String date, final String amount, final String payee,
+                                               final String memo, final String category) {
+        String description = payee == null ? memo : memo == null ? payee : payee + " — " + memo;
+        return StatementItems.item(StatementItems.amount(amount), null, parseDate(date), description, category);
+    }
+
+    private static LocalDateTime parseDate(final String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String value = raw.replace(" ", "").replace('\'', '/');
+        if (raw.contains("'")) {
+            int separator = value.lastIndexOf('/');
+            String year = value.substring(separator + 1);
+            if (year.length() <= 2) value = value.substring(0, separator + 1) + (2000 + Integer.parseInt(year));
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format).atStartOfDay();
+            } catch (DateTimeParseException ignored) {
+            }
+        }
+        throw new BadDataException("Неверный формат даты в выписке QIF: " + raw);
+    }
+}
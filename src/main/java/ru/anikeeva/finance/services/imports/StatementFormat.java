@@ -0,0 +1,51 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.item.ItemStreamReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+public enum StatementFormat {
+    CSV,
+    OFX,
+    QIF,
+    CAMT053;
+
+    static final int SNIFF_BYTES = 4096;
+
+    public static StatementFormat detect(final Path file) {
+        byte[] head;
+        try (InputStream input = Files.newInputStream(file)) {
+            head = input.readNBytes(SNIFF_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return detect(head);
+    }
+
+    public static StatementFormat detect(final byte[] head) {
+        String text = new String(head, StandardCharsets.ISO_8859_1);
+        if (text.startsWith("\u00EF\u00BB\u00BF")) text = text.substring(3);
+        text = text.stripLeading();
+        String upper = text.toUpperCase(Locale.ROOT);
+        if (upper.startsWith("OFXHEADER") || upper.contains("<?OFX") || upper.contains("<OFX>")) return OFX;
+        if (upper.startsWith("!TYPE:") || upper.startsWith("!ACCOUNT") || upper.startsWith("!OPTION")) return QIF;
+        if (text.contains("camt.053") || text.contains("BkToCstmrStmt")) return CAMT053;
+        return CSV;
+    }
+
+    public static ItemStreamReader<TransactionImportDto> reader(final Path file, final long start, final long end) {
+        return switch (detect(file)) {
+            case OFX -> new OfxItemReader(file);
+            case QIF -> new QifItemReader(file);
+            case CAMT053 -> new Camt053ItemReader(file);
+            case CSV -> new CsvTransactionItemReader(file, start, end);
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package ru.anikeeva.finance.services.imports;
+
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Locale;
+
+final class StatementItems {
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+
+    private StatementItems() {
+    }
+
+    static TransactionImportDto item(final BigDecimal signedAmount, final String currency,
+                                     final LocalDateTime dateTime, final String description, final String category) {
+        if (signedAmount == null) throw new BadDataException("В выписке отсутствует сумма операции");
+        if (dateTime == null) throw new BadDataException("В выписке отсутствует дата операции");
+        ETransactionType type = signedAmount.signum() < 0 ? ETransactionType.EXPENSE : ETransactionType.INCOME;
+        return new TransactionImportDto(type.name(), categoryOf(category, type), signedAmount.abs(),
+            currency == null || currency.isBlank() ? null : currency.trim(), dateTime, truncate(description));
+    }
+
+    static BigDecimal amount(final String raw) {
+        if (raw == null || raw.isBlank()) return null;
+        String value = raw.replace(" ", "").replace("\u00A0", "").replace("'", "");
+        int comma = value.lastIndexOf(',');
+        int dot = value.lastIndexOf('.');
+        if (comma >= 0 && dot >= 0) {
+            value = comma > dot ? value.replace(".", "").replace(',', '.') : value.replace(",", "");
+        } else if (comma >= 0) {
+            value = value.length() - comma - 1 <= 2 && value.indexOf(',') == comma
+                ? value.replace(',', '.')
+                : value.replace(",", "");
+        }
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new BadDataException("Некорректная сумма операции в выписке: " + raw);
+        }
+    }
+
+    private static String categoryOf(final String category, final ETransactionType type) {
+        if (category != null && !category.isBlank()) {
+            try {
+                return ETransactionCategory.valueOf(category.trim().toUpperCase(Locale.ROOT)).name();
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return type == ETransactionType.INCOME
+            ? ETransactionCategory.OTHER_INCOME.name()
+            : ETransactionCategory.OTHER_EXPENSES.name();
+    }
+
+    private static String truncate(final String description) {
+        if (description == null || description.isBlank()) return null;
+        String value = description.strip();
+        return value.length() <= MAX_DESCRIPTION_LENGTH ? value : value.substring(0, MAX_DESCRIPTION_LENGTH);
+    }
+}
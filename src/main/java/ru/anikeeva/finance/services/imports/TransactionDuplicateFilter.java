@@ -0,0 +1,129 @@
+package ru.anikeeva.finance.services.imports;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.ItemStreamSupport;
+import org.springframework.batch.item.file.FlatFileParseException;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Slf4j
+public class TransactionDuplicateFilter {
+    private static final String READ_COUNT_KEY = "read.count";
+
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionArchiveService transactionArchiveService;
+    private final Path file;
+    private final long start;
+    private final long end;
+    private final double falsePositiveRate;
+    private UUID userId;
+    private BloomFilter filter;
+    private Set<String> archived = Set.of();
+    private long probes;
+
+    public TransactionDuplicateFilter(final TransactionBatchRepository transactionBatchRepository,
+                                      final TransactionArchiveService transactionArchiveService, final Path file,
+                                      final long start, final long end, final double falsePositiveRate) {
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.transactionArchiveService = transactionArchiveService;
+        this.file = file;
+        this.start = start;
+        this.end = end;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public void load(final UUID userId) throws Exception {
+        this.userId = userId;
+        this.probes = 0;
+        this.archived = Set.of();
+        LocalDateTime from = null;
+        LocalDateTime to = null;
+        ItemStreamReader<TransactionImportDto> reader = StatementFormat.reader(file, start, end);
+        reader.open(new ExecutionContext());
+        try {
+            while (true) {
+                TransactionImportDto item;
+                try {
+                    item = reader.read();
+                } catch (BadDataException | FlatFileParseException e) {
+                    continue;
+                }
+                if (item == null) break;
+                if (item.dateTime() == null) continue;
+                if (from == null || item.dateTime().isBefore(from)) from = item.dateTime();
+                if (to == null || item.dateTime().isAfter(to)) to = item.dateTime();
+            }
+        } finally {
+            reader.close();
+        }
+        if (from == null) {
+            filter = new BloomFilter(0, falsePositiveRate);
+            return;
+        }
+        from = from.truncatedTo(ChronoUnit.SECONDS);
+        to = to.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        long count = transactionBatchRepository.countFingerprints(userId, from, to);
+        filter = new BloomFilter(count, falsePositiveRate);
+        transactionBatchRepository.forEachFingerprint(userId, from, to, filter::put);
+        archived = transactionArchiveService.findFingerprints(userId, from, to);
+        log.info("Фильтр дубликатов импорта пользователя {} построен по {} транзакциям и {} архивным за период {} — {}",
+            userId, count, archived.size(), from, to);
+    }
+
+    public void forEachResumed(final ExecutionContext stepContext,
+                               final Consumer<TransactionImportDto> consumer) throws Exception {
+        ItemStreamReader<TransactionImportDto> reader = StatementFormat.reader(file, start, end);
+        int resumed = reader instanceof ItemStreamSupport support
+            ? stepContext.getInt(support.getExecutionContextKey(READ_COUNT_KEY), 0)
+            : 0;
+        if (resumed > 0) readItems(reader, resumed, consumer);
+    }
+
+    public boolean isArchived(final String fingerprint) {
+        return archived.contains(fingerprint);
+    }
+
+    public Set<String> findExisting(final Collection<String> fingerprints) {
+        if (filter == null) return Set.of();
+        List<String> probable = fingerprints.stream().filter(filter::mightContain).toList();
+        if (probable.isEmpty()) return Set.of();
+        probes += probable.size();
+        return transactionBatchRepository.findExistingFingerprints(userId, probable);
+    }
+
+    public long probes() {
+        return probes;
+    }
+
+    private static void readItems(final ItemStreamReader<TransactionImportDto> reader, final long limit,
+                                  final Consumer<TransactionImportDto> consumer) throws Exception {
+        reader.open(new ExecutionContext());
+        try {
+            for (long read = 0; read < limit; read++) {
+                TransactionImportDto item;
+                try {
+                    item = reader.read();
+                } catch (BadDataException | FlatFileParseException e) {
+                    continue;
+                }
+                if (item == null) break;
+                consumer.accept(item);
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
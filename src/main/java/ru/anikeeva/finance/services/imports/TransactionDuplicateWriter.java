@@ -0,0 +1,76 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.anikeeva.finance.entities.budget.Transaction;
+
+import java.util.Set;
+
+public class TransactionDuplicateWriter implements ItemStreamWriter<Transaction> {
+    public static final String DUPLICATES_KEY = "import.duplicates";
+
+    private final TransactionDuplicateFilter duplicateFilter;
+    private final ItemStreamWriter<Transaction> delegate;
+    private long duplicates;
+    private long pending;
+
+    public TransactionDuplicateWriter(final TransactionDuplicateFilter duplicateFilter,
+                                      final ItemStreamWriter<Transaction> delegate) {
+        this.duplicateFilter = duplicateFilter;
+        this.delegate = delegate;
+    }
+
+    public static long duplicatesOf(final StepExecution stepExecution) {
+        return stepExecution.getFilterCount() + stepExecution.getExecutionContext().getLong(DUPLICATES_KEY, 0L);
+    }
+
+    @Override
+    public void write(@NonNull final Chunk<? extends Transaction> chunk) throws Exception {
+        Set<String> existing = duplicateFilter.findExisting(chunk.getItems().stream()
+            .map(Transaction::getFingerprint)
+            .toList());
+        if (existing.isEmpty()) {
+            delegate.write(chunk);
+            return;
+        }
+        Chunk<Transaction> fresh = new Chunk<>();
+        for (Transaction transaction : chunk) {
+            if (!existing.contains(transaction.getFingerprint())) fresh.add(transaction);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status != STATUS_COMMITTED) pending = 0;
+                }
+            });
+        }
+        pending += chunk.size() - fresh.size();
+        if (!fresh.isEmpty()) delegate.write(fresh);
+    }
+
+    @Override
+    public void open(@NonNull final ExecutionContext executionContext) {
+        duplicates = executionContext.getLong(DUPLICATES_KEY, 0L);
+        pending = 0;
+        delegate.open(executionContext);
+    }
+
+    @Override
+    public void update(@NonNull final ExecutionContext executionContext) {
+        duplicates += pending;
+        pending = 0;
+        executionContext.putLong(DUPLICATES_KEY, duplicates);
+        delegate.update(executionContext);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,163 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+public class TransactionFilePartitioner implements Partitioner {
+    public static final String START_KEY = "partition.start";
+    public static final String END_KEY = "partition.end";
+    public static final String ESTIMATED_ROWS_KEY = "partition.estimated.rows";
+    public static final String OCCURRENCES_KEY = "partition.occurrences";
+    public static final String PARTITION_PREFIX = "partition";
+
+    private static final int SCAN_BUFFER_SIZE = 8192;
+    private static final int SAMPLE_SIZE = 65536;
+
+    private final Path file;
+    private final long minPartitionBytes;
+    private final Function<TransactionImportDto, String> fingerprintKey;
+
+    public TransactionFilePartitioner(final Path file, final long minPartitionBytes) {
+        this(file, minPartitionBytes, null);
+    }
+
+    public TransactionFilePartitioner(final Path file, final long minPartitionBytes,
+                                      final Function<TransactionImportDto, String> fingerprintKey) {
+        this.file = file;
+        this.minPartitionBytes = minPartitionBytes;
+        this.fingerprintKey = fingerprintKey;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Map<String, Integer> occurrencesOf(final ExecutionContext stepContext) {
+        Object occurrences = stepContext.get(OCCURRENCES_KEY);
+        return occurrences == null ? Map.of() : (Map<String, Integer>) occurrences;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(final int gridSize) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (StatementFormat.detect(file) != StatementFormat.CSV) {
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_KEY, 0);
+                context.putLong(END_KEY, size);
+                return Map.of(PARTITION_PREFIX + 0, context);
+            }
+            long dataStart = lineEnd(channel, 0, size);
+            long dataLength = size - dataStart;
+            int partitions = (int) Math.max(1, Math.min(gridSize, dataLength / Math.max(1, minPartitionBytes)));
+            double averageLineBytes = averageLineBytes(channel, dataStart, size);
+            Map<String, ExecutionContext> result = new LinkedHashMap<>();
+            long start = dataStart;
+            for (int i = 1; i <= partitions && start < size; i++) {
+                long end = i == partitions ? size : lineEnd(channel, dataStart + dataLength * i / partitions - 1, size);
+                if (end <= start) continue;
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_KEY, start);
+                context.putLong(END_KEY, end);
+                context.putLong(ESTIMATED_ROWS_KEY, Math.round((end - start) / averageLineBytes));
+                result.put(PARTITION_PREFIX + result.size(), context);
+                start = end;
+            }
+            if (result.isEmpty()) {
+                ExecutionContext context = new ExecutionContext();
+                context.putLong(START_KEY, dataStart);
+                context.putLong(END_KEY, dataStart);
+                context.putLong(ESTIMATED_ROWS_KEY, 0);
+                result.put(PARTITION_PREFIX + 0, context);
+            }
+            if (fingerprintKey != null && result.size() > 1) putPrecedingOccurrences(result);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void putPrecedingOccurrences(final Map<String, ExecutionContext> partitions) throws IOException {
+        Map<String, Integer> seen = new HashMap<>();
+        for (ExecutionContext context : partitions.values()) {
+            Map<String, Integer> counted = new HashMap<>();
+            Map<String, Integer> preceding = new HashMap<>();
+            ItemStreamReader<TransactionImportDto> reader = new CsvTransactionItemReader(file,
+                context.getLong(START_KEY), context.getLong(END_KEY));
+            reader.open(new ExecutionContext());
+            try {
+                while (true) {
+                    TransactionImportDto item;
+                    try {
+                        item = readItem(reader);
+                    } catch (BadDataException | FlatFileParseException e) {
+                        continue;
+                    }
+                    if (item == null) break;
+                    String key = fingerprintKey.apply(item);
+                    if (key == null) continue;
+                    if (counted.merge(key, 1, Integer::sum) == 1 && seen.containsKey(key)) {
+                        preceding.put(key, seen.get(key));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            counted.forEach((key, count) -> seen.merge(key, count, Integer::sum));
+            if (!preceding.isEmpty()) context.put(OCCURRENCES_KEY, preceding);
+        }
+    }
+
+    private static TransactionImportDto readItem(final ItemStreamReader<TransactionImportDto> reader)
+        throws IOException {
+        try {
+            return reader.read();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static double averageLineBytes(final FileChannel channel, final long from, final long size)
+        throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(SAMPLE_SIZE, Math.max(0, size - from)));
+        int read;
+        do {
+            read = channel.read(buffer, from + buffer.position());
+        } while (read > 0 && buffer.hasRemaining());
+        int lines = 0;
+        for (int i = 0; i < buffer.position(); i++) {
+            if (buffer.get(i) == '\n') lines++;
+        }
+        if (buffer.position() > 0 && buffer.get(buffer.position() - 1) != '\n') lines++;
+        return lines == 0 ? 1 : (double) buffer.position() / lines;
+    }
+
+    private static long lineEnd(final FileChannel channel, final long from, final long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.anikeeva.finance.services.imports;
+
+import ru.anikeeva.finance.entities.budget.Transaction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+public class TransactionFingerprints {
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final int AMOUNT_SCALE = 2;
+
+    private final Map<String, Integer> occurrences = new HashMap<>();
+    private final MessageDigest digest;
+
+    public TransactionFingerprints() {
+        this(Map.of());
+    }
+
+    public TransactionFingerprints(final Map<String, Integer> preceding) {
+        occurrences.putAll(preceding);
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public String next(final Transaction transaction) {
+        String normalized = normalize(transaction);
+        int occurrence = occurrences.merge(normalized, 1, Integer::sum);
+        byte[] hash = digest.digest((normalized + "#" + occurrence).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    public static String normalize(final Transaction transaction) {
+        BigDecimal amount = transaction.getInitialAmount().setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        String description = transaction.getDescription() == null ? ""
+            : WHITESPACE.matcher(transaction.getDescription()).replaceAll(" ").strip().toLowerCase(Locale.ROOT);
+        String dateTime = transaction.getDateTime() == null ? "" : DATE_TIME.format(transaction.getDateTime());
+        String currency = transaction.getCurrencyCode() == null ? "" : transaction.getCurrencyCode();
+        return transaction.getTypeAsString() + "|" + dateTime + "|" +
+            amount.toPlainString() + "|" + currency + "|" + description;
+    }
+}
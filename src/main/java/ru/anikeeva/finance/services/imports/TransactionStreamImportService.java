@@ -0,0 +1,226 @@
+package ru.anikeeva.finance.services.imports;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anikeeva.finance.configs.BatchConfig;
+import ru.anikeeva.finance.dto.budget.ImportJobResponse;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.exceptions.BadDataException;
+import ru.anikeeva.finance.exceptions.IntegrationException;
+import ru.anikeeva.finance.executors.ImportJobScheduler;
+import ru.anikeeva.finance.executors.UserWriteLaneExecutor;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
+import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+import ru.anikeeva.finance.services.budget.CurrencyRateService;
+import ru.anikeeva.finance.services.budget.TransactionProcessor;
+import ru.anikeeva.finance.services.ledger.LedgerService;
+import ru.anikeeva.finance.services.user.UserService;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class TransactionStreamImportService {
+    private final UserService userService;
+    private final CurrencyRateService currencyRateService;
+    private final TransactionBatchRepository transactionBatchRepository;
+    private final TransactionArchiveService transactionArchiveService;
+    private final ImportJobScheduler importJobScheduler;
+    private final UserWriteLaneExecutor writeLaneExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final long maxStreamBytes;
+    private final long maxRows;
+    private final long maxSpoolBytes;
+
+    public TransactionStreamImportService(final UserService userService,
+                                          final CurrencyRateService currencyRateService,
+                                          final TransactionBatchRepository transactionBatchRepository,
+                                          final TransactionArchiveService transactionArchiveService,
+                                          final ImportJobScheduler importJobScheduler,
+                                          final UserWriteLaneExecutor writeLaneExecutor,
+                                          final TransactionTemplate transactionTemplate,
+                                          @Value("${imports.stream.max-bytes}") final long maxStreamBytes,
+                                          @Value("${imports.stream.max-rows}") final long maxRows,
+                                          @Value("${imports.stream.max-spool-bytes}") final long maxSpoolBytes) {
+        this.userService = userService;
+        this.currencyRateService = currencyRateService;
+        this.transactionBatchRepository = transactionBatchRepository;
+        this.transactionArchiveService = transactionArchiveService;
+        this.importJobScheduler = importJobScheduler;
+        this.writeLaneExecutor = writeLaneExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.maxStreamBytes = maxStreamBytes;
+        this.maxRows = maxRows;
+        this.maxSpoolBytes = maxSpoolBytes;
+    }
+
+    public ImportJobResponse importTransactions(final UserDetailsImpl currentUser, final InputStream body,
+                                                final long contentLength, final boolean restartable) {
+        if (restartable || contentLength > maxStreamBytes) {
+            return spool(currentUser, body, contentLength);
+        }
+        return importJobScheduler.runExclusive(currentUser.getId(), () -> stream(currentUser.getId(), body));
+    }
+
+    private ImportJobResponse stream(final UUID userId, final InputStream body) {
+        LimitedInputStream limited = new LimitedInputStream(body, maxStreamBytes);
+        BufferedInputStream input = new BufferedInputStream(limited, StatementFormat.SNIFF_BYTES);
+        Path statement = null;
+        try {
+            input.mark(StatementFormat.SNIFF_BYTES);
+            StatementFormat format = StatementFormat.detect(input.readNBytes(StatementFormat.SNIFF_BYTES));
+            input.reset();
+            if (format == StatementFormat.CSV) {
+                return importItems(userId, new CsvTransactionItemReader(input), limited);
+            }
+            statement = importJobScheduler.createSpoolFile();
+            Files.copy(input, statement, StandardCopyOption.REPLACE_EXISTING);
+            return importItems(userId, StatementFormat.reader(statement, 0, Files.size(statement)), limited);
+        } catch (IOException e) {
+            log.error("Ошибка чтения потока импорта пользователя {}", userId, e);
+            throw new IntegrationException("Ошибка чтения файла импорта");
+        } finally {
+            deleteQuietly(statement);
+        }
+    }
+
+    private ImportJobResponse importItems(final UUID userId, final ItemStreamReader<TransactionImportDto> reader,
+                                          final LimitedInputStream limited) {
+        TransactionProcessor processor = new TransactionProcessor(userId.toString(), userService,
+            currencyRateService, null);
+        processor.prepare(null);
+        List<Transaction> chunk = new ArrayList<>(BatchConfig.IMPORT_CHUNK_SIZE);
+        LocalDateTime archivedUntil = transactionArchiveService.archivedUntil(userId);
+        long imported = 0;
+        long accepted = 0;
+        long skipped = 0;
+        long rows = 0;
+        try {
+            reader.open(new ExecutionContext());
+            while (true) {
+                TransactionImportDto item;
+                try {
+                    item = reader.read();
+                    if (item == null) break;
+                    if (++rows > maxRows) {
+                        throw new BadDataException("Файл содержит более " + maxRows + " строк");
+                    }
+                    chunk.add(processor.process(item));
+                    accepted++;
+                } catch (BadDataException e) {
+                    if (rows > maxRows || limited.count() > maxStreamBytes) throw e;
+                    if (++skipped > BatchConfig.IMPORT_SKIP_LIMIT) {
+                        throw new BadDataException("Превышено допустимое число строк с ошибками: " +
+                            BatchConfig.IMPORT_SKIP_LIMIT);
+                    }
+                    log.error("Ошибка при обработке записи {} потокового импорта пользователя {}: {}", rows + 1,
+                        userId, e.getMessage());
+                    continue;
+                } catch (IOException | ItemStreamException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new BadDataException("Некорректная запись " + (rows + 1) + ": " + e.getMessage());
+                }
+                if (chunk.size() == BatchConfig.IMPORT_CHUNK_SIZE) imported += commit(userId, chunk, archivedUntil);
+            }
+            imported += commit(userId, chunk, archivedUntil);
+        } catch (BadDataException e) {
+            log.warn("Потоковый импорт пользователя {} прерван на записи {}, сохранено {} транзакций: {}", userId,
+                rows, imported, e.getMessage());
+            throw new BadDataException(e.getMessage() + ". Сохранено транзакций: " + imported);
+        } catch (IOException | ItemStreamException e) {
+            log.error("Ошибка чтения потока импорта пользователя {}, сохранено {} транзакций", userId, imported, e);
+            throw new IntegrationException("Ошибка чтения файла импорта. Сохранено транзакций: " + imported);
+        } finally {
+            reader.close();
+        }
+        log.info("Потоковый импорт пользователя {} завершен: сохранено {}, пропущено {}, дубликатов {}", userId,
+            imported, skipped, accepted - imported);
+        return new ImportJobResponse(null, 0, imported, skipped, accepted - imported, "Импорт файла завершен");
+    }
+
+    private int commit(final UUID userId, final List<Transaction> chunk, final LocalDateTime archivedUntil) {
+        if (chunk.isEmpty()) return 0;
+        Set<String> archived = findArchivedFingerprints(userId, chunk, archivedUntil);
+        Integer inserted = writeLaneExecutor.execute(userId, () -> transactionTemplate.execute(status -> {
+            Set<String> existing = transactionBatchRepository.findExistingFingerprints(userId,
+                chunk.stream().map(Transaction::getFingerprint).toList());
+            List<Transaction> fresh = chunk.stream()
+                .filter(transaction -> !existing.contains(transaction.getFingerprint()) &&
+                    !archived.contains(transaction.getFingerprint()))
+                .toList();
+            if (fresh.isEmpty()) return 0;
+            BigDecimal changes = fresh.stream()
+                .map(LedgerService::signedAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+            transactionBatchRepository.insertAll(fresh);
+            userService.recalculateBalance(userId, changes);
+            return fresh.size();
+        }));
+        chunk.clear();
+        return inserted == null ? 0 : inserted;
+    }
+
+    private Set<String> findArchivedFingerprints(final UUID userId, final List<Transaction> chunk,
+                                                 final LocalDateTime archivedUntil) {
+        if (archivedUntil == null) return Set.of();
+        List<LocalDateTime> archivedDates = chunk.stream()
+            .map(Transaction::getDateTime)
+            .filter(dateTime -> dateTime.isBefore(archivedUntil))
+            .sorted()
+            .toList();
+        return archivedDates.isEmpty()
+            ? Set.of()
+            : transactionArchiveService.findFingerprints(userId, archivedDates.getFirst(), archivedDates.getLast());
+    }
+
+    private ImportJobResponse spool(final UserDetailsImpl currentUser, final InputStream body,
+                                    final long contentLength) {
+        if (contentLength > maxSpoolBytes) {
+            throw new BadDataException("Размер загружаемого файла превышает допустимые " + maxSpoolBytes + " байт");
+        }
+        Path tempFile = null;
+        try {
+            tempFile = importJobScheduler.createSpoolFile();
+            try (InputStream limited = new LimitedInputStream(body, maxSpoolBytes)) {
+                Files.copy(limited, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(tempFile);
+            if (e instanceof RuntimeException runtimeException) throw runtimeException;
+            log.error("Ошибка загрузки csv-файла пользователем {}", currentUser.getUsername(), e);
+            throw new IntegrationException("Ошибка загрузки файла .csv");
+        }
+        ImportJobResponse response = importJobScheduler.submitFile(currentUser.getId(), tempFile);
+        log.info("Загрузка csv-файла с транзакциями пользователем {} поставлена в очередь, позиция {}",
+            currentUser.getUsername(), response.queuePosition());
+        return response;
+    }
+
+    private static void deleteQuietly(final Path file) {
+        if (file == null) return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.error("Ошибка удаления временного файла {}", file, e);
+        }
+    }
+}
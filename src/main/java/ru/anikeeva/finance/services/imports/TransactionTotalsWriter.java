@@ -0,0 +1,84 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.lang.NonNull;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.anikeeva.finance.configs.BatchConfig;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class TransactionTotalsWriter implements ItemStreamWriter<Transaction> {
+    public static final String TOTAL_KEY_PREFIX = "import.total.";
+
+    private final ItemWriter<Transaction> delegate;
+    private final Map<ETransactionType, BigDecimal> totals = new EnumMap<>(ETransactionType.class);
+    private final Map<ETransactionType, BigDecimal> pending = new EnumMap<>(ETransactionType.class);
+
+    public TransactionTotalsWriter(final ItemWriter<Transaction> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void write(@NonNull final Chunk<? extends Transaction> chunk) throws Exception {
+        delegate.write(chunk);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status != STATUS_COMMITTED) pending.clear();
+                }
+            });
+        }
+        for (Transaction transaction : chunk) {
+            BigDecimal amount = transaction.getAmountInBaseCurrency() != null
+                ? transaction.getAmountInBaseCurrency()
+                : transaction.getInitialAmount();
+            pending.merge(transaction.getType(), amount, BigDecimal::add);
+        }
+    }
+
+    @Override
+    public void open(@NonNull final ExecutionContext executionContext) {
+        totals.clear();
+        pending.clear();
+        for (ETransactionType type : ETransactionType.values()) {
+            if (executionContext.containsKey(TOTAL_KEY_PREFIX + type.name())) {
+                totals.put(type, new BigDecimal(executionContext.getString(TOTAL_KEY_PREFIX + type.name())));
+            }
+        }
+    }
+
+    @Override
+    public void update(@NonNull final ExecutionContext executionContext) {
+        pending.forEach((type, amount) -> totals.merge(type, amount, BigDecimal::add));
+        pending.clear();
+        for (ETransactionType type : ETransactionType.values()) {
+            executionContext.putString(TOTAL_KEY_PREFIX + type.name(),
+                totals.getOrDefault(type, BigDecimal.ZERO).toPlainString());
+        }
+    }
+
+    public static Map<ETransactionType, BigDecimal> totalsOf(final JobExecution jobExecution) {
+        Map<ETransactionType, BigDecimal> result = new EnumMap<>(ETransactionType.class);
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (!stepExecution.getStepName().startsWith(BatchConfig.IMPORT_WORKER_STEP)) continue;
+            ExecutionContext context = stepExecution.getExecutionContext();
+            for (ETransactionType type : ETransactionType.values()) {
+                if (!context.containsKey(TOTAL_KEY_PREFIX + type.name())) return null;
+                result.merge(type, new BigDecimal(context.getString(TOTAL_KEY_PREFIX + type.name())),
+                    BigDecimal::add);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,172 @@
+package ru.anikeeva.finance.services.ledger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ELedgerEntryType;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.entities.ledger.BalanceSnapshot;
+import ru.anikeeva.finance.entities.ledger.LedgerEntry;
+import ru.anikeeva.finance.exceptions.EntityNotFoundException;
+import ru.anikeeva.finance.repositories.ledger.BalanceSnapshotRepository;
+import ru.anikeeva.finance.repositories.ledger.LedgerEntryBatchRepository;
+import ru.anikeeva.finance.repositories.ledger.LedgerEntryRepository;
+import ru.anikeeva.finance.repositories.user.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Slf4j
+public class LedgerService {
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerEntryBatchRepository ledgerEntryBatchRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final UserRepository userRepository;
+    private final Counter verificationMismatches;
+
+    public LedgerService(LedgerEntryRepository ledgerEntryRepository,
+                         LedgerEntryBatchRepository ledgerEntryBatchRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository, UserRepository userRepository,
+                         MeterRegistry meterRegistry) {
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerEntryBatchRepository = ledgerEntryBatchRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.userRepository = userRepository;
+        this.verificationMismatches = Counter.builder("finance.ledger.verification.mismatches")
+            .description("Количество расхождений снимков баланса с журналом")
+            .register(meterRegistry);
+    }
+
+    public static BigDecimal signedAmount(final Transaction transaction) {
+        BigDecimal amount = transaction.getAmountInBaseCurrency() != null
+            ? transaction.getAmountInBaseCurrency()
+            : transaction.getInitialAmount();
+        return signedAmount(transaction.getType(), amount);
+    }
+
+    public static BigDecimal signedAmount(final ETransactionType type, final BigDecimal amount) {
+        return type == ETransactionType.INCOME ? amount : amount.negate();
+    }
+
+    public void recordTransaction(final Transaction transaction) {
+        UUID userId = transaction.getUser().getId();
+        userRepository.lockBalance(userId);
+        ledgerEntryRepository.save(transactionEntry(transaction));
+    }
+
+    public void recordTransactions(final Collection<Transaction> transactions) {
+        if (transactions.isEmpty()) return;
+        userRepository.lockBalance(transactions.iterator().next().getUser().getId());
+        ledgerEntryBatchRepository.insertAll(transactions.stream().map(this::transactionEntry).toList());
+    }
+
+    public BigDecimal findEffectiveAmount(final Transaction transaction) {
+        return ledgerEntryRepository.findUnreversedByTransactionId(transaction.getId(), ELedgerEntryType.TRANSACTION)
+            .stream().findFirst().map(LedgerEntry::getAmount).orElseGet(() -> signedAmount(transaction));
+    }
+
+    public void recordReversal(final Transaction transaction) {
+        UUID userId = transaction.getUser().getId();
+        userRepository.lockBalance(userId);
+        List<LedgerEntry> effective = ledgerEntryRepository.findUnreversedByTransactionId(transaction.getId(),
+            ELedgerEntryType.TRANSACTION);
+        LedgerEntry reversed = effective.isEmpty() ? null : effective.getFirst();
+        ledgerEntryRepository.save(LedgerEntry.builder()
+            .userId(userId)
+            .transactionId(transaction.getId())
+            .type(ELedgerEntryType.REVERSAL)
+            .amount(reversed != null ? reversed.getAmount().negate() : signedAmount(transaction).negate())
+            .reversesEntryId(reversed != null ? reversed.getId() : null)
+            .build());
+    }
+
+    public void recordImport(final UUID userId, final BigDecimal amount) {
+        userRepository.lockBalance(userId);
+        ledgerEntryRepository.save(LedgerEntry.builder()
+            .userId(userId)
+            .type(ELedgerEntryType.IMPORT)
+            .amount(amount)
+            .build());
+    }
+
+    public BigDecimal calculateBalance(final UUID userId) {
+        return balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)
+            .map(snapshot -> snapshot.getBalance().add(ledgerEntryRepository.sumAfter(userId,
+                snapshot.getLastEntryId())))
+            .orElseGet(() -> ledgerEntryRepository.sumAfter(userId, 0));
+    }
+
+    @Transactional
+    public void createSnapshot(final UUID userId) {
+        BigDecimal balance = userRepository.lockBalance(userId);
+        if (balance == null) {
+            throw new EntityNotFoundException("Пользователь не найден");
+        }
+        if (!ledgerEntryRepository.existsByUserIdAndType(userId, ELedgerEntryType.OPENING)) {
+            BigDecimal opening = balance.subtract(ledgerEntryRepository.sumAfter(userId, 0));
+            ledgerEntryRepository.save(LedgerEntry.builder()
+                .userId(userId)
+                .type(ELedgerEntryType.OPENING)
+                .amount(opening)
+                .build());
+            log.info("Для пользователя {} создана начальная запись журнала на сумму {}", userId, opening);
+        }
+        long lastEntryId = ledgerEntryRepository.findLastEntryId(userId);
+        BalanceSnapshot previous = balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)
+            .orElse(null);
+        if (previous != null && previous.getLastEntryId() == lastEntryId) return;
+        BigDecimal snapshotBalance = previous == null
+            ? ledgerEntryRepository.sumAfter(userId, 0)
+            : previous.getBalance().add(ledgerEntryRepository.sumBetween(userId, previous.getLastEntryId(),
+                lastEntryId));
+        balanceSnapshotRepository.save(BalanceSnapshot.builder()
+            .userId(userId)
+            .lastEntryId(lastEntryId)
+            .balance(snapshotBalance)
+            .build());
+        log.info("Создан снимок баланса пользователя {}: {} на запись {}", userId, snapshotBalance, lastEntryId);
+    }
+
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public boolean verifyUser(final UUID userId) {
+        List<BalanceSnapshot> snapshots = balanceSnapshotRepository.findTop2ByUserIdOrderByLastEntryIdDesc(userId);
+        if (snapshots.isEmpty()) return true;
+        BalanceSnapshot latest = snapshots.getFirst();
+        BigDecimal expectedSnapshot = snapshots.size() > 1
+            ? snapshots.get(1).getBalance().add(ledgerEntryRepository.sumBetween(userId,
+                snapshots.get(1).getLastEntryId(), latest.getLastEntryId()))
+            : ledgerEntryRepository.sumBetween(userId, 0, latest.getLastEntryId());
+        boolean isConsistent = true;
+        if (expectedSnapshot.compareTo(latest.getBalance()) != 0) {
+            log.error("Снимок баланса пользователя {} на запись {} расходится с журналом: {} против {}", userId,
+                latest.getLastEntryId(), latest.getBalance(), expectedSnapshot);
+            isConsistent = false;
+        }
+        BigDecimal ledgerBalance = calculateBalance(userId);
+        BigDecimal storedBalance = userRepository.findById(userId)
+            .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден")).getBalance();
+        if (ledgerBalance.compareTo(storedBalance) != 0) {
+            log.error("Баланс пользователя {} расходится с журналом: {} против {}", userId, storedBalance,
+                ledgerBalance);
+            isConsistent = false;
+        }
+        if (!isConsistent) verificationMismatches.increment();
+        return isConsistent;
+    }
+
+    private LedgerEntry transactionEntry(final Transaction transaction) {
+        return LedgerEntry.builder()
+            .userId(transaction.getUser().getId())
+            .transactionId(transaction.getId())
+            .type(ELedgerEntryType.TRANSACTION)
+            .amount(signedAmount(transaction))
+            .build();
+    }
+}
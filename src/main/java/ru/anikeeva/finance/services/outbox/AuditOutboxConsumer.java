@@ -0,0 +1,27 @@
+package ru.anikeeva.finance.services.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
+import ru.anikeeva.finance.entities.outbox.OutboxEvent;
+
+@Component
+@Slf4j(topic = "audit")
+public class AuditOutboxConsumer implements OutboxConsumer {
+    @Override
+    public String name() {
+        return "audit";
+    }
+
+    @Override
+    public boolean supports(final EOutboxEventType type) {
+        return true;
+    }
+
+    @Override
+    public void handle(final OutboxEvent event, final TransactionEvent payload) {
+        log.info("{} | событие {} | пользователь {} | транзакция {} | {} {} {} {} | {}", event.getType(),
+            event.getId(), event.getUserId(), payload.transactionId(), payload.type(), payload.category(),
+            payload.initialAmount(), payload.initialCurrency(), payload.dateTime());
+    }
+}
@@ -0,0 +1,32 @@
+package ru.anikeeva.finance.services.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
+import ru.anikeeva.finance.entities.outbox.OutboxEvent;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.services.budget.BudgetService;
+import ru.anikeeva.finance.services.user.UserService;
+
+@Component
+@RequiredArgsConstructor
+public class BudgetNotificationOutboxConsumer implements OutboxConsumer {
+    private final UserService userService;
+    private final BudgetService budgetService;
+
+    @Override
+    public String name() {
+        return "budget-notifications";
+    }
+
+    @Override
+    public boolean supports(final EOutboxEventType type) {
+        return type == EOutboxEventType.TRANSACTION_CREATED;
+    }
+
+    @Override
+    public void handle(final OutboxEvent event, final TransactionEvent payload) {
+        User user = userService.findUserById(event.getUserId());
+        budgetService.notifyBudgetUsage(user, payload.category());
+    }
+}
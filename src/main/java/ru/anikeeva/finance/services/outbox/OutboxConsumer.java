@@ -0,0 +1,12 @@
+package ru.anikeeva.finance.services.outbox;
+
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
+import ru.anikeeva.finance.entities.outbox.OutboxEvent;
+
+public interface OutboxConsumer {
+    String name();
+
+    boolean supports(EOutboxEventType type);
+
+    void handle(OutboxEvent event, TransactionEvent payload);
+}
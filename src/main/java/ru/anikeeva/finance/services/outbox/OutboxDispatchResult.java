@@ -0,0 +1,4 @@
+package ru.anikeeva.finance.services.outbox;
+
+public record OutboxDispatchResult(int dispatched, int failed) {
+}
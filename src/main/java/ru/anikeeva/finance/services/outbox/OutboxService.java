@@ -0,0 +1,174 @@
+package ru.anikeeva.finance.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
+import ru.anikeeva.finance.entities.outbox.OutboxEvent;
+import ru.anikeeva.finance.exceptions.IntegrationException;
+import ru.anikeeva.finance.repositories.outbox.OutboxEventRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@Slf4j
+public class OutboxService {
+    private static final int MAX_ERROR_LENGTH = 255;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxConsumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate deliveryTransaction;
+    private final Timer deliveryLag;
+    private final AtomicLong oldestPendingAgeInSeconds = new AtomicLong();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryDelayInMs;
+    private final long maxRetryDelayInMs;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, List<OutboxConsumer> consumers,
+                         ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${outbox.batch-size}") int batchSize,
+                         @Value("${outbox.max-attempts}") int maxAttempts,
+                         @Value("${outbox.retry-delay-in-ms}") long retryDelayInMs,
+                         @Value("${outbox.max-backoff-in-ms}") long maxRetryDelayInMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.consumers = consumers;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.deliveryTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.retryDelayInMs = retryDelayInMs;
+        this.maxRetryDelayInMs = maxRetryDelayInMs;
+        this.deliveryLag = Timer.builder("finance.outbox.delivery.lag")
+            .description("Время от записи события в outbox до его обработки")
+            .register(meterRegistry);
+        Gauge.builder("finance.outbox.lag.seconds", oldestPendingAgeInSeconds, AtomicLong::get)
+            .description("Возраст самого старого необработанного события outbox")
+            .register(meterRegistry);
+    }
+
+    public void publish(final EOutboxEventType type, final Transaction transaction) {
+        outboxEventRepository.save(toEvent(type, transaction));
+    }
+
+    public void publishAll(final EOutboxEventType type, final Collection<Transaction> transactions) {
+        outboxEventRepository.saveAll(transactions.stream().map(transaction -> toEvent(type, transaction)).toList());
+    }
+
+    @Transactional
+    public OutboxDispatchResult dispatchBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockPendingBatch(LocalDateTime.now(), batchSize);
+        int failed = 0;
+        for (OutboxEvent event : events) {
+            if (!dispatch(event)) failed++;
+        }
+        LocalDateTime oldestPending = outboxEventRepository.findOldestPendingCreatedAt();
+        oldestPendingAgeInSeconds.set(oldestPending == null
+            ? 0
+            : Math.max(0, Duration.between(oldestPending, LocalDateTime.now()).toSeconds()));
+        if (!events.isEmpty()) {
+            log.info("Обработано {} событий outbox, с ошибками доставки {}", events.size(), failed);
+        }
+        return new OutboxDispatchResult(events.size(), failed);
+    }
+
+    @Transactional
+    public void purgeProcessed(final LocalDateTime before) {
+        outboxEventRepository.deleteDeliveriesProcessedBefore(before);
+        int deleted = outboxEventRepository.deleteProcessedBefore(before);
+        log.info("Удалено {} обработанных событий outbox", deleted);
+    }
+
+    private boolean dispatch(final OutboxEvent event) {
+        event.setAttempts(event.getAttempts() + 1);
+        boolean isDelivered = true;
+        try {
+            TransactionEvent payload = fromJson(event.getPayload());
+            for (OutboxConsumer consumer : consumers) {
+                if (!consumer.supports(event.getType()) || event.getDeliveredTo().contains(consumer.name())) continue;
+                try {
+                    deliveryTransaction.executeWithoutResult(status -> consumer.handle(event, payload));
+                    event.getDeliveredTo().add(consumer.name());
+                } catch (Exception e) {
+                    isDelivered = false;
+                    recordFailure(event, consumer.name(), e);
+                }
+            }
+        } catch (IntegrationException e) {
+            isDelivered = false;
+            recordFailure(event, "payload", e);
+        }
+        if (isDelivered) {
+            event.setProcessedAt(LocalDateTime.now());
+            deliveryLag.record(Duration.between(event.getCreatedAt(), event.getProcessedAt()));
+        } else if (event.getAttempts() >= maxAttempts) {
+            event.setProcessedAt(LocalDateTime.now());
+            log.error("Событие outbox {} не доставлено после {} попыток и исключено из обработки: {}", event.getId(),
+                event.getAttempts(), event.getLastError());
+        } else {
+            long delay = Math.min(maxRetryDelayInMs, retryDelayInMs << Math.min(event.getAttempts() - 1, 16));
+            event.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(delay)));
+            log.warn("Повторная доставка события outbox {} отложена на {} мс", event.getId(), delay);
+        }
+        return isDelivered;
+    }
+
+    private void recordFailure(final OutboxEvent event, final String consumerName, final Exception e) {
+        event.setLastError(truncate(consumerName + ": " + e.getMessage()));
+        Counter.builder("finance.outbox.dispatch.failures")
+            .tag("consumer", consumerName)
+            .register(meterRegistry)
+            .increment();
+        log.error("Ошибка обработки события outbox {} обработчиком {}", event.getId(), consumerName, e);
+    }
+
+    private OutboxEvent toEvent(final EOutboxEventType type, final Transaction transaction) {
+        return OutboxEvent.builder()
+            .type(type)
+            .userId(transaction.getUser().getId())
+            .aggregateId(transaction.getId())
+            .payload(toJson(TransactionEvent.of(transaction)))
+            .nextAttemptAt(LocalDateTime.now())
+            .build();
+    }
+
+    private String toJson(final TransactionEvent payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IntegrationException("Не удалось сериализовать событие outbox");
+        }
+    }
+
+    private TransactionEvent fromJson(final String payload) {
+        try {
+            return objectMapper.readValue(payload, TransactionEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IntegrationException("Не удалось прочитать событие outbox");
+        }
+    }
+
+    private static String truncate(final String message) {
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
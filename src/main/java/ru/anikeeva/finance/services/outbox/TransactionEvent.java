@@ -0,0 +1,26 @@
+package ru.anikeeva.finance.services.outbox;
+
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.UUID;
+
+public record TransactionEvent(
+    UUID transactionId,
+    ETransactionType type,
+    ETransactionCategory category,
+    BigDecimal initialAmount,
+    Currency initialCurrency,
+    BigDecimal amountInBaseCurrency,
+    LocalDateTime dateTime
+) {
+    public static TransactionEvent of(final Transaction transaction) {
+        return new TransactionEvent(transaction.getId(), transaction.getType(), transaction.getCategory(),
+            transaction.getInitialAmount(), transaction.getInitialCurrency(), transaction.getAmountInBaseCurrency(),
+            transaction.getDateTime());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.anikeeva.finance.services.schema;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+@Service
+@Slf4j
+public class SchemaDriftService {
+    static final Set<String> REQUIRED_INDEXES = Set.of(
+        "idx_transaction_user_id_date_time_id",
+        "idx_transaction_user_id_type_date_time_id",
+        "idx_transaction_user_id_category_date_time_id",
+        "idx_transaction_job_id",
+        "idx_transaction_description_fts",
+        "idx_transaction_user_id_fingerprint_date_time",
+        "idx_budgets_user_id_category_period",
+        "idx_currency_rates_currency_source_updated_at",
+        "idx_currency_rates_updated_at",
+        "idx_verification_tokens_token",
+        "idx_verification_tokens_user_id",
+        "idx_outbox_event_unprocessed",
+        "idx_outbox_event_next_attempt_at",
+        "idx_outbox_event_processed_at",
+        "idx_ledger_entry_user_id",
+        "idx_ledger_entry_transaction_id_type",
+        "idx_ledger_entry_reverses_entry_id",
+        "idx_ledger_entry_opening",
+        "idx_balance_snapshot_user_id",
+        "uk_users_username",
+        "uk_users_email",
+        "uk_refresh_tokens_black_list_token"
+    );
+
+    private static final String INDEXES_SQL = "SELECT c.relname AS name, i.indisvalid AS valid FROM pg_index i " +
+        "JOIN pg_class c ON c.oid = i.indexrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+        "WHERE n.nspname = current_schema()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean failOnDrift;
+
+    public SchemaDriftService(final JdbcTemplate jdbcTemplate,
+                              @Value("${schema-check.fail-on-drift}") final boolean failOnDrift) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.failOnDrift = failOnDrift;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void verifySchema() {
+        List<String> problems = findDrift();
+        if (problems.isEmpty()) {
+            log.info("Схема базы данных соответствует миграциям");
+            return;
+        }
+        String message = "Схема базы данных расходится с миграциями: " + String.join("; ", problems);
+        if (failOnDrift) {
+            throw new IllegalStateException(message);
+        }
+        log.error(message);
+    }
+
+    public List<String> findDrift() {
+        Map<String, Boolean> existing = new HashMap<>();
+        jdbcTemplate.query(INDEXES_SQL, rs -> {
+            existing.put(rs.getString("name"), rs.getBoolean("valid"));
+        });
+        List<String> problems = new ArrayList<>();
+        for (String index : new TreeSet<>(REQUIRED_INDEXES)) {
+            Boolean valid = existing.get(index);
+            if (valid == null) {
+                problems.add("отсутствует индекс " + index);
+            } else if (!valid) {
+                problems.add("индекс " + index + " невалиден");
+            }
+        }
+        return problems;
+    }
+}
@@ -0,0 +1,85 @@
+package ru.anikeeva.finance.services.user;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.anikeeva.finance.entities.user.User;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+public final class RequestUserContext {
+    private static final String USERS_ATTRIBUTE = RequestUserContext.class.getName() + ".users";
+    private static final ThreadLocal<Map<Object, User>> BOUND_USERS = new ThreadLocal<>();
+
+    private RequestUserContext() {
+    }
+
+    public static User getByUsername(final String username, final Function<String, User> loader) {
+        Map<Object, User> users = currentUsers();
+        if (users == null) return loader.apply(username);
+        User user = users.get(username);
+        if (user == null) {
+            user = loader.apply(username);
+            remember(users, user);
+        }
+        return user;
+    }
+
+    public static User getById(final UUID id, final Function<UUID, User> loader) {
+        Map<Object, User> users = currentUsers();
+        if (users == null) return loader.apply(id);
+        User user = users.get(id);
+        if (user == null) {
+            user = loader.apply(id);
+            remember(users, user);
+        }
+        return user;
+    }
+
+    public static void evict(final User user) {
+        Map<Object, User> users = currentUsers();
+        if (users != null) {
+            users.values().removeIf(cached -> cached.getId().equals(user.getId()));
+        }
+    }
+
+    public static Map<Object, User> capture() {
+        return currentUsers();
+    }
+
+    public static <T> T callWith(final Map<Object, User> users, final Supplier<T> action) {
+        Map<Object, User> previous = BOUND_USERS.get();
+        BOUND_USERS.set(users);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                BOUND_USERS.remove();
+            } else {
+                BOUND_USERS.set(previous);
+            }
+        }
+    }
+
+    private static void remember(final Map<Object, User> users, final User user) {
+        users.put(user.getId(), user);
+        users.put(user.getUsername(), user);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Object, User> currentUsers() {
+        Map<Object, User> bound = BOUND_USERS.get();
+        if (bound != null) return bound;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        Object users = attributes.getAttribute(USERS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (users == null) {
+            users = new ConcurrentHashMap<Object, User>();
+            attributes.setAttribute(USERS_ATTRIBUTE, users, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Object, User>) users;
+    }
+}
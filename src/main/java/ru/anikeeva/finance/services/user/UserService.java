@@ -17,7 +17,9 @@ import ru.anikeeva.finance.exceptions.EntityNotFoundException;
 import ru.anikeeva.finance.exceptions.NoRightsException;
 import ru.anikeeva.finance.mappers.UserMapper;
 import ru.anikeeva.finance.repositories.user.UserRepository;
+import ru.anikeeva.finance.security.impl.UserDetailsCache;
 import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+import ru.anikeeva.finance.services.ledger.LedgerService;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -28,28 +30,38 @@ import java.util.UUID;
 public class UserService {
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserDetailsCache userDetailsCache;
+    private final LedgerService ledgerService;
 
     public User findUserByUsername(final String username) {
-        return userRepository.findByUsername(username).orElseThrow(() ->
-            new UsernameNotFoundException("Пользователь не найден"));
+        return RequestUserContext.getByUsername(username, name -> userRepository.findByUsername(name)
+            .orElseThrow(() -> new UsernameNotFoundException("Пользователь не найден")));
     }
 
     public User findUserById(final UUID id) {
-        return userRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
+        return RequestUserContext.getById(id, userId -> userRepository.findById(userId)
+            .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден")));
+    }
+
+    public void invalidateCachedUser(final String username) {
+        userDetailsCache.invalidate(username);
     }
 
     @Transactional
     public void recalculateBalance(final UUID id, final BigDecimal changes) {
         userRepository.updateBalance(id, changes);
+        ledgerService.recordImport(id, changes);
         log.info("Баланс пользователя {} пересчитан после импорта файла транзакций на общую сумму {}", id, changes);
     }
 
+    @Transactional(readOnly = true)
     public ReadUserResponse readUserProfile(final UserDetailsImpl currentUser, final UUID id) {
         User user = findUserById(currentUser.getId());
         checkRightsForActionsWithUsers(user, id);
         return userMapper.toReadUserResponse(user);
     }
 
+    @Transactional(readOnly = true)
     public Page<ReadUserListResponse> getAllUsers(final int page, final int size, final Boolean filter) {
         Page<User> users;
         if (filter == null) users = userRepository.findAll(PageRequest.of(page, size));
@@ -64,8 +76,10 @@ public class UserService {
             log.info("Попытка изменения профиля пользователя {} с пустым запросом", currentUser.getId());
             throw new IllegalArgumentException("Запрос на изменение профиля пуст");
         }
+        String previousUsername = user.getUsername();
         userMapper.updateUserFromUpdateUserRequest(request, user);
         userRepository.save(user);
+        evictUser(user, previousUsername);
         log.info("Детали профиля пользователя {} изменены по его запросу", currentUser.getUsername());
     }
 
@@ -76,6 +90,7 @@ public class UserService {
         }
         user.setRole(request.newRole());
         userRepository.save(user);
+        evictUser(user, user.getUsername());
         log.info("Роль пользователя {} изменена на {}", user.getUsername(), request.newRole());
     }
 
@@ -83,6 +98,7 @@ public class UserService {
         User user = findUserById(currentUser.getId());
         user.setIsEnabled(false);
         userRepository.save(user);
+        evictUser(user, user.getUsername());
         log.info("Профиль пользователя {} удален", user.getUsername());
     }
 
@@ -90,6 +106,7 @@ public class UserService {
         User user = findUserById(id);
         user.setIsEnabled(!user.getIsEnabled());
         userRepository.save(user);
+        evictUser(user, user.getUsername());
         log.info("Изменен флаг активности пользователя {}", user.getUsername());
     }
 
@@ -100,6 +117,14 @@ public class UserService {
         log.info("Пользователь {} подтвердил электронную почту {}", user.getUsername(), user.getEmail());
     }
 
+    private void evictUser(final User user, final String previousUsername) {
+        RequestUserContext.evict(user);
+        userDetailsCache.invalidate(previousUsername);
+        if (!previousUsername.equals(user.getUsername())) {
+            userDetailsCache.invalidate(user.getUsername());
+        }
+    }
+
     private void checkRightsForActionsWithUsers(final User user, final UUID id) {
         if (!user.getId().equals(id) && !user.getRole().equals(ERole.ADMIN)) {
             log.info("Попытка просмотра или изменения профиля другого пользователя со стороны {}", user.getUsername());
@@ -0,0 +1,183 @@
+CREATE TABLE IF NOT EXISTS users (
+    id               UUID          NOT NULL,
+    username         VARCHAR(255)  NOT NULL,
+    email            VARCHAR(255),
+    password         VARCHAR(255)  NOT NULL,
+    role             VARCHAR(255)  NOT NULL,
+    balance          NUMERIC(38, 2),
+    base_currency    VARCHAR(3),
+    is_enabled       BOOLEAN       NOT NULL,
+    is_email_active  BOOLEAN       NOT NULL,
+    is_mailing_agree BOOLEAN       NOT NULL,
+    version          BIGINT        NOT NULL DEFAULT 0,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+CREATE TABLE IF NOT EXISTS transaction (
+    id                      UUID           NOT NULL,
+    user_id                 UUID,
+    type                    VARCHAR(255)   NOT NULL,
+    category                VARCHAR(255)   NOT NULL,
+    initial_amount          NUMERIC(38, 2),
+    initial_currency        VARCHAR(3),
+    amount_in_base_currency NUMERIC(38, 2),
+    date_time               TIMESTAMP(6)   NOT NULL,
+    description             VARCHAR(255),
+    job_id                  BIGINT,
+    CONSTRAINT pk_transaction PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS budgets (
+    id           UUID           NOT NULL,
+    user_id      UUID           NOT NULL,
+    limit_amount NUMERIC(38, 2) NOT NULL,
+    period       VARCHAR(255)   NOT NULL,
+    category     VARCHAR(255)   NOT NULL,
+    CONSTRAINT pk_budgets PRIMARY KEY (id),
+    CONSTRAINT fk_budgets_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS currency_rates (
+    id                                 UUID         NOT NULL,
+    currency                           VARCHAR(3)   NOT NULL,
+    name                               VARCHAR(255) NOT NULL,
+    value_in_relation_to_base_currency NUMERIC(38, 2),
+    updated_at                         TIMESTAMP(6) NOT NULL,
+    source                             VARCHAR(255),
+    CONSTRAINT pk_currency_rates PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS refresh_tokens_black_list (
+    id    UUID         NOT NULL,
+    token VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_refresh_tokens_black_list PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_black_list_token UNIQUE (token)
+);
+
+CREATE TABLE IF NOT EXISTS verification_tokens (
+    id          UUID         NOT NULL,
+    token       VARCHAR(255),
+    user_id     UUID         NOT NULL,
+    expiry_date TIMESTAMP(6),
+    CONSTRAINT pk_verification_tokens PRIMARY KEY (id),
+    CONSTRAINT fk_verification_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id           UUID         NOT NULL,
+    type         VARCHAR(255) NOT NULL,
+    user_id      UUID         NOT NULL,
+    aggregate_id UUID         NOT NULL,
+    payload      TEXT         NOT NULL,
+    created_at   TIMESTAMP(6) NOT NULL,
+    processed_at TIMESTAMP(6),
+    attempts     INTEGER      NOT NULL,
+    last_error   VARCHAR(255),
+    CONSTRAINT pk_outbox_event PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS outbox_event_delivery (
+    event_id UUID         NOT NULL,
+    consumer VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_outbox_event_delivery PRIMARY KEY (event_id, consumer),
+    CONSTRAINT fk_outbox_event_delivery_event FOREIGN KEY (event_id) REFERENCES outbox_event (id)
+);
+
+CREATE TABLE IF NOT EXISTS ledger_entry (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id           UUID           NOT NULL,
+    transaction_id    UUID,
+    type              VARCHAR(255)   NOT NULL,
+    amount            NUMERIC(38, 2) NOT NULL,
+    reverses_entry_id BIGINT,
+    created_at        TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_ledger_entry PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS balance_snapshot (
+    id            UUID           NOT NULL,
+    user_id       UUID           NOT NULL,
+    last_entry_id BIGINT         NOT NULL,
+    balance       NUMERIC(38, 2) NOT NULL,
+    created_at    TIMESTAMP(6)   NOT NULL,
+    CONSTRAINT pk_balance_snapshot PRIMARY KEY (id)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_balance_snapshot_user_id ON balance_snapshot (user_id, last_entry_id);
+
+CREATE TABLE IF NOT EXISTS batch_job_instance (
+    job_instance_id BIGINT       NOT NULL PRIMARY KEY,
+    version         BIGINT,
+    job_name        VARCHAR(100) NOT NULL,
+    job_key         VARCHAR(32)  NOT NULL,
+    CONSTRAINT job_inst_un UNIQUE (job_name, job_key)
+);
+
+CREATE TABLE IF NOT EXISTS batch_job_execution (
+    job_execution_id BIGINT    NOT NULL PRIMARY KEY,
+    version          BIGINT,
+    job_instance_id  BIGINT    NOT NULL,
+    create_time      TIMESTAMP NOT NULL,
+    start_time       TIMESTAMP DEFAULT NULL,
+    end_time         TIMESTAMP DEFAULT NULL,
+    status           VARCHAR(10),
+    exit_code        VARCHAR(2500),
+    exit_message     VARCHAR(2500),
+    last_updated     TIMESTAMP,
+    CONSTRAINT job_inst_exec_fk FOREIGN KEY (job_instance_id) REFERENCES batch_job_instance (job_instance_id)
+);
+
+CREATE TABLE IF NOT EXISTS batch_job_execution_params (
+    job_execution_id BIGINT       NOT NULL,
+    parameter_name   VARCHAR(100) NOT NULL,
+    parameter_type   VARCHAR(100) NOT NULL,
+    parameter_value  VARCHAR(2500),
+    identifying      CHAR(1)      NOT NULL,
+    CONSTRAINT job_exec_params_fk FOREIGN KEY (job_execution_id) REFERENCES batch_job_execution (job_execution_id)
+);
+
+CREATE TABLE IF NOT EXISTS batch_step_execution (
+    step_execution_id  BIGINT       NOT NULL PRIMARY KEY,
+    version            BIGINT       NOT NULL,
+    step_name          VARCHAR(100) NOT NULL,
+    job_execution_id   BIGINT       NOT NULL,
+    create_time        TIMESTAMP    NOT NULL,
+    start_time         TIMESTAMP DEFAULT NULL,
+    end_time           TIMESTAMP DEFAULT NULL,
+    status             VARCHAR(10),
+    commit_count       BIGINT,
+    read_count         BIGINT,
+    filter_count       BIGINT,
+    write_count        BIGINT,
+    read_skip_count    BIGINT,
+    write_skip_count   BIGINT,
+    process_skip_count BIGINT,
+    rollback_count     BIGINT,
+    exit_code          VARCHAR(2500),
+    exit_message       VARCHAR(2500),
+    last_updated       TIMESTAMP,
+    CONSTRAINT job_exec_step_fk FOREIGN KEY (job_execution_id) REFERENCES batch_job_execution (job_execution_id)
+);
+
+CREATE TABLE IF NOT EXISTS batch_step_execution_context (
+    step_execution_id  BIGINT        NOT NULL PRIMARY KEY,
+    short_context      VARCHAR(2500) NOT NULL,
+    serialized_context TEXT,
+    CONSTRAINT step_exec_ctx_fk FOREIGN KEY (step_execution_id) REFERENCES batch_step_execution (step_execution_id)
+);
+
+CREATE TABLE IF NOT EXISTS batch_job_execution_context (
+    job_execution_id   BIGINT        NOT NULL PRIMARY KEY,
+    short_context      VARCHAR(2500) NOT NULL,
+    serialized_context TEXT,
+    CONSTRAINT job_exec_ctx_fk FOREIGN KEY (job_execution_id) REFERENCES batch_job_execution (job_execution_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS batch_step_execution_seq MAXVALUE 9223372036854775807 NO CYCLE;
+CREATE SEQUENCE IF NOT EXISTS batch_job_execution_seq MAXVALUE 9223372036854775807 NO CYCLE;
+CREATE SEQUENCE IF NOT EXISTS batch_job_seq MAXVALUE 9223372036854775807 NO CYCLE;
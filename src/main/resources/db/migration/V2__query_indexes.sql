@@ -0,0 +1,51 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_user_id_date_time_id
+    ON transaction (user_id, date_time DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_user_id_type_date_time_id
+    ON transaction (user_id, type, date_time DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_user_id_category_date_time_id
+    ON transaction (user_id, category, date_time DESC, id DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_job_id
+    ON transaction (job_id) WHERE job_id IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_description_fts
+    ON transaction USING GIN (to_tsvector('russian', coalesce(description, '')));
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_budgets_user_id_category_period
+    ON budgets (user_id, category, period);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currency_rates_currency_source_updated_at
+    ON currency_rates (currency, source, updated_at DESC);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_currency_rates_updated_at
+    ON currency_rates (updated_at);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_verification_tokens_token
+    ON verification_tokens (token);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_verification_tokens_user_id
+    ON verification_tokens (user_id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_outbox_event_pending;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_event_unprocessed
+    ON outbox_event (created_at) WHERE processed_at IS NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_event_processed_at
+    ON outbox_event (processed_at) WHERE processed_at IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ledger_entry_user_id
+    ON ledger_entry (user_id, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_ledger_entry_transaction_id;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ledger_entry_transaction_id_type
+    ON ledger_entry (transaction_id, type) WHERE transaction_id IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ledger_entry_reverses_entry_id
+    ON ledger_entry (reverses_entry_id) WHERE reverses_entry_id IS NOT NULL;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_ledger_entry_opening
+    ON ledger_entry (user_id) WHERE type = 'OPENING';
@@ -0,0 +1,71 @@
+CREATE TABLE transaction_partitioned (
+    id                      UUID           NOT NULL,
+    user_id                 UUID,
+    type                    VARCHAR(255)   NOT NULL,
+    category                VARCHAR(255)   NOT NULL,
+    initial_amount          NUMERIC(38, 2),
+    initial_currency        VARCHAR(3),
+    amount_in_base_currency NUMERIC(38, 2),
+    date_time               TIMESTAMP(6)   NOT NULL,
+    description             VARCHAR(255),
+    job_id                  BIGINT,
+    CONSTRAINT pk_transaction_partitioned PRIMARY KEY (id, date_time),
+    CONSTRAINT fk_transaction_partitioned_user FOREIGN KEY (user_id) REFERENCES users (id)
+) PARTITION BY RANGE (date_time);
+
+CREATE TABLE transaction_default PARTITION OF transaction_partitioned DEFAULT;
+
+DO $$
+DECLARE
+    current_month DATE := date_trunc('month', now())::date;
+    first_month   DATE;
+    last_month    DATE;
+    month         DATE;
+BEGIN
+    SELECT date_trunc('month', min(date_time))::date, date_trunc('month', max(date_time))::date
+    INTO first_month, last_month
+    FROM transaction;
+    first_month := least(coalesce(first_month, current_month), current_month);
+    last_month := greatest(coalesce(last_month, current_month), (current_month + interval '3 months')::date);
+    month := first_month;
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transaction_partitioned FOR VALUES FROM (%L) TO (%L)',
+            'transaction_p' || to_char(month, 'YYYY_MM'), month, (month + interval '1 month')::date);
+        month := (month + interval '1 month')::date;
+    END LOOP;
+END $$;
+
+CREATE INDEX idx_transaction_partitioned_user_id_date_time_id
+    ON transaction_partitioned (user_id, date_time DESC, id DESC);
+
+CREATE INDEX idx_transaction_partitioned_user_id_type_date_time_id
+    ON transaction_partitioned (user_id, type, date_time DESC, id DESC);
+
+CREATE INDEX idx_transaction_partitioned_user_id_category_date_time_id
+    ON transaction_partitioned (user_id, category, date_time DESC, id DESC);
+
+CREATE INDEX idx_transaction_partitioned_job_id
+    ON transaction_partitioned (job_id) WHERE job_id IS NOT NULL;
+
+CREATE INDEX idx_transaction_partitioned_description_fts
+    ON transaction_partitioned USING GIN (to_tsvector('russian', coalesce(description, '')));
+
+CREATE FUNCTION mirror_transaction_to_partitioned() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        DELETE FROM transaction_partitioned WHERE id = OLD.id AND date_time = OLD.date_time;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO transaction_partitioned (id, user_id, type, category, initial_amount, initial_currency,
+                                             amount_in_base_currency, date_time, description, job_id)
+        VALUES (NEW.id, NEW.user_id, NEW.type, NEW.category, NEW.initial_amount, NEW.initial_currency,
+                NEW.amount_in_base_currency, NEW.date_time, NEW.description, NEW.job_id)
+        ON CONFLICT (id, date_time) DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transaction_mirror_to_partitioned
+    AFTER INSERT OR UPDATE OR DELETE ON transaction
+    FOR EACH ROW EXECUTE FUNCTION mirror_transaction_to_partitioned();
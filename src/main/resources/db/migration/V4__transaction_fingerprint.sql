@@ -0,0 +1,37 @@
+ALTER TABLE transaction ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64);
+
+DO $migration$
+BEGIN
+    IF to_regclass('transaction_partitioned') IS NOT NULL THEN
+        ALTER TABLE transaction_partitioned ADD COLUMN IF NOT EXISTS fingerprint VARCHAR(64);
+
+        CREATE OR REPLACE FUNCTION mirror_transaction_to_partitioned() RETURNS TRIGGER AS $$
+        BEGIN
+            IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                DELETE FROM transaction_partitioned WHERE id = OLD.id AND date_time = OLD.date_time;
+            END IF;
+            IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                INSERT INTO transaction_partitioned (id, user_id, type, category, initial_amount, initial_currency,
+                                                     amount_in_base_currency, date_time, description, job_id,
+                                                     fingerprint)
+                VALUES (NEW.id, NEW.user_id, NEW.type, NEW.category, NEW.initial_amount, NEW.initial_currency,
+                        NEW.amount_in_base_currency, NEW.date_time, NEW.description, NEW.job_id, NEW.fingerprint)
+                ON CONFLICT (id, date_time) DO NOTHING;
+            END IF;
+            RETURN NULL;
+        END;
+        $$ LANGUAGE plpgsql;
+    END IF;
+END $migration$;
+
+-- Отпечатки ранее импортированных транзакций заполняются фоновой задачей пакетами по пользователям,
+-- уникальный индекс на transaction строится конкурентно в V8. Секционированная таблица заполняется фоновым
+-- переносом только после запуска приложения, а CONCURRENTLY для секционированных таблиц не поддерживается,
+-- поэтому индекс на ней создается здесь по еще пустой таблице.
+DO $migration$
+BEGIN
+    IF to_regclass('transaction_partitioned') IS NOT NULL THEN
+        CREATE UNIQUE INDEX IF NOT EXISTS idx_transaction_partitioned_user_id_fingerprint_date_time
+            ON transaction_partitioned (user_id, fingerprint, date_time);
+    END IF;
+END $migration$;
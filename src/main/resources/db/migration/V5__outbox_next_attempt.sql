@@ -0,0 +1 @@
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS next_attempt_at TIMESTAMP(6) NOT NULL DEFAULT now();
@@ -0,0 +1,2 @@
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_outbox_event_next_attempt_at
+    ON outbox_event (next_attempt_at) WHERE processed_at IS NULL;
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS import_queue (
+    job_id       VARCHAR(36)   NOT NULL,
+    user_id      UUID          NOT NULL,
+    file_path    VARCHAR(1024) NOT NULL,
+    submitted_at TIMESTAMP(6)  NOT NULL,
+    CONSTRAINT pk_import_queue PRIMARY KEY (job_id)
+);
@@ -0,0 +1,2 @@
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS idx_transaction_user_id_fingerprint_date_time
+    ON transaction (user_id, fingerprint, date_time);
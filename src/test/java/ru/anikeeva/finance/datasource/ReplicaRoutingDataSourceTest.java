@@ -0,0 +1,122 @@
+package ru.anikeeva.finance.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final ReadYourWritesRegistry registry = new ReadYourWritesRegistry(5000, now::get);
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Чтение распределяется по репликам с допустимым отставанием")
+    public void readsAreBalancedAcrossHealthyReplicas() throws Exception {
+        ReplicaLagMonitor monitor = monitor(Map.of("replica-1", 10L, "replica-2", 50L, "replica-3", 5000L));
+        monitor.refresh();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(mock(DataSource.class), monitor, registry);
+
+        assertEquals(List.of("replica-1", "replica-2"), monitor.healthyReplicas());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertEquals("replica-2", routing.determineCurrentLookupKey());
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Если все реплики отстают или недоступны, чтение идет в основную базу")
+    public void readsFallBackToPrimaryWithoutHealthyReplicas() throws Exception {
+        ReplicaLagMonitor monitor = monitor(Map.of("replica-1", 5000L, "replica-2", -1L));
+        monitor.refresh();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(mock(DataSource.class), monitor, registry);
+
+        assertTrue(monitor.healthyReplicas().isEmpty());
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("После записи чтение пользователя идет в основную базу до истечения окна")
+    public void recentWriterReadsFromPrimary() throws Exception {
+        UUID userId = UUID.randomUUID();
+        authenticate(userId);
+        ReplicaLagMonitor monitor = monitor(Map.of("replica-1", 0L));
+        monitor.refresh();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(mock(DataSource.class), monitor, registry);
+
+        registry.recordWrite(userId);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        now.addAndGet(5001);
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+        assertFalse(registry.isSticky(userId));
+    }
+
+    @Test
+    @DisplayName("Запись одного пользователя не влияет на чтение других")
+    public void writesOfAnotherUserDoNotPinReads() throws Exception {
+        authenticate(UUID.randomUUID());
+        ReplicaLagMonitor monitor = monitor(Map.of("replica-1", 0L));
+        monitor.refresh();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(mock(DataSource.class), monitor, registry);
+
+        registry.recordWrite(UUID.randomUUID());
+
+        assertEquals("replica-1", routing.determineCurrentLookupKey());
+    }
+
+    private ReplicaLagMonitor monitor(final Map<String, Long> lags) throws SQLException {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> lag : lags.entrySet()) {
+            replicas.put(lag.getKey(), replica(lag.getValue()));
+        }
+        return new ReplicaLagMonitor(replicas, 1000, new SimpleMeterRegistry());
+    }
+
+    private static DataSource replica(final long lagInMs) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        if (lagInMs < 0) {
+            when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+            return dataSource;
+        }
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(lagInMs);
+        return dataSource;
+    }
+
+    private static void authenticate(final UUID userId) {
+        UserDetailsImpl user = new UserDetailsImpl(userId, "user", "password", null, true);
+        SecurityContextHolder.getContext()
+            .setAuthentication(new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+}
@@ -0,0 +1,189 @@
+package ru.anikeeva.finance.executors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import ru.anikeeva.finance.exceptions.ImportQueueFullException;
+import ru.anikeeva.finance.repositories.budget.ImportQueueRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ImportJobSchedulerTest {
+    private final BlockingQueue<String> started = new LinkedBlockingQueue<>();
+    private final Map<String, CountDownLatch> running = new ConcurrentHashMap<>();
+    private final ImportQueueRepository importQueueRepository = mock(ImportQueueRepository.class);
+    private ImportJobScheduler scheduler;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        JobLauncher jobLauncher = mock(JobLauncher.class);
+        doAnswer(invocation -> {
+            String jobId = invocation.getArgument(1, JobParameters.class).getString("jobId");
+            CountDownLatch finished = running.computeIfAbsent(jobId, id -> new CountDownLatch(1));
+            started.add(jobId);
+            finished.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(jobLauncher).run(any(Job.class), any(JobParameters.class));
+        scheduler = new ImportJobScheduler(jobLauncher, mock(Job.class), importQueueRepository,
+            new SimpleMeterRegistry(), directory, 2, 3);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        running.values().forEach(CountDownLatch::countDown);
+        scheduler.shutdown();
+    }
+
+    @Test
+    @DisplayName("Импорт ограничен общим лимитом и одним активным импортом на пользователя")
+    public void submitLimitsConcurrencyGloballyAndPerUser() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+
+        assertEquals(0, scheduler.submit(first, parameters("first-1")));
+        assertEquals(1, scheduler.submit(first, parameters("first-2")));
+        assertEquals(0, scheduler.submit(second, parameters("second-1")));
+        assertEquals(2, scheduler.submit(third, parameters("third-1")));
+
+        assertEquals(List.of("first-1", "second-1"), List.of(next(), next()));
+        assertNull(started.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals(2, scheduler.queueDepth());
+    }
+
+    @Test
+    @DisplayName("Освободившийся слот получает пользователь без активного импорта")
+    public void freedSlotGoesToUserWithoutActiveImport() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        scheduler.submit(first, parameters("first-1"));
+        scheduler.submit(first, parameters("first-2"));
+        scheduler.submit(second, parameters("second-1"));
+        scheduler.submit(third, parameters("third-1"));
+        next();
+        next();
+
+        finish("second-1");
+        assertEquals("third-1", next());
+
+        finish("first-1");
+        assertEquals("first-2", next());
+        assertEquals(0, scheduler.queueDepth());
+    }
+
+    @Test
+    @DisplayName("При переполнении очереди импорт отклоняется")
+    public void submitRejectsWhenQueueIsFull() throws Exception {
+        UUID user = UUID.randomUUID();
+        scheduler.submit(user, parameters("job-1"));
+        scheduler.submit(user, parameters("job-2"));
+        scheduler.submit(user, parameters("job-3"));
+        scheduler.submit(user, parameters("job-4"));
+
+        assertThrows(ImportQueueFullException.class, () -> scheduler.submit(user, parameters("job-5")));
+    }
+
+    @Test
+    @DisplayName("Потоковый импорт занимает слот пользователя и отклоняется при активном импорте")
+    public void runExclusiveHoldsUserSlot() throws Exception {
+        UUID user = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        scheduler.runExclusive(user, () -> {
+            assertEquals(1, scheduler.submit(user, parameters("user-1")));
+            assertEquals(0, scheduler.submit(other, parameters("other-1")));
+            return null;
+        });
+        assertEquals(Set.of("other-1", "user-1"), Set.of(next(), next()));
+
+        assertThrows(ImportQueueFullException.class, () -> scheduler.runExclusive(user, () -> "stream"));
+        finish("user-1");
+        finish("other-1");
+    }
+
+    @Test
+    @DisplayName("Импорт файла сохраняется в очереди БД до завершения задачи")
+    public void submitFilePersistsQueuedImportUntilJobFinishes() throws Exception {
+        UUID user = UUID.randomUUID();
+        Path file = scheduler.createSpoolFile();
+
+        String jobId = scheduler.submitFile(user, file).jobId();
+
+        verify(importQueueRepository).save(jobId, user, file.toString());
+        assertEquals(jobId, next());
+        verify(importQueueRepository, never()).delete(jobId);
+        finish(jobId);
+        verify(importQueueRepository, timeout(5000)).delete(jobId);
+    }
+
+    @Test
+    @DisplayName("После перезапуска сохраненные импорты возвращаются в очередь, потерянные файлы удаляются")
+    public void recoverRequeuesPersistedImportsAndDeletesOrphanFiles() throws Exception {
+        UUID user = UUID.randomUUID();
+        Path queuedFile = scheduler.createSpoolFile();
+        Path orphanFile = scheduler.createSpoolFile();
+        Files.setLastModifiedTime(orphanFile, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Path uploadingFile = scheduler.createSpoolFile();
+        Files.setLastModifiedTime(uploadingFile, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+        when(importQueueRepository.findAll()).thenReturn(List.of(
+            new ImportQueueRepository.QueuedFile("queued", user, queuedFile.toString()),
+            new ImportQueueRepository.QueuedFile("missing", user, directory.resolve("missing.csv").toString())));
+
+        scheduler.recover();
+
+        assertEquals("queued", next());
+        assertEquals(new ImportJobScheduler.QueuedImport(user, 0), scheduler.findQueued("queued"));
+        verify(importQueueRepository).delete("missing");
+        assertTrue(Files.exists(queuedFile));
+        assertFalse(Files.exists(orphanFile));
+        assertTrue(Files.exists(uploadingFile));
+        finish("queued");
+    }
+
+    private String next() throws InterruptedException {
+        return started.poll(5, TimeUnit.SECONDS);
+    }
+
+    private void finish(final String jobId) {
+        running.computeIfAbsent(jobId, id -> new CountDownLatch(1)).countDown();
+    }
+
+    private static JobParameters parameters(final String jobId) {
+        return new JobParametersBuilder().addString("jobId", jobId).toJobParameters();
+    }
+}
@@ -0,0 +1,177 @@
+package ru.anikeeva.finance.executors;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.anikeeva.finance.exceptions.InsufficientFundsException;
+import ru.anikeeva.finance.exceptions.WriteLaneOverloadedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UserWriteLaneExecutorTest {
+    private UserWriteLaneExecutor laneExecutor;
+
+    @AfterEach
+    public void tearDown() {
+        laneExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Операции одного пользователя выполняются последовательно")
+    public void executeSerializesWritesOfOneUser() throws Exception {
+        laneExecutor = new UserWriteLaneExecutor(new SimpleMeterRegistry(), 8, 1024, 30);
+        UUID userId = UUID.randomUUID();
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 200; i++) {
+            futures.add(callers.submit(() -> laneExecutor.run(userId, () -> {
+                maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                active.decrementAndGet();
+            })));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        callers.shutdown();
+
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    @DisplayName("Операции разных пользователей выполняются параллельно")
+    public void executeRunsDifferentLanesInParallel() throws Exception {
+        laneExecutor = new UserWriteLaneExecutor(new SimpleMeterRegistry(), 2, 16, 30);
+        UUID firstUserId = userIdForLane(0, 2);
+        UUID secondUserId = userIdForLane(1, 2);
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        Future<Boolean> first = callers.submit(() -> laneExecutor.execute(firstUserId, () -> {
+            bothStarted.countDown();
+            return awaitQuietly(bothStarted);
+        }));
+        Future<Boolean> second = callers.submit(() -> laneExecutor.execute(secondUserId, () -> {
+            bothStarted.countDown();
+            return awaitQuietly(bothStarted);
+        }));
+
+        assertTrue(first.get(10, TimeUnit.SECONDS));
+        assertTrue(second.get(10, TimeUnit.SECONDS));
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Исключение операции пробрасывается вызывающему потоку")
+    public void executePropagatesRuntimeException() {
+        laneExecutor = new UserWriteLaneExecutor(new SimpleMeterRegistry(), 4, 16, 30);
+
+        InsufficientFundsException thrown = assertThrows(InsufficientFundsException.class, () ->
+            laneExecutor.execute(UUID.randomUUID(), () -> {
+                throw new InsufficientFundsException("Баланс пользователя меньше суммы транзакции");
+            }));
+
+        assertEquals("Баланс пользователя меньше суммы транзакции", thrown.getMessage());
+    }
+
+    @Test
+    @DisplayName("Переполнение очереди пользователя отклоняет операцию")
+    public void executeRejectsWhenLaneQueueIsFull() throws Exception {
+        laneExecutor = new UserWriteLaneExecutor(new SimpleMeterRegistry(), 1, 1, 30);
+        UUID userId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        Future<?> running = callers.submit(() -> laneExecutor.run(userId, () -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        Future<?> queued = callers.submit(() -> laneExecutor.run(userId, () -> {}));
+        while (laneExecutor.queueDepth(userId) == 0) {
+            Thread.onSpinWait();
+        }
+
+        assertThrows(WriteLaneOverloadedException.class, () -> laneExecutor.run(userId, () -> {}));
+        release.countDown();
+        running.get(10, TimeUnit.SECONDS);
+        queued.get(10, TimeUnit.SECONDS);
+        callers.shutdown();
+    }
+
+    @Test
+    @DisplayName("Начатая операция не прерывается по таймауту, вызывающий поток дожидается результата")
+    public void executeWaitsForStartedOperationAfterTimeout() {
+        laneExecutor = new UserWriteLaneExecutor(new SimpleMeterRegistry(), 1, 16, 1);
+
+        String result = laneExecutor.execute(UUID.randomUUID(), () -> {
+            sleepQuietly(1500);
+            return "done";
+        });
+
+        assertEquals("done", result);
+    }
+
+    @Test
+    @DisplayName("Операция, не дождавшаяся очереди до таймаута, отклоняется и не выполняется")
+    public void executeAbandonsQueuedOperationAfterTimeout() throws Exception {
+        laneExecutor = new UserWriteLaneExecutor(new SimpleMeterRegistry(), 1, 16, 1);
+        UUID userId = UUID.randomUUID();
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        ExecutorService callers = Executors.newSingleThreadExecutor();
+
+        Future<?> running = callers.submit(() -> laneExecutor.run(userId, () -> {
+            started.countDown();
+            sleepQuietly(2500);
+        }));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertThrows(WriteLaneOverloadedException.class, () -> laneExecutor.run(userId, executed::incrementAndGet));
+        running.get(10, TimeUnit.SECONDS);
+        laneExecutor.run(userId, () -> {});
+        assertEquals(0, executed.get());
+        callers.shutdown();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean awaitQuietly(CountDownLatch latch) {
+        try {
+            return latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static UUID userIdForLane(int lane, int laneCount) {
+        while (true) {
+            UUID userId = UUID.randomUUID();
+            if (Math.floorMod(userId.hashCode(), laneCount) == lane) return userId;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package ru.anikeeva.finance.executors;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.anikeeva.finance.controllers.budget.TransactionController;
+import ru.anikeeva.finance.dto.budget.TransactionResponse;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.services.budget.TransactionService;
+import ru.anikeeva.finance.services.idempotency.IdempotencyService;
+import ru.anikeeva.finance.services.imports.ImportStatusService;
+import ru.anikeeva.finance.services.imports.TransactionStreamImportService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@Tag("load")
+@Slf4j
+public class VirtualThreadLoadTest {
+    private static final int REQUESTS = 10_000;
+    private static final int CONCURRENCY = 1_000;
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final long DATABASE_LATENCY_IN_MS = 100;
+
+    @Test
+    @DisplayName("Виртуальные потоки Tomcat обслуживают блокирующий эндпоинт быстрее пула платформенных потоков")
+    public void virtualThreadsOutperformPlatformPool() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        log.info("{}", platform);
+        log.info("{}", virtual);
+        assertEquals(REQUESTS, platform.succeeded());
+        assertEquals(REQUESTS, virtual.succeeded());
+        assertTrue(virtual.throughput() > platform.throughput() * 2,
+            "Пропускная способность на виртуальных потоках: " + virtual + ", на платформенных: " + platform);
+    }
+
+    private static Result run(final boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LoadTestApplication.class)
+            .web(WebApplicationType.SERVLET)
+            .properties("server.port=0",
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS)
+            .run();
+             HttpClient client = HttpClient.newBuilder()
+                 .version(HttpClient.Version.HTTP_1_1)
+                 .executor(Executors.newVirtualThreadPerTaskExecutor())
+                 .build()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            Semaphore inFlight = new Semaphore(CONCURRENCY);
+            List<CompletableFuture<Integer>> responses = new ArrayList<>(REQUESTS);
+            long startedAt = System.nanoTime();
+            for (int i = 0; i < REQUESTS; i++) {
+                inFlight.acquire();
+                HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://localhost:" + port + "/api/v1/transactions/" + UUID.randomUUID())).build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode)
+                    .whenComplete((status, error) -> inFlight.release()));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).get(5, TimeUnit.MINUTES);
+            long elapsedInNanos = System.nanoTime() - startedAt;
+            int succeeded = (int) responses.stream().filter(response -> response.join() == 200).count();
+            return new Result(virtualThreads ? "virtual" : "platform", succeeded,
+                REQUESTS * 1_000_000_000.0 / elapsedInNanos, threads.getPeakThreadCount());
+        }
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class,
+        EmbeddedWebServerFactoryCustomizerAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+        WebMvcAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class, JacksonAutoConfiguration.class})
+    @Import(TransactionController.class)
+    static class LoadTestApplication {
+        @Bean
+        public TransactionService transactionService() {
+            TransactionService transactionService = mock(TransactionService.class);
+            when(transactionService.showTransaction(any(), any())).thenAnswer(invocation -> {
+                Thread.sleep(DATABASE_LATENCY_IN_MS);
+                return new TransactionResponse(invocation.getArgument(1), ETransactionType.EXPENSE,
+                    ETransactionCategory.CAFE, BigDecimal.valueOf(500), Currency.getInstance("RUB"),
+                    LocalDateTime.of(2025, 3, 1, 12, 0), "Обед");
+            });
+            return transactionService;
+        }
+
+        @Bean
+        public UserWriteLaneExecutor userWriteLaneExecutor() {
+            return mock(UserWriteLaneExecutor.class);
+        }
+
+        @Bean
+        public IdempotencyService idempotencyService() {
+            return mock(IdempotencyService.class);
+        }
+
+        @Bean
+        public TransactionStreamImportService transactionStreamImportService() {
+            return mock(TransactionStreamImportService.class);
+        }
+
+        @Bean
+        public ImportStatusService importStatusService() {
+            return mock(ImportStatusService.class);
+        }
+
+        @Bean
+        public WebMvcConfigurer authenticationPrincipalConfigurer() {
+            return new WebMvcConfigurer() {
+                @Override
+                public void addArgumentResolvers(final List<HandlerMethodArgumentResolver> resolvers) {
+                    resolvers.add(new AuthenticationPrincipalArgumentResolver());
+                }
+            };
+        }
+    }
+
+    private record Result(String model, int succeeded, double throughput, int peakThreads) {
+        @Override
+        public String toString() {
+            return "%s: %d успешных ответов, %.0f запросов/с, пик потоков %d"
+                .formatted(model, succeeded, throughput, peakThreads);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package ru.anikeeva.finance.repositories.budget;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.services.imports.TransactionFingerprints;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Currency;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class TransactionPartitionRepositoryTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static TransactionPartitionRepository partitionRepository;
+
+    @BeforeAll
+    public static void migrate() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(),
+            postgres.getUsername(), postgres.getPassword());
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        partitionRepository = new TransactionPartitionRepository(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Транзакция с датой за горизонтом секций переносится в новую секцию из секции по умолчанию")
+    public void createPartitionMovesFutureRowsOutOfDefaultPartition() {
+        partitionRepository.swapToPartitioned();
+        YearMonth month = YearMonth.now().plusMonths(6);
+        UUID userId = UUID.randomUUID();
+        UUID transactionId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, is_enabled, is_email_active, " +
+            "is_mailing_agree) VALUES (?, 'partition-user', 'password', 'USER', true, true, true)", userId);
+        jdbcTemplate.update("INSERT INTO transaction (id, user_id, type, category, initial_amount, " +
+            "initial_currency, amount_in_base_currency, date_time) VALUES (?, ?, 'EXPENSE', 'CAFE', 500, 'RUB', 500, " +
+            "?)",
+            transactionId, userId, month.atDay(15).atTime(12, 0));
+        assertEquals(1, count("transaction_default"));
+
+        int moved = transactionTemplate.execute(status -> {
+            assertTrue(partitionRepository.tryLockMaintenance(5000));
+            return partitionRepository.createPartition(TransactionPartitionRepository.TABLE, month);
+        });
+
+        String partition = TransactionPartitionRepository.partitionName(month);
+        assertEquals(1, moved);
+        assertEquals(0, count("transaction_default"));
+        assertEquals(1, count(partition));
+        assertTrue(partitionRepository.findPartitions(TransactionPartitionRepository.TABLE).contains(partition));
+        assertEquals(transactionId, jdbcTemplate.queryForObject("SELECT id FROM transaction WHERE user_id = ?",
+            UUID.class, userId));
+    }
+
+    @Test
+    @DisplayName("Отпечатки импортов заполняются пакетами, повтор из другого импорта остается пустым")
+    public void backfillFingerprintsNumbersRepeatsPerImport() {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime dateTime = YearMonth.now().atDay(1).atTime(12, 0);
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, is_enabled, is_email_active, " +
+            "is_mailing_agree) VALUES (?, 'fingerprint-user', 'password', 'USER', true, true, true)", userId);
+        UUID first = new UUID(1L, 1L);
+        UUID repeat = new UUID(1L, 2L);
+        UUID reimported = new UUID(1L, 3L);
+        insertImported(first, userId, 1L, dateTime);
+        insertImported(repeat, userId, 1L, dateTime);
+        insertImported(reimported, userId, 2L, dateTime);
+
+        UUID cursor = new UUID(0L, 0L);
+        while (cursor != null) cursor = partitionRepository.backfillFingerprints(cursor, 1);
+
+        TransactionFingerprints fingerprints = new TransactionFingerprints();
+        Transaction transaction = Transaction.builder()
+            .type(ETransactionType.EXPENSE)
+            .initialAmount(new BigDecimal("10.00"))
+            .initialCurrency(Currency.getInstance("RUB"))
+            .dateTime(dateTime)
+            .description("Coffee  Shop")
+            .build();
+        assertEquals(fingerprints.next(transaction), fingerprint(first));
+        assertEquals(fingerprints.next(transaction), fingerprint(repeat));
+        assertNull(fingerprint(reimported));
+    }
+
+    private static void insertImported(final UUID id, final UUID userId, final long jobId,
+                                       final LocalDateTime dateTime) {
+        jdbcTemplate.update("INSERT INTO transaction (id, user_id, type, category, initial_amount, " +
+            "initial_currency, amount_in_base_currency, date_time, description, job_id) " +
+            "VALUES (?, ?, 'EXPENSE', 'CAFE', 10, 'RUB', 10, ?, ' Coffee  Shop ', ?)",
+            id, userId, dateTime, jobId);
+    }
+
+    private static String fingerprint(final UUID id) {
+        return jdbcTemplate.queryForObject("SELECT fingerprint FROM transaction WHERE id = ?", String.class, id);
+    }
+
+    private static long count(final String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+    }
+}
@@ -0,0 +1,112 @@
+package ru.anikeeva.finance.repositories.common;
+
+import jakarta.persistence.EntityManager;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.anikeeva.finance.entities.budget.CurrencyRate;
+import ru.anikeeva.finance.entities.enums.ECurrencySource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BulkPersistenceRepositoryTest {
+    private static final int BATCH_SIZE = 50;
+    private static final int ENTITY_COUNT = 1000;
+
+    private final Map<String, AtomicInteger> roundTrips = new ConcurrentHashMap<>();
+    private SessionFactory sessionFactory;
+
+    @BeforeEach
+    public void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:bulk;DB_CLOSE_DELAY=-1");
+        Configuration configuration = new Configuration()
+            .addAnnotatedClass(CurrencyRate.class)
+            .setProperty(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+            .setProperty(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(BATCH_SIZE))
+            .setProperty(AvailableSettings.ORDER_INSERTS, "true")
+            .setProperty(AvailableSettings.ORDER_UPDATES, "true");
+        configuration.getProperties().put(AvailableSettings.DATASOURCE, counting(h2));
+        sessionFactory = configuration.buildSessionFactory();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    @DisplayName("Сохранение 1000 сущностей выполняется пакетами без предварительных SELECT")
+    public void persistAllUsesBatchedInserts() {
+        List<CurrencyRate> rates = new ArrayList<>();
+        for (int i = 0; i < ENTITY_COUNT; i++) {
+            rates.add(CurrencyRate.builder()
+                .currency(Currency.getInstance("USD"))
+                .name("Доллар США " + i)
+                .valueInRelationToBaseCurrency(new BigDecimal("90.500000"))
+                .source(ECurrencySource.CENTRAL_BANK)
+                .build());
+        }
+        roundTrips.clear();
+
+        try (EntityManager entityManager = sessionFactory.createEntityManager()) {
+            entityManager.getTransaction().begin();
+            int persisted = new BulkPersistenceRepository(entityManager, BATCH_SIZE).persistAll(rates);
+            entityManager.getTransaction().commit();
+            assertEquals(ENTITY_COUNT, persisted);
+        }
+
+        assertEquals(Map.of("executeBatch", ENTITY_COUNT / BATCH_SIZE), snapshot());
+        assertTrue(rates.stream().allMatch(rate -> rate.getId() != null && rate.getId().version() == 7));
+    }
+
+    private Map<String, Integer> snapshot() {
+        Map<String, Integer> result = new ConcurrentHashMap<>();
+        roundTrips.forEach((method, count) -> result.put(method, count.get()));
+        return result;
+    }
+
+    private DataSource counting(final DataSource target) {
+        return proxy(DataSource.class, target);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(final Class<T> type, final T target) {
+        return (T) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+            (instance, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    roundTrips.computeIfAbsent(method.getName(), name -> new AtomicInteger()).incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection) return proxy(Connection.class, connection);
+                if (result instanceof PreparedStatement statement) return proxy(PreparedStatement.class, statement);
+                if (result instanceof Statement statement) return proxy(Statement.class, statement);
+                return result;
+            });
+    }
+}
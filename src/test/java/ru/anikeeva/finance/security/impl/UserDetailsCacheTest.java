@@ -0,0 +1,92 @@
+package ru.anikeeva.finance.security.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class UserDetailsCacheTest {
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private UserDetailsCache userDetailsCache;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() {
+        userDetailsCache = new UserDetailsCache(redisTemplate, listenerContainer, 2, 60);
+        loads.set(0);
+    }
+
+    @Test
+    @DisplayName("Повторное получение пользователя берется из кэша")
+    public void getReturnsCachedUserDetails() {
+        UserDetailsImpl first = userDetailsCache.get("username", this::load);
+        UserDetailsImpl second = userDetailsCache.get("username", this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Инвалидация удаляет пользователя из кэша и рассылается другим узлам")
+    public void invalidateEvictsAndPublishes() {
+        userDetailsCache.get("username", this::load);
+        userDetailsCache.invalidate("username");
+        userDetailsCache.get("username", this::load);
+
+        assertEquals(2, loads.get());
+        verify(redisTemplate).convertAndSend("user-details-invalidation", "username");
+        verify(listenerContainer).addMessageListener(any(), any(Topic.class));
+    }
+
+    @Test
+    @DisplayName("Инвалидация работает локально при недоступном Redis")
+    public void invalidateWorksWithoutRedis() {
+        doThrow(new RuntimeException("Redis недоступен")).when(redisTemplate)
+            .convertAndSend(eq("user-details-invalidation"), anyString());
+        userDetailsCache.get("username", this::load);
+        userDetailsCache.invalidate("username");
+        userDetailsCache.get("username", this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Кэш не растет сверх максимального размера")
+    public void getDoesNotCacheBeyondMaxSize() {
+        userDetailsCache.get("first", this::load);
+        userDetailsCache.get("second", this::load);
+        userDetailsCache.get("third", this::load);
+        userDetailsCache.get("third", this::load);
+
+        assertEquals(4, loads.get());
+    }
+
+    private UserDetailsImpl load(final String username) {
+        loads.incrementAndGet();
+        return new UserDetailsImpl(UUID.randomUUID(), username, "password", new SimpleGrantedAuthority("USER"), true);
+    }
+}
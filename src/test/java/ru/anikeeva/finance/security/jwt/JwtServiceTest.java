@@ -0,0 +1,72 @@
+package ru.anikeeva.finance.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.anikeeva.finance.entities.enums.ERole;
+import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JwtServiceTest {
+    private final JwtService jwtService = new JwtService();
+
+    private final UserDetailsImpl userDetails = new UserDetailsImpl(UUID.randomUUID(), "username", "password",
+        new SimpleGrantedAuthority(ERole.USER.name()), true);
+
+    @Test
+    @DisplayName("Проверка выпущенного токена возвращает его данные")
+    public void verifyIssuedToken() {
+        String token = jwtService.generateAccessToken(userDetails);
+
+        JwtClaims claims = jwtService.verifyToken(token);
+
+        assertNotNull(claims);
+        assertEquals("username", claims.username());
+        assertFalse(claims.isExpired());
+        assertTrue(jwtService.validateClaims(claims, userDetails));
+        assertTrue(jwtService.validateToken(token, userDetails));
+    }
+
+    @Test
+    @DisplayName("Повторная проверка токена использует кэш проверенных токенов")
+    public void verifyTokenTwiceReturnsCachedClaims() {
+        String token = jwtService.generateAccessToken(userDetails);
+
+        assertSame(jwtService.verifyToken(token), jwtService.verifyToken(token));
+    }
+
+    @Test
+    @DisplayName("Токен с измененной подписью не проходит проверку")
+    public void verifyTamperedToken() {
+        String token = jwtService.generateAccessToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtService.verifyToken(tampered));
+    }
+
+    @Test
+    @DisplayName("Токен, выпущенный другим ключом, не проходит проверку")
+    public void verifyTokenFromAnotherKey() {
+        String foreignToken = new JwtService().generateAccessToken(userDetails);
+
+        assertNull(jwtService.verifyToken(foreignToken));
+    }
+
+    @Test
+    @DisplayName("Токен другого пользователя не проходит валидацию")
+    public void validateTokenOfAnotherUser() {
+        String token = jwtService.generateAccessToken(userDetails);
+        UserDetailsImpl anotherUser = new UserDetailsImpl(UUID.randomUUID(), "another", "password",
+            new SimpleGrantedAuthority(ERole.USER.name()), true);
+
+        assertFalse(jwtService.validateToken(token, anotherUser));
+    }
+}
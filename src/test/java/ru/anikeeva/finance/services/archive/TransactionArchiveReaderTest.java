@@ -0,0 +1,109 @@
+package ru.anikeeva.finance.services.archive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionArchiveReaderTest {
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Записанные в архив транзакции читаются без потерь")
+    public void readReturnsWrittenTransactions() throws Exception {
+        Transaction salary = transaction(ETransactionType.INCOME, ETransactionCategory.SALARY, "75000.00",
+            LocalDateTime.of(2021, 3, 5, 10, 15, 30, 123_456_000), "Зарплата за февраль");
+        Transaction food = transaction(ETransactionType.EXPENSE, ETransactionCategory.FOOD, "1250.50",
+            LocalDateTime.of(2021, 1, 2, 18, 0), null);
+        Path file = directory.resolve("2021.ftx");
+
+        TransactionArchiveWriter.write(file, List.of(salary, food));
+        List<Transaction> rows = TransactionArchiveReader.open(file).read(null, null, null);
+
+        assertEquals(2, rows.size());
+        Transaction first = rows.getFirst();
+        assertEquals(food.getId(), first.getId());
+        assertEquals(food.getDateTime(), first.getDateTime());
+        assertEquals(new BigDecimal("1250.50"), first.getInitialAmount());
+        assertNull(first.getDescription());
+        Transaction second = rows.get(1);
+        assertEquals(salary.getId(), second.getId());
+        assertEquals(salary.getDateTime(), second.getDateTime());
+        assertEquals(ETransactionCategory.SALARY, second.getCategory());
+        assertEquals(Currency.getInstance("RUB"), second.getInitialCurrency());
+        assertEquals("Зарплата за февраль", second.getDescription());
+    }
+
+    @Test
+    @DisplayName("Чтение архива фильтрует по периоду и типу")
+    public void readFiltersByPeriodAndType() throws Exception {
+        Transaction january = transaction(ETransactionType.EXPENSE, ETransactionCategory.FOOD, "100.00",
+            LocalDateTime.of(2021, 1, 10, 12, 0), "Продукты");
+        Transaction february = transaction(ETransactionType.EXPENSE, ETransactionCategory.CAFE, "200.00",
+            LocalDateTime.of(2021, 2, 10, 12, 0), "Кафе");
+        Transaction income = transaction(ETransactionType.INCOME, ETransactionCategory.SALARY, "300.00",
+            LocalDateTime.of(2021, 2, 15, 12, 0), "Зарплата");
+        Path file = directory.resolve("2021.ftx");
+        TransactionArchiveWriter.write(file, List.of(january, february, income));
+        TransactionArchiveReader reader = TransactionArchiveReader.open(file);
+
+        List<Transaction> rows = reader.read(LocalDateTime.of(2021, 2, 1, 0, 0),
+            LocalDateTime.of(2021, 2, 28, 23, 59), ETransactionType.EXPENSE);
+
+        assertEquals(List.of(february.getId()), rows.stream().map(Transaction::getId).toList());
+        assertEquals(income.getId(), reader.findById(income.getId()).orElseThrow().getId());
+        assertTrue(reader.findById(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Архив сохраняет идентификатор импорта и отпечаток транзакции")
+    public void readReturnsJobIdAndFingerprint() throws Exception {
+        Transaction imported = transaction(ETransactionType.EXPENSE, ETransactionCategory.FOOD, "100.00",
+            LocalDateTime.of(2021, 1, 10, 12, 0), "Продукты");
+        imported.setJobId(42L);
+        imported.setFingerprint("ab".repeat(32));
+        Transaction manual = transaction(ETransactionType.EXPENSE, ETransactionCategory.CAFE, "200.00",
+            LocalDateTime.of(2021, 2, 10, 12, 0), "Кафе");
+        Path file = directory.resolve("2021.ftx");
+        TransactionArchiveWriter.write(file, List.of(imported, manual));
+        TransactionArchiveReader reader = TransactionArchiveReader.open(file);
+
+        Transaction restored = reader.findById(imported.getId()).orElseThrow();
+        assertEquals(42L, restored.getJobId());
+        assertEquals("ab".repeat(32), restored.getFingerprint());
+        assertNull(reader.findById(manual.getId()).orElseThrow().getFingerprint());
+        assertEquals(List.of("ab".repeat(32)), reader.readFingerprints(LocalDateTime.of(2021, 1, 1, 0, 0),
+            LocalDateTime.of(2021, 12, 31, 23, 59)));
+        assertEquals(List.of(), reader.readFingerprints(LocalDateTime.of(2021, 2, 1, 0, 0),
+            LocalDateTime.of(2021, 12, 31, 23, 59)));
+    }
+
+    private static Transaction transaction(final ETransactionType type, final ETransactionCategory category,
+                                           final String amount, final LocalDateTime dateTime,
+                                           final String description) {
+        return Transaction.builder()
+            .id(UUID.randomUUID())
+            .type(type)
+            .category(category)
+            .initialAmount(new BigDecimal(amount))
+            .initialCurrency(Currency.getInstance("RUB"))
+            .amountInBaseCurrency(new BigDecimal(amount))
+            .dateTime(dateTime)
+            .description(description)
+            .build();
+    }
+}
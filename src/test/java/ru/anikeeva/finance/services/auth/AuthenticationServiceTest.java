@@ -245,7 +245,7 @@ public class AuthenticationServiceTest {
         String username = "username";
         Cookie[] cookies = new Cookie[]{ new Cookie("refreshToken", refreshToken) };
         User user = new User(UUID.randomUUID(), "username", null, "password", ERole.USER,
-            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false);
+            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false, 0L);
 
         when(httpServletRequest.getCookies()).thenReturn(cookies);
         when(jwtService.extractUsername(refreshToken)).thenReturn(username);
@@ -270,7 +270,7 @@ public class AuthenticationServiceTest {
         String username = "username";
         Cookie[] cookies = new Cookie[]{ new Cookie("refreshToken", refreshToken) };
         User user = new User(UUID.randomUUID(), "username", null, "password", ERole.USER,
-            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false);
+            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false, 0L);
 
         when(httpServletRequest.getCookies()).thenReturn(cookies);
         when(jwtService.extractUsername(refreshToken)).thenReturn(username);
@@ -295,7 +295,7 @@ public class AuthenticationServiceTest {
         String username = "username";
         Cookie[] cookies = new Cookie[]{ new Cookie("refreshToken", refreshToken) };
         User user = new User(UUID.randomUUID(), "username", null, "password", ERole.USER,
-            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false);
+            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false, 0L);
 
         when(httpServletRequest.getCookies()).thenReturn(cookies);
         when(jwtService.extractUsername(refreshToken)).thenReturn(username);
@@ -320,7 +320,7 @@ public class AuthenticationServiceTest {
         String username = "username";
         Cookie[] cookies = new Cookie[]{ new Cookie("refreshToken", refreshToken) };
         User user = new User(UUID.randomUUID(), "username", null, "password", ERole.USER,
-            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false);
+            BigDecimal.ZERO, Currency.getInstance("RUB"), true, false, false, 0L);
 
         when(httpServletRequest.getCookies()).thenReturn(cookies);
         when(jwtService.extractUsername(refreshToken)).thenReturn(username);
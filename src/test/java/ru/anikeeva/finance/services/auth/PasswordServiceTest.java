@@ -51,7 +51,7 @@ public class PasswordServiceTest {
         String expectedEncodedNewPassword = "encodedNewPassword";
         GrantedAuthority grantedAuthority = new SimpleGrantedAuthority(ERole.USER.name());
         User user = new User(uuid, username, null, oldPassword, ERole.USER, BigDecimal.ZERO,
-            Currency.getInstance("RUB"), true, false, false);
+            Currency.getInstance("RUB"), true, false, false, 0L);
         UserDetailsImpl currentUser = new UserDetailsImpl(uuid, username, oldPassword, grantedAuthority, true);
         ChangePasswordRequest request = new ChangePasswordRequest(oldPassword, newPassword, confirmPassword);
 
@@ -77,7 +77,7 @@ public class PasswordServiceTest {
         String expectedExceptionMessage = "Старый пароль неверен";
         GrantedAuthority grantedAuthority = new SimpleGrantedAuthority(ERole.USER.name());
         User user = new User(uuid, username, null, oldPassword, ERole.USER, BigDecimal.ZERO,
-            Currency.getInstance("RUB"), true, false, false);
+            Currency.getInstance("RUB"), true, false, false, 0L);
         UserDetailsImpl currentUser = new UserDetailsImpl(uuid, username, oldPassword, grantedAuthority, true);
         ChangePasswordRequest request = new ChangePasswordRequest(incorrectOldPassword, newPassword, confirmPassword);
 
@@ -497,7 +497,45 @@ public class BudgetServiceTest {
             });
         budgetService.checkBudgetNotExceeded(user, category, amount);
 
+        verify(notificationService, times(0)).sendBudgetWarning(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("Уведомление о прохождении порога лимита после создания транзакции")
+    public void notifyBudgetUsageWhenPassingLimitThreshold() {
+        TestBudgetData budgetData = new TestBudgetData();
+        User user = budgetData.firstUser;
+        ETransactionCategory category = budgetData.firstBudgetCategory;
+
+        when(budgetRepository.findAllByUserAndCategory(user, category)).thenReturn(List.of(budgetData.fifthBudget));
+        when(transactionRepository.findAllByUserAndCategoryAndDateTimeBetween(eq(user), eq(category), any(), any()))
+            .thenAnswer(invocation -> {
+                Transaction t = new Transaction();
+                t.setInitialAmount(BigDecimal.valueOf(4200));
+                return List.of(t);
+            });
+        budgetService.notifyBudgetUsage(user, category);
+
         verify(notificationService, atLeastOnce()).sendBudgetWarning(eq(user.getId().toString()),
             any(BudgetNotification.class));
     }
+
+    @Test
+    @DisplayName("Отсутствие уведомления, если порог лимита не достигнут")
+    public void notifyBudgetUsageWhenBelowLimitThreshold() {
+        TestBudgetData budgetData = new TestBudgetData();
+        User user = budgetData.firstUser;
+        ETransactionCategory category = budgetData.firstBudgetCategory;
+
+        when(budgetRepository.findAllByUserAndCategory(user, category)).thenReturn(List.of(budgetData.fifthBudget));
+        when(transactionRepository.findAllByUserAndCategoryAndDateTimeBetween(eq(user), eq(category), any(), any()))
+            .thenAnswer(invocation -> {
+                Transaction t = new Transaction();
+                t.setInitialAmount(BigDecimal.valueOf(1200));
+                return List.of(t);
+            });
+        budgetService.notifyBudgetUsage(user, category);
+
+        verify(notificationService, times(0)).sendBudgetWarning(anyString(), any());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,144 @@
+package ru.anikeeva.finance.services.budget;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.anikeeva.finance.repositories.budget.TransactionPartitionRepository;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionPartitionServiceTest {
+    private TransactionPartitionRepository partitionRepository;
+    private TransactionPartitionService partitionService;
+
+    @BeforeEach
+    public void setUp() {
+        partitionRepository = mock(TransactionPartitionRepository.class);
+        partitionService = new TransactionPartitionService(partitionRepository, 2, 12, 1000, 100, 5000);
+        when(partitionRepository.tryLockMaintenance(5000)).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("Создаются только отсутствующие будущие секции")
+    public void createFuturePartitionsCreatesMissingMonths() {
+        YearMonth current = YearMonth.of(2025, 11);
+        when(partitionRepository.isMigrationPending()).thenReturn(false);
+        when(partitionRepository.findPartitions("transaction"))
+            .thenReturn(List.of("transaction_default", "transaction_p2025_11"));
+
+        int created = partitionService.createFuturePartitions(current);
+
+        assertEquals(2, created);
+        verify(partitionRepository).createPartition("transaction", YearMonth.of(2025, 12));
+        verify(partitionRepository).createPartition("transaction", YearMonth.of(2026, 1));
+        verify(partitionRepository, never()).createPartition("transaction", current);
+    }
+
+    @Test
+    @DisplayName("До завершения переноса секции создаются в новой таблице")
+    public void createFuturePartitionsTargetsPartitionedTableDuringMigration() {
+        when(partitionRepository.isMigrationPending()).thenReturn(true);
+        when(partitionRepository.findPartitions("transaction_partitioned")).thenReturn(List.of());
+
+        partitionService.createFuturePartitions(YearMonth.of(2025, 11));
+
+        verify(partitionRepository).createPartition("transaction_partitioned", YearMonth.of(2025, 11));
+    }
+
+    @Test
+    @DisplayName("Перенос продолжается с последнего скопированного идентификатора")
+    public void migrateBatchAdvancesCursor() {
+        UUID lastId = UUID.randomUUID();
+        when(partitionRepository.isMigrationPending()).thenReturn(true);
+        when(partitionRepository.copyBatchToPartitioned(new UUID(0L, 0L), 1000)).thenReturn(lastId);
+        when(partitionRepository.copyBatchToPartitioned(lastId, 1000)).thenReturn(null);
+
+        assertTrue(partitionService.migrateBatch());
+        assertFalse(partitionService.migrateBatch());
+
+        verify(partitionRepository).swapToPartitioned();
+    }
+
+    @Test
+    @DisplayName("Без незавершенного переноса таблица не переключается")
+    public void migrateBatchDoesNothingWhenMigrated() {
+        when(partitionRepository.isMigrationPending()).thenReturn(false);
+
+        assertFalse(partitionService.migrateBatch());
+
+        verify(partitionRepository, never()).copyBatchToPartitioned(any(), anyInt());
+        verify(partitionRepository, never()).swapToPartitioned();
+    }
+
+    @Test
+    @DisplayName("Отпечатки заполняются пакетами пользователей до конца списка, затем задача больше не запускается")
+    public void backfillFingerprintBatchAdvancesCursorUntilDone() {
+        UUID lastUserId = UUID.randomUUID();
+        when(partitionRepository.backfillFingerprints(new UUID(0L, 0L), 100)).thenReturn(lastUserId);
+        when(partitionRepository.backfillFingerprints(lastUserId, 100)).thenReturn(null);
+
+        assertTrue(partitionService.backfillFingerprintBatch());
+        assertFalse(partitionService.backfillFingerprintBatch());
+        assertFalse(partitionService.backfillFingerprintBatch());
+
+        verify(partitionRepository, times(2)).backfillFingerprints(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Отсоединяются только секции старше срока хранения")
+    public void detachExpiredPartitionsDetachesOldMonths() {
+        when(partitionRepository.isMigrationPending()).thenReturn(false);
+        when(partitionRepository.findPartitions("transaction")).thenReturn(List.of("transaction_default",
+            "transaction_p2024_09", "transaction_p2024_10", "transaction_p2024_11"));
+        when(partitionRepository.detachPartition(anyString(), eq(5000L))).thenReturn(true);
+
+        int detached = partitionService.detachExpiredPartitions(YearMonth.of(2025, 11));
+
+        assertEquals(2, detached);
+        verify(partitionRepository).detachPartition("transaction_p2024_09", 5000);
+        verify(partitionRepository).detachPartition("transaction_p2024_10", 5000);
+        verify(partitionRepository, never()).detachPartition(eq("transaction_p2024_11"), anyLong());
+        verify(partitionRepository, never()).detachPartition(eq("transaction_default"), anyLong());
+        verify(partitionRepository, never()).tryLockMaintenance(anyLong());
+    }
+
+    @Test
+    @DisplayName("Отсоединение секций прекращается, если обслуживание выполняет другой узел")
+    public void detachExpiredPartitionsStopsWhenMaintenanceLocked() {
+        when(partitionRepository.isMigrationPending()).thenReturn(false);
+        when(partitionRepository.findPartitions("transaction")).thenReturn(List.of("transaction_p2024_09",
+            "transaction_p2024_10"));
+        when(partitionRepository.detachPartition("transaction_p2024_09", 5000)).thenReturn(false);
+
+        assertEquals(0, partitionService.detachExpiredPartitions(YearMonth.of(2025, 11)));
+
+        verify(partitionRepository, never()).detachPartition(eq("transaction_p2024_10"), anyLong());
+    }
+
+    @Test
+    @DisplayName("При отключенном сроке хранения секции не отсоединяются")
+    public void detachExpiredPartitionsDisabled() {
+        TransactionPartitionService service = new TransactionPartitionService(partitionRepository, 2, 0, 1000, 100,
+            5000);
+
+        assertEquals(0, service.detachExpiredPartitions(YearMonth.of(2025, 11)));
+
+        verify(partitionRepository, never()).detachPartition(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,151 @@
+package ru.anikeeva.finance.services.budget;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
+import ru.anikeeva.finance.services.imports.StatementFormat;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+import ru.anikeeva.finance.services.imports.TransactionDuplicateFilter;
+import ru.anikeeva.finance.services.imports.TransactionFilePartitioner;
+import ru.anikeeva.finance.services.user.UserService;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionProcessorTest {
+    private final UUID userId = UUID.randomUUID();
+    private final UserService userService = mock(UserService.class);
+    private final CurrencyRateService currencyRateService = mock(CurrencyRateService.class);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Пользователь и курсы загружаются один раз на шаг, конвертация выполняется в памяти")
+    public void processUsesStepSnapshot() throws Exception {
+        User user = User.builder().id(userId).baseCurrency(Currency.getInstance("EUR")).build();
+        when(userService.findUserById(userId)).thenReturn(user);
+        when(currencyRateService.getCurrencyRateSnapshot(anyCollection())).thenReturn(new CurrencyRateSnapshot(Map.of(
+            Currency.getInstance("USD"), new BigDecimal("90.00"),
+            Currency.getInstance("EUR"), new BigDecimal("100.00"))));
+        TransactionProcessor processor = new TransactionProcessor(userId.toString(), userService, currencyRateService,
+            null);
+        JobExecution jobExecution = new JobExecution(new JobInstance(42L, "importJob"), 7L, new JobParameters());
+        processor.beforeStep(new StepExecution("importWorkerStep", jobExecution));
+
+        Transaction usd = null;
+        for (int i = 0; i < 100; i++) {
+            usd = processor.process(new TransactionImportDto("EXPENSE", "food", new BigDecimal("10.00"), "usd",
+                LocalDateTime.of(2024, 1, 1, 10, 0), "Покупка"));
+        }
+        Transaction eur = processor.process(new TransactionImportDto("INCOME", "salary", new BigDecimal("50.00"),
+            "EUR", LocalDateTime.of(2024, 1, 2, 10, 0), "Зарплата"));
+
+        assertEquals(new BigDecimal("9.00"), usd.getAmountInBaseCurrency());
+        assertEquals(new BigDecimal("50.00"), eur.getAmountInBaseCurrency());
+        assertEquals(42L, usd.getJobId());
+        assertEquals(userId, usd.getUser().getId());
+        verify(userService, times(1)).findUserById(userId);
+        verify(currencyRateService, times(1)).getCurrencyRateSnapshot(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Повторы одной строки нумеруются по всему файлу независимо от разбиения и перезапуска")
+    public void fingerprintsNumberRepeatsAcrossPartitions() throws Exception {
+        when(userService.findUserById(userId))
+            .thenReturn(User.builder().id(userId).baseCurrency(Currency.getInstance("RUB")).build());
+        when(currencyRateService.getCurrencyRateSnapshot(anyCollection())).thenReturn(new CurrencyRateSnapshot(Map.of(
+            Currency.getInstance("RUB"), BigDecimal.ONE)));
+        StringBuilder csv = new StringBuilder("type,category,initialAmount,initialCurrency,dateTime,description\n");
+        for (int i = 0; i < 60; i++) {
+            csv.append(i % 3 == 0
+                ? "EXPENSE,food,10.00,RUB,2024-01-01T10:00:00,Кофе\n"
+                : "EXPENSE,food," + i + ".00,RUB,2024-01-01T10:00:00,Покупка " + i + "\n");
+            if (i == 30) csv.append("EXPENSE,food,-1.00,RUB,2024-01-01T10:00:00,Ошибка\n");
+        }
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        TransactionProcessor keys = new TransactionProcessor(userId.toString(), userService, currencyRateService, null);
+        keys.prepare(null);
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file, 256, keys::fingerprintKey)
+            .partition(4);
+
+        List<String> whole = fingerprints(file, new ExecutionContext(Map.of(
+            TransactionFilePartitioner.START_KEY, 0L, TransactionFilePartitioner.END_KEY, Files.size(file))));
+        List<String> partitioned = new ArrayList<>();
+        for (ExecutionContext partition : partitions.values()) partitioned.addAll(fingerprints(file, partition));
+        ExecutionContext restarted = new ExecutionContext(partitions.get("partition2"));
+        restarted.putInt("transactionItemReader.read.count", 5);
+        List<String> resumed = fingerprints(file, restarted);
+
+        assertEquals(4, partitions.size());
+        assertTrue(TransactionFilePartitioner.occurrencesOf(partitions.get("partition0")).isEmpty());
+        assertEquals(1, TransactionFilePartitioner.occurrencesOf(partitions.get("partition3")).size());
+        assertEquals(60, whole.size());
+        assertEquals(60, new HashSet<>(whole).size());
+        assertEquals(whole, partitioned);
+        assertTrue(resumed.size() > 0);
+        assertEquals(whole.subList(whole.indexOf(resumed.getFirst()), whole.indexOf(resumed.getFirst()) +
+            resumed.size()), resumed);
+    }
+
+    private List<String> fingerprints(final Path file, final ExecutionContext stepContext) throws Exception {
+        long start = stepContext.getLong(TransactionFilePartitioner.START_KEY);
+        long end = stepContext.getLong(TransactionFilePartitioner.END_KEY);
+        TransactionProcessor processor = new TransactionProcessor(userId.toString(), userService,
+            currencyRateService, new TransactionDuplicateFilter(mock(TransactionBatchRepository.class),
+            mock(TransactionArchiveService.class), file, start, end, 0.01));
+        JobExecution jobExecution = new JobExecution(new JobInstance(42L, "importJob"), 7L, new JobParameters());
+        StepExecution stepExecution = new StepExecution("importWorkerStep", jobExecution);
+        stepExecution.setExecutionContext(stepContext);
+        processor.beforeStep(stepExecution);
+        List<String> result = new ArrayList<>();
+        ItemStreamReader<TransactionImportDto> reader = StatementFormat.reader(file, start, end);
+        reader.open(stepContext);
+        try {
+            while (true) {
+                TransactionImportDto item;
+                try {
+                    item = reader.read();
+                } catch (Exception e) {
+                    continue;
+                }
+                if (item == null) break;
+                try {
+                    result.add(processor.process(item).getFingerprint());
+                } catch (Exception ignored) {
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return result;
+    }
+}
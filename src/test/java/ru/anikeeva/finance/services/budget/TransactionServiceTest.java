@@ -10,27 +10,41 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import ru.anikeeva.finance.dto.budget.CreateTransactionBatchResponse;
 import ru.anikeeva.finance.dto.budget.CreateTransactionRequest;
 import ru.anikeeva.finance.dto.budget.CreateTransactionResponse;
 import ru.anikeeva.finance.dto.budget.TransactionResponse;
+import ru.anikeeva.finance.dto.budget.TransactionSearchRequest;
+import ru.anikeeva.finance.dto.budget.TransactionSliceResponse;
 import ru.anikeeva.finance.dto.budget.UpdateTransactionRequest;
 import ru.anikeeva.finance.entities.budget.CurrencyRate;
 import ru.anikeeva.finance.entities.budget.Transaction;
 import ru.anikeeva.finance.entities.enums.ECurrencySource;
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
 import ru.anikeeva.finance.entities.enums.ERole;
 import ru.anikeeva.finance.entities.enums.ETransactionCategory;
 import ru.anikeeva.finance.entities.enums.ETransactionType;
 import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.exceptions.BadDataException;
 import ru.anikeeva.finance.exceptions.EmptyRequestException;
 import ru.anikeeva.finance.exceptions.EntityNotFoundException;
 import ru.anikeeva.finance.exceptions.InsufficientFundsException;
 import ru.anikeeva.finance.exceptions.NoRightsException;
 import ru.anikeeva.finance.mappers.TransactionMapper;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
 import ru.anikeeva.finance.repositories.budget.TransactionRepository;
+import ru.anikeeva.finance.repositories.budget.TransactionSearchRepository;
 import ru.anikeeva.finance.repositories.user.UserRepository;
 import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+import ru.anikeeva.finance.services.ledger.LedgerService;
+import ru.anikeeva.finance.services.outbox.OutboxService;
 import ru.anikeeva.finance.services.user.UserService;
 
 import java.math.BigDecimal;
@@ -39,17 +53,24 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -78,6 +99,21 @@ public class TransactionServiceTest {
     @Mock
     private BudgetService budgetService;
 
+    @Mock
+    private TransactionBatchRepository transactionBatchRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private TransactionSearchRepository transactionSearchRepository;
+
+    @Mock
+    private TransactionArchiveService transactionArchiveService;
+
     private static class TestTransactionData {
         UUID firstTransactionId = UUID.randomUUID();
         UUID secondTransactionId = UUID.randomUUID();
@@ -246,13 +282,67 @@ public class TransactionServiceTest {
 
         when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
         doNothing().when(budgetService).checkBudgetNotExceeded(user, category, initialAmount);
+        when(userRepository.withdrawBalance(user.getId(), initialAmount)).thenReturn(1);
         when(transactionMapper.toTransaction(request)).thenReturn(createdTransaction);
         CreateTransactionResponse actualResponse = transactionService.createTransaction(currentUser, request);
 
         assertEquals(expectedResponse.isSuccess(), actualResponse.isSuccess());
         verify(transactionMapper).toTransaction(request);
         verify(transactionRepository).save(any(Transaction.class));
-        verify(userRepository).save(any(User.class));
+        verify(ledgerService).recordTransaction(any(Transaction.class));
+        verify(outboxService).publish(eq(EOutboxEventType.TRANSACTION_CREATED), any(Transaction.class));
+        verify(userRepository).withdrawBalance(user.getId(), initialAmount);
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Создание транзакции дохода увеличивает баланс атомарно")
+    public void createIncomeTransactionAppliesBalanceDelta() {
+        TestTransactionData transactionData = new TestTransactionData();
+        User user = transactionData.firstUser;
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        BigDecimal initialAmount = BigDecimal.valueOf(3000);
+        CreateTransactionRequest request = new CreateTransactionRequest(ETransactionType.INCOME,
+            ETransactionCategory.SALARY, initialAmount, transactionData.rubCurrency,
+            LocalDateTime.of(2025, 8, 1, 10, 20), null);
+
+        when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(transactionMapper.toTransaction(request)).thenReturn(new Transaction());
+        transactionService.createTransaction(currentUser, request);
+
+        verify(userRepository).updateBalance(user.getId(), initialAmount);
+        verify(userRepository, never()).withdrawBalance(any(UUID.class), any(BigDecimal.class));
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    @DisplayName("Изменение баланса передается в БД дельтой без чтения и сохранения пользователя")
+    public void createTransactionsIssueBalanceDeltas() {
+        TestTransactionData transactionData = new TestTransactionData();
+        User user = transactionData.firstUser;
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        BigDecimal initialBalance = user.getBalance();
+        BigDecimal income = BigDecimal.valueOf(700);
+        BigDecimal expense = BigDecimal.valueOf(300);
+        CreateTransactionRequest incomeRequest = new CreateTransactionRequest(ETransactionType.INCOME,
+            ETransactionCategory.OTHER_INCOME, income, transactionData.rubCurrency,
+            LocalDateTime.of(2025, 8, 1, 10, 20), null);
+        CreateTransactionRequest expenseRequest = new CreateTransactionRequest(ETransactionType.EXPENSE,
+            ETransactionCategory.OTHER_INCOME, expense, transactionData.rubCurrency,
+            LocalDateTime.of(2025, 8, 1, 10, 25), null);
+
+        when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(transactionMapper.toTransaction(any(CreateTransactionRequest.class)))
+            .thenAnswer(invocation -> new Transaction());
+        when(userRepository.withdrawBalance(user.getId(), expense)).thenReturn(1);
+        transactionService.createTransaction(currentUser, incomeRequest);
+        transactionService.createTransaction(currentUser, expenseRequest);
+
+        verify(userRepository).updateBalance(user.getId(), income);
+        verify(userRepository).withdrawBalance(user.getId(), expense);
+        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).lockBalance(any(UUID.class));
+        assertEquals(initialBalance, user.getBalance());
     }
 
     @Test
@@ -271,10 +361,116 @@ public class TransactionServiceTest {
         String expectedExceptionMessage = "Баланс пользователя меньше суммы транзакции";
 
         when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(userRepository.withdrawBalance(user.getId(), initialAmount)).thenReturn(0);
         InsufficientFundsException thrown = assertThrows(InsufficientFundsException.class, () ->
             transactionService.createTransaction(currentUser, request));
 
         assertEquals(expectedExceptionMessage, thrown.getMessage());
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        verify(outboxService, never()).publish(any(), any());
+    }
+
+    @Test
+    @DisplayName("Пакетное создание транзакций с одной дельтой баланса")
+    public void createTransactionsBatch() {
+        TestTransactionData transactionData = new TestTransactionData();
+        User user = transactionData.firstUser;
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        LocalDateTime dateTime = LocalDateTime.of(2025, 8, 1, 10, 20);
+        List<CreateTransactionRequest> requests = List.of(
+            new CreateTransactionRequest(ETransactionType.INCOME, ETransactionCategory.SALARY,
+                BigDecimal.valueOf(1000), transactionData.rubCurrency, dateTime, null),
+            new CreateTransactionRequest(ETransactionType.EXPENSE, ETransactionCategory.FOOD,
+                BigDecimal.valueOf(10), transactionData.usdCurrency, dateTime, null),
+            new CreateTransactionRequest(ETransactionType.EXPENSE, ETransactionCategory.FOOD,
+                null, transactionData.rubCurrency, dateTime, null)
+        );
+        ArgumentCaptor<List<Transaction>> transactionsCaptor = ArgumentCaptor.forClass(List.class);
+
+        when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(currencyRateService.getCurrencyRateSnapshot(anyCollection())).thenReturn(
+            new CurrencyRateSnapshot(Map.of(transactionData.usdCurrency, transactionData.usdCurrencyRateAmount)));
+        when(budgetService.findExceededBudgets(eq(user), anyMap())).thenReturn(Map.of());
+        CreateTransactionBatchResponse response = transactionService.createTransactions(currentUser, requests);
+
+        assertEquals(2, response.created());
+        assertEquals(1, response.rejected());
+        assertTrue(response.results().get(0).isSuccess());
+        assertTrue(response.results().get(1).isSuccess());
+        assertFalse(response.results().get(2).isSuccess());
+        verify(transactionBatchRepository).insertAll(transactionsCaptor.capture());
+        List<Transaction> inserted = transactionsCaptor.getValue();
+        assertEquals(2, inserted.size());
+        assertEquals(0, BigDecimal.valueOf(836.10).compareTo(inserted.get(1).getAmountInBaseCurrency()));
+        verify(userRepository).updateBalance(user.getId(), BigDecimal.valueOf(990));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание транзакций отклоняет категорию с превышенным бюджетом")
+    public void createTransactionsBatchWithExceededBudget() {
+        TestTransactionData transactionData = new TestTransactionData();
+        User user = transactionData.firstUser;
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        LocalDateTime dateTime = LocalDateTime.of(2025, 8, 1, 10, 20);
+        String budgetError = "Превышен месячный лимит расходов по категории, доступный остаток 100,00 руб.";
+        List<CreateTransactionRequest> requests = List.of(
+            new CreateTransactionRequest(ETransactionType.EXPENSE, ETransactionCategory.FOOD,
+                BigDecimal.valueOf(500), transactionData.rubCurrency, dateTime, null),
+            new CreateTransactionRequest(ETransactionType.EXPENSE, ETransactionCategory.TRANSPORT,
+                BigDecimal.valueOf(300), transactionData.rubCurrency, dateTime, null)
+        );
+
+        when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(currencyRateService.getCurrencyRateSnapshot(anyCollection())).thenReturn(
+            new CurrencyRateSnapshot(Map.of()));
+        when(budgetService.findExceededBudgets(eq(user), anyMap()))
+            .thenReturn(Map.of(ETransactionCategory.FOOD, budgetError));
+        when(userRepository.withdrawBalance(user.getId(), BigDecimal.valueOf(300))).thenReturn(1);
+        CreateTransactionBatchResponse response = transactionService.createTransactions(currentUser, requests);
+
+        assertEquals(1, response.created());
+        assertFalse(response.results().get(0).isSuccess());
+        assertEquals(budgetError, response.results().get(0).error());
+        assertTrue(response.results().get(1).isSuccess());
+        verify(userRepository).withdrawBalance(user.getId(), BigDecimal.valueOf(300));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание транзакций подставляет рубли для транзакции без валюты")
+    public void createTransactionsBatchDefaultsMissingCurrency() {
+        TestTransactionData transactionData = new TestTransactionData();
+        User user = transactionData.firstUser;
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        LocalDateTime dateTime = LocalDateTime.of(2025, 8, 1, 10, 20);
+        List<CreateTransactionRequest> requests = List.of(
+            new CreateTransactionRequest(ETransactionType.INCOME, ETransactionCategory.SALARY,
+                BigDecimal.valueOf(500), null, dateTime, null),
+            new CreateTransactionRequest(ETransactionType.INCOME, ETransactionCategory.SALARY,
+                BigDecimal.valueOf(200), transactionData.rubCurrency, dateTime, null)
+        );
+
+        when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(currencyRateService.getCurrencyRateSnapshot(anyCollection())).thenReturn(
+            new CurrencyRateSnapshot(Map.of()));
+        CreateTransactionBatchResponse response = transactionService.createTransactions(currentUser, requests);
+
+        assertEquals(2, response.created());
+        assertEquals(0, response.rejected());
+        assertTrue(response.results().get(0).isSuccess());
+        assertEquals(transactionData.rubCurrency, requests.get(0).initialCurrency());
+        verify(currencyRateService).getCurrencyRateSnapshot(Set.of(transactionData.rubCurrency));
+        verify(userRepository).updateBalance(user.getId(), BigDecimal.valueOf(700));
+    }
+
+    @Test
+    @DisplayName("Пакетное создание транзакций с пустым списком")
+    public void createTransactionsBatchWithEmptyList() {
+        TestTransactionData transactionData = new TestTransactionData();
+
+        assertThrows(EmptyRequestException.class, () ->
+            transactionService.createTransactions(transactionData.firstCurrentUser, List.of()));
+        verifyNoInteractions(transactionBatchRepository);
     }
 
     @Test
@@ -352,6 +548,129 @@ public class TransactionServiceTest {
         verify(transactionMapper, times(2)).toTransactionResponse(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("Чтение транзакции, перенесенной в архив")
+    public void showArchivedTransaction() {
+        TestTransactionData transactionData = new TestTransactionData();
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        UUID transactionId = transactionData.firstTransactionId;
+
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.empty());
+        when(transactionArchiveService.findById(currentUser.getId(), transactionId))
+            .thenReturn(Optional.of(transactionData.firstTransaction));
+        when(transactionMapper.toTransactionResponse(transactionData.firstTransaction))
+            .thenReturn(transactionData.firstTransactionResponse);
+
+        assertEquals(transactionData.firstTransactionResponse,
+            transactionService.showTransaction(currentUser, transactionId));
+    }
+
+    @Test
+    @DisplayName("Удаление транзакции, перенесенной в архив, отклоняется")
+    public void deleteArchivedTransactionRejected() {
+        TestTransactionData transactionData = new TestTransactionData();
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        UUID transactionId = transactionData.firstTransactionId;
+
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.empty());
+        when(transactionArchiveService.findById(currentUser.getId(), transactionId))
+            .thenReturn(Optional.of(transactionData.firstTransaction));
+
+        assertThrows(BadDataException.class, () -> transactionService.deleteTransaction(currentUser, transactionId));
+        verify(transactionRepository, never()).delete(any(Transaction.class));
+    }
+
+    @Test
+    @DisplayName("Чтение первой части списка транзакций по курсору")
+    public void showTransactionsByCursorReturnsFirstSliceWithCursor() {
+        TestTransactionData transactionData = new TestTransactionData();
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        Slice<Transaction> slice = new SliceImpl<>(List.of(transactionData.firstTransaction,
+            transactionData.thirdTransaction), PageRequest.ofSize(2), true);
+
+        when(transactionRepository.findSliceByUserId(eq(transactionData.firstUserId), any(Pageable.class)))
+            .thenReturn(slice);
+        when(transactionMapper.toTransactionResponse(transactionData.firstTransaction))
+            .thenReturn(transactionData.firstTransactionResponse);
+        when(transactionMapper.toTransactionResponse(transactionData.thirdTransaction))
+            .thenReturn(transactionData.thirdTransactionResponse);
+
+        TransactionSliceResponse result = transactionService.showTransactionsByCursor(currentUser, null, 2);
+
+        assertTrue(result.hasNext());
+        assertEquals(2, result.content().size());
+        TransactionCursor cursor = TransactionCursor.decode(result.nextCursor());
+        assertEquals(transactionData.thirdTransaction.getDateTime(), cursor.dateTime());
+        assertEquals(transactionData.thirdTransaction.getId(), cursor.id());
+    }
+
+    @Test
+    @DisplayName("Чтение следующей части списка транзакций по курсору")
+    public void showTransactionsByCursorSeeksAfterCursor() {
+        TestTransactionData transactionData = new TestTransactionData();
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        TransactionCursor cursor = TransactionCursor.of(transactionData.firstTransaction);
+        Slice<Transaction> slice = new SliceImpl<>(List.of(transactionData.thirdTransaction), PageRequest.ofSize(2),
+            false);
+
+        when(transactionRepository.findSliceByUserIdBefore(eq(transactionData.firstUserId), eq(cursor.dateTime()),
+            eq(cursor.id()), any(Pageable.class))).thenReturn(slice);
+        when(transactionMapper.toTransactionResponse(transactionData.thirdTransaction))
+            .thenReturn(transactionData.thirdTransactionResponse);
+
+        TransactionSliceResponse result = transactionService.showTransactionsByCursor(currentUser, cursor.encode(), 2);
+
+        assertFalse(result.hasNext());
+        assertNull(result.nextCursor());
+        assertEquals(List.of(transactionData.thirdTransactionResponse), result.content());
+        verify(transactionRepository, never()).findAllByUserId(any(UUID.class), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Чтение списка транзакций с некорректным курсором")
+    public void showTransactionsByCursorRejectsMalformedCursor() {
+        TestTransactionData transactionData = new TestTransactionData();
+
+        assertThrows(BadDataException.class, () ->
+            transactionService.showTransactionsByCursor(transactionData.firstCurrentUser, "не-курсор", 10));
+        verifyNoInteractions(transactionRepository);
+    }
+
+    @Test
+    @DisplayName("Поиск транзакций по фильтрам с курсором продолжения")
+    public void searchTransactionsReturnsSliceWithCursor() {
+        TestTransactionData transactionData = new TestTransactionData();
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        TransactionSearchRequest request = new TransactionSearchRequest(ETransactionType.EXPENSE,
+            Set.of(ETransactionCategory.FOOD), BigDecimal.ONE, BigDecimal.valueOf(10000), null, null, null, "кафе");
+        Slice<Transaction> slice = new SliceImpl<>(List.of(transactionData.thirdTransaction), PageRequest.ofSize(1),
+            true);
+
+        when(transactionSearchRepository.findSlice(any(), eq(1))).thenReturn(slice);
+        when(transactionMapper.toTransactionResponse(transactionData.thirdTransaction))
+            .thenReturn(transactionData.thirdTransactionResponse);
+
+        TransactionSliceResponse result = transactionService.searchTransactions(currentUser, request, null, 1);
+
+        assertEquals(List.of(transactionData.thirdTransactionResponse), result.content());
+        assertEquals(TransactionCursor.of(transactionData.thirdTransaction).encode(), result.nextCursor());
+        verify(transactionSearchRepository).findSlice(any(Specification.class), eq(1));
+    }
+
+    @Test
+    @DisplayName("Поиск транзакций с некорректным диапазоном сумм")
+    public void searchTransactionsRejectsInvertedAmountRange() {
+        TestTransactionData transactionData = new TestTransactionData();
+        TransactionSearchRequest request = new TransactionSearchRequest(null, null, BigDecimal.valueOf(500),
+            BigDecimal.valueOf(100), null, null, null, null);
+
+        BadDataException thrown = assertThrows(BadDataException.class, () ->
+            transactionService.searchTransactions(transactionData.firstCurrentUser, request, null, 10));
+
+        assertEquals("Минимальная сумма больше максимальной", thrown.getMessage());
+        verifyNoInteractions(transactionSearchRepository);
+    }
+
     @Test
     @DisplayName("Чтение пустого списка транзакций пользователя")
     public void showEmptyTransactionsListOfUser() {
@@ -430,6 +749,34 @@ public class TransactionServiceTest {
         verify(transactionMapper).toTransactionResponse(updatedTransaction);
     }
 
+    @Test
+    @DisplayName("Изменение суммы транзакции применяет разницу к балансу и сторнирует запись журнала")
+    public void updateTransactionAmountAppliesBalanceDifference() {
+        TestTransactionData transactionData = new TestTransactionData();
+        UUID transactionId = transactionData.firstTransactionId;
+        User user = transactionData.firstUser;
+        UserDetailsImpl currentUser = transactionData.firstCurrentUser;
+        Transaction transaction = transactionData.firstTransaction;
+        BigDecimal newAmount = BigDecimal.valueOf(60000);
+        UpdateTransactionRequest request = new UpdateTransactionRequest(null, null, newAmount,
+            null, null, null);
+
+        when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transaction));
+        when(userService.findUserByUsername(currentUser.getUsername())).thenReturn(user);
+        when(ledgerService.findEffectiveAmount(transaction)).thenReturn(transaction.getAmountInBaseCurrency());
+        doAnswer(invocation -> {
+            transaction.setInitialAmount(newAmount);
+            return null;
+        }).when(transactionMapper).updateTransactionFromUpdateTransactionRequest(request, transaction);
+        transactionService.updateTransaction(currentUser, transactionId, request);
+
+        assertEquals(newAmount, transaction.getAmountInBaseCurrency());
+        verify(userRepository).updateBalance(user.getId(), BigDecimal.valueOf(10000));
+        verify(ledgerService).recordReversal(transaction);
+        verify(ledgerService).recordTransaction(transaction);
+        verify(outboxService).publish(EOutboxEventType.TRANSACTION_UPDATED, transaction);
+    }
+
     @Test
     @DisplayName("Обновление транзакции с пустым запросом")
     public void updateTransactionEmptyRequestThrows() {
@@ -489,11 +836,18 @@ public class TransactionServiceTest {
         UUID transactionId = transactionData.firstTransactionId;
         UserDetailsImpl currentUser = transactionData.firstCurrentUser;
 
+        BigDecimal amount = transactionData.firstTransaction.getAmountInBaseCurrency();
+
         when(transactionRepository.findById(transactionId)).thenReturn(Optional.of(transactionData.firstTransaction));
+        when(ledgerService.findEffectiveAmount(transactionData.firstTransaction)).thenReturn(amount);
+        when(userRepository.withdrawBalance(transactionData.firstUser.getId(), amount)).thenReturn(1);
         doNothing().when(transactionRepository).delete(transactionData.firstTransaction);
         transactionService.deleteTransaction(currentUser, transactionId);
 
         verify(transactionRepository).delete(transactionData.firstTransaction);
+        verify(userRepository).withdrawBalance(transactionData.firstUser.getId(), amount);
+        verify(ledgerService).recordReversal(transactionData.firstTransaction);
+        verify(outboxService).publish(EOutboxEventType.TRANSACTION_DELETED, transactionData.firstTransaction);
     }
 
     @Test
@@ -563,6 +917,26 @@ public class TransactionServiceTest {
         assertTrue(expectedTransactions.containsAll(actualTransactions));
     }
 
+    @Test
+    @DisplayName("Сумма по типу учитывает архивные транзакции без дублей")
+    public void getAmountByTransactionTypeIncludesArchive() {
+        TestTransactionData transactionData = new TestTransactionData();
+        User user = transactionData.firstUser;
+        ETransactionType transactionType = transactionData.incomeType;
+        LocalDateTime startDate = LocalDateTime.of(2020, 1, 1, 0, 0, 0);
+        LocalDateTime endDate = LocalDateTime.of(2025, 10, 1, 23, 59, 59);
+
+        when(transactionRepository.findAllByUserIdAndTypeAndDateTimeBetween(user.getId(), transactionType, startDate,
+            endDate)).thenReturn(List.of(transactionData.firstTransaction));
+        when(transactionArchiveService.findTransactions(user, transactionType, startDate, endDate))
+            .thenReturn(List.of(transactionData.firstTransaction, transactionData.fourthTransaction));
+
+        BigDecimal actualAmount = transactionService.getAmountByTransactionType(user, startDate, endDate,
+            transactionType);
+
+        assertEquals(BigDecimal.valueOf(75000), actualAmount);
+    }
+
     @Test
     @DisplayName("Расчет суммы транзакции в базовой валюте рубль")
     public void calculateAmountWithRubBaseCurrency() {
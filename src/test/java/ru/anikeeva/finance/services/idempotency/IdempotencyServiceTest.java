@@ -0,0 +1,201 @@
+package ru.anikeeva.finance.services.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisTemplate;
+import ru.anikeeva.finance.dto.budget.CreateTransactionResponse;
+import ru.anikeeva.finance.exceptions.IdempotencyConflictException;
+import ru.anikeeva.finance.exceptions.InsufficientFundsException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdempotencyServiceTest {
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        when(redisTemplate.opsForValue()).thenThrow(new RedisConnectionFailureException("Redis недоступен"));
+        idempotencyService = new IdempotencyService(new IdempotencyStore(redisTemplate), new ObjectMapper(), 24, 1);
+    }
+
+    @Test
+    @DisplayName("Повторный запрос с тем же ключом возвращает сохраненный ответ")
+    public void executeReturnsStoredResponseForRepeatedKey() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger executions = new AtomicInteger();
+        String fingerprint = idempotencyService.fingerprintOf("запрос");
+
+        CreateTransactionResponse first = idempotencyService.execute("key-1", userId, fingerprint,
+            CreateTransactionResponse.class, () -> {
+                executions.incrementAndGet();
+                return new CreateTransactionResponse(UUID.randomUUID(), true);
+            });
+        CreateTransactionResponse second = idempotencyService.execute("key-1", userId, fingerprint,
+            CreateTransactionResponse.class, () -> {
+                executions.incrementAndGet();
+                return new CreateTransactionResponse(UUID.randomUUID(), true);
+            });
+
+        assertEquals(1, executions.get());
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Ключ, использованный с другим запросом, отклоняется")
+    public void executeRejectsKeyReusedWithDifferentRequest() {
+        UUID userId = UUID.randomUUID();
+        idempotencyService.execute("key-1", userId, idempotencyService.fingerprintOf("первый"),
+            String.class, () -> "ok");
+
+        assertThrows(IdempotencyConflictException.class, () ->
+            idempotencyService.execute("key-1", userId, idempotencyService.fingerprintOf("второй"),
+                String.class, () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Потоковый запрос с тем же ключом и телом возвращает сохраненный ответ")
+    public void executeStreamingReturnsStoredResponseForSameBody() {
+        UUID userId = UUID.randomUUID();
+        AtomicInteger executions = new AtomicInteger();
+        String fingerprint = idempotencyService.fingerprintOf("поток");
+
+        String first = idempotencyService.executeStreaming("key-1", userId, fingerprint, body("a,b\n1,2\n"),
+            String.class, body -> executions.incrementAndGet() + ":" + read(body));
+        String second = idempotencyService.executeStreaming("key-1", userId, fingerprint, body("a,b\n1,2\n"),
+            String.class, body -> executions.incrementAndGet() + ":" + read(body));
+
+        assertEquals(1, executions.get());
+        assertEquals("1:a,b\n1,2\n", first);
+        assertEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("Потоковый запрос с тем же ключом и другим телом той же длины отклоняется")
+    public void executeStreamingRejectsDifferentBodyOfSameLength() {
+        UUID userId = UUID.randomUUID();
+        String fingerprint = idempotencyService.fingerprintOf("поток");
+        idempotencyService.executeStreaming("key-1", userId, fingerprint, body("a,b\n1,2\n"), String.class,
+            IdempotencyServiceTest::read);
+
+        assertThrows(IdempotencyConflictException.class, () -> idempotencyService.executeStreaming("key-1", userId,
+            fingerprint, body("a,b\n3,4\n"), String.class, IdempotencyServiceTest::read));
+    }
+
+    @Test
+    @DisplayName("Отметка о выполнении запроса, прерванного без ответа, истекает через короткий срок")
+    public void executeReleasesAbandonedKeyAfterLease() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String fingerprint = idempotencyService.fingerprintOf("запрос");
+        assertThrows(AssertionError.class, () -> idempotencyService.execute("key-1", userId, fingerprint,
+            String.class, () -> {
+                throw new AssertionError("Узел остановлен во время запроса");
+            }));
+
+        assertThrows(IdempotencyConflictException.class, () ->
+            idempotencyService.execute("key-1", userId, fingerprint, String.class, () -> "ok"));
+        Thread.sleep(1100);
+
+        assertEquals("ok", idempotencyService.execute("key-1", userId, fingerprint, String.class, () -> "ok"));
+        Thread.sleep(1100);
+        assertEquals("ok", idempotencyService.execute("key-1", userId, fingerprint, String.class, () -> "другой"));
+    }
+
+    @Test
+    @DisplayName("Без ключа запрос выполняется каждый раз")
+    public void executeWithoutKeyAlwaysRunsAction() {
+        AtomicInteger executions = new AtomicInteger();
+
+        idempotencyService.execute(null, UUID.randomUUID(), null, Integer.class, executions::incrementAndGet);
+        idempotencyService.execute(null, UUID.randomUUID(), null, Integer.class, executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    @DisplayName("Ошибка выполнения освобождает ключ для повторной попытки")
+    public void executeReleasesKeyAfterFailure() {
+        UUID userId = UUID.randomUUID();
+        String fingerprint = idempotencyService.fingerprintOf("запрос");
+
+        assertThrows(InsufficientFundsException.class, () ->
+            idempotencyService.execute("key-1", userId, fingerprint, String.class, () -> {
+                throw new InsufficientFundsException("Баланс пользователя меньше суммы транзакции");
+            }));
+
+        assertEquals("ok", idempotencyService.execute("key-1", userId, fingerprint, String.class, () -> "ok"));
+    }
+
+    @Test
+    @DisplayName("Параллельные дубликаты выполняются один раз")
+    public void executeCollapsesConcurrentDuplicates() throws Exception {
+        UUID userId = UUID.randomUUID();
+        String fingerprint = idempotencyService.fingerprintOf("запрос");
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<Future<String>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 8; i++) {
+            futures.add(callers.submit(() -> idempotencyService.execute("key-1", userId, fingerprint,
+                String.class, () -> {
+                    executions.incrementAndGet();
+                    awaitQuietly(release);
+                    return "ok";
+                })));
+        }
+        while (executions.get() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        for (Future<String> future : futures) {
+            assertEquals("ok", future.get(10, TimeUnit.SECONDS));
+        }
+        callers.shutdown();
+
+        assertEquals(1, executions.get());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ByteArrayInputStream body(final String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(final InputStream body) {
+        try {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
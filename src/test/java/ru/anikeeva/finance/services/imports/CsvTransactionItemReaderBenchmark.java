@@ -0,0 +1,129 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.mappers.TransactionFieldSetMapper;
+
+import java.io.BufferedWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag("load")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+public class CsvTransactionItemReaderBenchmark {
+    private static final int LINES = 1_000_000;
+    private static final String[] CATEGORIES = {"FOOD", "CAFE", "TRANSPORT", "SALARY", "OTHER_EXPENSES"};
+
+    private Path file;
+    private long start;
+    private long end;
+
+    @Test
+    @DisplayName("Байтовый ридер CSV быстрее FlatFileItemReader на файле из миллиона строк")
+    public void byteReaderOutperformsFlatFileReader() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(CsvTransactionItemReaderBenchmark.class.getName() + "\\.read")
+            .forks(1)
+            .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        double flatFile = score(results, "readWithFlatFileReader");
+        double bytes = score(results, "readWithByteReader");
+        System.out.printf("FlatFileItemReader: %.1f мс, CsvTransactionItemReader: %.1f мс%n", flatFile, bytes);
+        assertTrue(bytes < flatFile, "Байтовый ридер не быстрее FlatFileItemReader");
+    }
+
+    @Setup(Level.Trial)
+    public void createFile() throws Exception {
+        file = Files.createTempFile("transactions", ".csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("type,category,initialAmount,initialCurrency,dateTime,description\n");
+            for (int i = 0; i < LINES; i++) {
+                writer.write(i % 10 == 0 ? "INCOME" : "EXPENSE");
+                writer.write(',');
+                writer.write(CATEGORIES[i % CATEGORIES.length]);
+                writer.write(',');
+                writer.write(Integer.toString(i % 100_000));
+                writer.write('.');
+                writer.write(Integer.toString(10 + i % 90));
+                writer.write(i % 3 == 0 ? ",USD," : ",RUB,");
+                writer.write(String.format("2024-%02d-%02dT%02d:%02d:00", 1 + i % 12, 1 + i % 28, i % 24, i % 60));
+                writer.write(i % 4 == 0 ? ",\"Покупка, магазин №" + i + "\"\n" : ",Покупка " + i + "\n");
+            }
+        }
+        ExecutionContext range = new TransactionFilePartitioner(file, Long.MAX_VALUE).partition(1).values()
+            .iterator().next();
+        start = range.getLong(TransactionFilePartitioner.START_KEY);
+        end = range.getLong(TransactionFilePartitioner.END_KEY);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void readWithFlatFileReader(final Blackhole blackhole) throws Exception {
+        FlatFileItemReader<TransactionImportDto> reader = new FlatFileItemReader<>();
+        reader.setName("flatFileReader");
+        reader.setEncoding("UTF-8");
+        reader.setResource(new FileRangeResource(file, start, end));
+        reader.setLineMapper(TransactionFieldSetMapper.lineMapper());
+        consume(reader, blackhole);
+    }
+
+    @Benchmark
+    public void readWithByteReader(final Blackhole blackhole) throws Exception {
+        consume(new CsvTransactionItemReader(file, start, end), blackhole);
+    }
+
+    private static void consume(final ItemStreamReader<TransactionImportDto> reader, final Blackhole blackhole)
+        throws Exception {
+        reader.open(new ExecutionContext());
+        try {
+            TransactionImportDto item;
+            while ((item = reader.read()) != null) blackhole.consume(item);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static double score(final Collection<RunResult> results, final String benchmark) {
+        return results.stream()
+            .filter(result -> result.getParams().getBenchmark().endsWith("." + benchmark))
+            .findFirst()
+            .orElseThrow()
+            .getPrimaryResult()
+            .getScore();
+    }
+}
@@ -0,0 +1,172 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+import ru.anikeeva.finance.mappers.TransactionFieldSetMapper;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CsvTransactionItemReaderTest {
+    private static final String HEADER = "type,category,initialAmount,initialCurrency,dateTime,description";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Байтовый ридер читает те же строки, что и FlatFileItemReader")
+    public void readsSameItemsAsFlatFileReader() throws Exception {
+        StringBuilder content = new StringBuilder(HEADER).append("\n");
+        for (int i = 0; i < 500; i++) {
+            String description = switch (i % 3) {
+                case 0 -> "\"Покупка, \"\"Лента\"\" " + i + "\"";
+                case 1 -> " Кафе " + i + " ";
+                default -> "";
+            };
+            content.append(i % 2 == 0 ? "EXPENSE" : "INCOME").append(',')
+                .append(i % 2 == 0 ? "FOOD" : "SALARY").append(',')
+                .append(i % 5 == 0 ? "-" : "").append(i * 37 % 1000).append(i % 4 == 0 ? ".05" : "").append(',')
+                .append(i % 2 == 0 ? "RUB" : "USD").append(',')
+                .append(i % 7 == 0 ? "" : "2024-01-0" + (1 + i % 9) + "T10:1" + (i % 6) + ":00").append(',')
+                .append(description)
+                .append(i % 10 == 0 ? "\r\n" : "\n");
+        }
+        Path file = write(content.toString());
+
+        List<TransactionImportDto> expected = new ArrayList<>();
+        for (ExecutionContext partition : new TransactionFilePartitioner(file, 1).partition(1).values()) {
+            expected.addAll(readAll(flatFileReader(file, partition)));
+        }
+        List<TransactionImportDto> actual = new ArrayList<>();
+        for (ExecutionContext partition : new TransactionFilePartitioner(file, 1).partition(5).values()) {
+            actual.addAll(readAll(new CsvTransactionItemReader(file, start(partition), end(partition))));
+        }
+
+        assertEquals(500, expected.size());
+        assertEquals(expected, actual);
+        assertEquals("Покупка, \"Лента\" 0", actual.getFirst().description());
+        assertEquals(new BigDecimal("-0.05"), actual.getFirst().initialAmount());
+        assertNull(actual.getFirst().dateTime());
+        assertEquals(LocalDateTime.of(2024, 1, 2, 10, 11), actual.get(1).dateTime());
+    }
+
+    @Test
+    @DisplayName("Некорректные сумма и дата дают BadDataException, неверное число полей — ошибку разбора")
+    public void reportsMalformedLines() throws Exception {
+        Path file = write("""
+            EXPENSE,FOOD,12a,RUB,2024-01-01T10:00:00,Продукты
+            EXPENSE,FOOD,12.00,RUB,2024-13-01T10:00:00,Продукты
+            EXPENSE,FOOD,12.00,RUB
+            EXPENSE,FOOD,123456789012345678901.25,RUB,2024-01-01T10:00:00,Продукты
+            """);
+        CsvTransactionItemReader reader = new CsvTransactionItemReader(file, 0, Files.size(file));
+        reader.open(new ExecutionContext());
+
+        assertThrows(BadDataException.class, reader::read);
+        assertThrows(BadDataException.class, reader::read);
+        assertThrows(FlatFileParseException.class, reader::read);
+        assertEquals(new BigDecimal("123456789012345678901.25"), reader.read().initialAmount());
+        assertNull(reader.read());
+        reader.close();
+    }
+
+    @Test
+    @DisplayName("После рестарта чтение продолжается с сохраненной позиции")
+    public void resumesFromSavedPosition() throws Exception {
+        Path file = write("""
+            INCOME,SALARY,100.00,RUB,2024-01-01T10:00:00,Первая
+            INCOME,SALARY,200.00,RUB,2024-01-02T10:00:00,Вторая
+            INCOME,SALARY,300.00,RUB,2024-01-03T10:00:00,Третья
+            """);
+        ExecutionContext context = new ExecutionContext();
+        CsvTransactionItemReader first = new CsvTransactionItemReader(file, 0, Files.size(file));
+        first.open(context);
+        first.read();
+        first.read();
+        first.update(context);
+        first.close();
+
+        CsvTransactionItemReader restarted = new CsvTransactionItemReader(file, 0, Files.size(file));
+        restarted.open(context);
+
+        assertEquals("Третья", restarted.read().description());
+        assertNull(restarted.read());
+        restarted.close();
+    }
+
+    @Test
+    @DisplayName("Ридер потока пропускает заголовок и читает те же записи, что и ридер файла")
+    public void streamReaderReadsSameItemsAsFileReader() throws Exception {
+        String longDescription = "Описание ".repeat(20_000);
+        String content = HEADER + "\r\n" +
+            "EXPENSE,FOOD,12.50,RUB,2024-01-01T10:00:00,\"Продукты, \"\"Лента\"\"\"\r\n" +
+            "\n" +
+            "INCOME,SALARY,100,USD,2024-01-02T10:00:00," + longDescription + "\n" +
+            "EXPENSE,CAFE,7.00,RUB,2024-01-03T10:00:00,Кофе";
+        Path file = write(content);
+        long dataStart = start(new TransactionFilePartitioner(file, 1).partition(1).values().iterator().next());
+
+        List<TransactionImportDto> expected = readAll(new CsvTransactionItemReader(file, dataStart, Files.size(file)));
+        List<TransactionImportDto> actual = readAll(new CsvTransactionItemReader(
+            new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(3, actual.size());
+        assertEquals(expected, actual);
+        assertEquals("Продукты, \"Лента\"", actual.getFirst().description());
+        assertEquals(longDescription.strip(), actual.get(1).description());
+    }
+
+    private static FlatFileItemReader<TransactionImportDto> flatFileReader(final Path file,
+                                                                          final ExecutionContext partition) {
+        FlatFileItemReader<TransactionImportDto> reader = new FlatFileItemReader<>();
+        reader.setName("flatFileReader");
+        reader.setEncoding("UTF-8");
+        reader.setResource(new FileRangeResource(file, start(partition), end(partition)));
+        reader.setLineMapper(TransactionFieldSetMapper.lineMapper());
+        return reader;
+    }
+
+    private static List<TransactionImportDto> readAll(final ItemStreamReader<TransactionImportDto> reader)
+        throws Exception {
+        List<TransactionImportDto> items = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        try {
+            TransactionImportDto item;
+            while ((item = reader.read()) != null) items.add(item);
+        } finally {
+            reader.close();
+        }
+        return items;
+    }
+
+    private static long start(final ExecutionContext partition) {
+        return partition.getLong(TransactionFilePartitioner.START_KEY);
+    }
+
+    private static long end(final ExecutionContext partition) {
+        return partition.getLong(TransactionFilePartitioner.END_KEY);
+    }
+
+    private Path write(final String content) throws Exception {
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import ru.anikeeva.finance.dto.notifications.ImportProgressNotification;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class ImportProgressServiceTest {
+    @Test
+    @DisplayName("Прогресс суммируется по партициям, скорость и оставшееся время считаются от старта задачи")
+    public void snapshotAggregatesWorkerPartitions() {
+        JobExecution jobExecution = jobExecution();
+
+        ImportProgressNotification progress = ImportProgressService.snapshot(jobExecution);
+
+        assertEquals("job-1", progress.jobId());
+        assertEquals("STARTED", progress.status());
+        assertEquals(900, progress.read());
+        assertEquals(880, progress.written());
+        assertEquals(20, progress.skipped());
+        assertEquals(3000L, progress.estimatedTotal());
+        assertTrue(progress.rowsPerSecond() > 85 && progress.rowsPerSecond() <= 91);
+        assertNotNull(progress.etaSeconds());
+        assertTrue(progress.etaSeconds() >= 23 && progress.etaSeconds() <= 25);
+    }
+
+    @Test
+    @DisplayName("Промежуточные события прореживаются, итоговое событие отправляется всегда")
+    public void publishIsThrottledPerJob() {
+        SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+        ImportProgressService service = new ImportProgressService(messagingTemplate, 60_000);
+        JobExecution jobExecution = jobExecution();
+
+        service.publish(jobExecution);
+        service.publish(jobExecution);
+        service.publish(jobExecution);
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        jobExecution.setEndTime(LocalDateTime.now());
+        service.complete(jobExecution);
+
+        verify(messagingTemplate, times(2)).convertAndSend(eq("/topic/imports/job-1"),
+            any(ImportProgressNotification.class));
+    }
+
+    private static JobExecution jobExecution() {
+        JobExecution jobExecution = new JobExecution(new JobInstance(1L, "importJob"), 7L,
+            new JobParametersBuilder().addString("jobId", "job-1").toJobParameters());
+        jobExecution.setStatus(BatchStatus.STARTED);
+        jobExecution.setStartTime(LocalDateTime.now().minusSeconds(10));
+        jobExecution.createStepExecution("importStep");
+        StepExecution first = jobExecution.createStepExecution("importWorkerStep:partition0");
+        first.setReadCount(500);
+        first.setWriteCount(490);
+        first.setProcessSkipCount(10);
+        first.getExecutionContext().putLong(TransactionFilePartitioner.ESTIMATED_ROWS_KEY, 1500);
+        StepExecution second = jobExecution.createStepExecution("importWorkerStep:partition1");
+        second.setReadCount(400);
+        second.setWriteCount(390);
+        second.setProcessSkipCount(10);
+        second.getExecutionContext().putLong(TransactionFilePartitioner.ESTIMATED_ROWS_KEY, 1500);
+        return jobExecution;
+    }
+}
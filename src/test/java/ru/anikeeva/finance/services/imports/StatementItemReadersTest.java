@@ -0,0 +1,134 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+import ru.anikeeva.finance.exceptions.BadDataException;
+
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StatementItemReadersTest {
+    private static final String QIF = """
+        !Account
+        NChecking
+        TBank
+        ^
+        !Type:Bank
+        D12/31'23
+        T-1,234.56
+        PПятерочка
+        MПродукты
+        Lfood
+        ^
+        D1/ 5/2024
+        T500.00
+        PEmployer
+        ^
+        """;
+    private static final String OFX = """
+        OFXHEADER:100
+        DATA:OFXSGML
+        CHARSET:1251
+
+        <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><CURDEF>RUB<BANKTRANLIST>
+        <STMTTRN><TRNTYPE>DEBIT<DTPOSTED>20231231120000.000[+3:MSK]<TRNAMT>-99.90<FITID>1<NAME>Магазин &amp; Ко
+        <MEMO>Покупка</STMTTRN>
+        <STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20240102<TRNAMT>1000<NAME>Зарплата</NAME>
+        <CURRENCY><CURSYM>USD<CURRATE>90</CURRENCY></STMTTRN>
+        </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+        """;
+    private static final String CAMT = """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <Document xmlns="urn:iso:std:iso:20022:tech:xsd:camt.053.001.02"><BkToCstmrStmt><Stmt>
+        <Ntry><Amt Ccy="EUR">12.50</Amt><CdtDbtInd>DBIT</CdtDbtInd><BookgDt><Dt>2024-01-03</Dt></BookgDt>
+        <NtryDtls><TxDtls><AmtDtls><TxAmt><Amt Ccy="EUR">12.50</Amt></TxAmt></AmtDtls><CdtDbtInd>CRDT</CdtDbtInd>
+        <RmtInf><Ustrd>Кофе</Ustrd></RmtInf></TxDtls></NtryDtls></Ntry>
+        <Ntry><Amt Ccy="EUR">100</Amt><CdtDbtInd>CRDT</CdtDbtInd>
+        <BookgDt><DtTm>2024-01-05T10:15:00+01:00</DtTm></BookgDt><AddtlNtryInf>Возврат</AddtlNtryInf></Ntry>
+        </Stmt></BkToCstmrStmt></Document>
+        """;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Формат выписки определяется по содержимому файла")
+    public void detectsFormatByContent() throws Exception {
+        assertEquals(StatementFormat.QIF, StatementFormat.detect(write("a.txt", QIF, "UTF-8")));
+        assertEquals(StatementFormat.OFX, StatementFormat.detect(write("b.txt", OFX, "windows-1251")));
+        assertEquals(StatementFormat.CAMT053, StatementFormat.detect(write("c.txt", CAMT, "UTF-8")));
+        assertEquals(StatementFormat.CSV, StatementFormat.detect(write("d.txt",
+            "type,category,initialAmount,initialCurrency,dateTime,description\n", "UTF-8")));
+    }
+
+    @Test
+    @DisplayName("QIF читается построчно, знак суммы задает тип операции, ошибочная запись пропускается")
+    public void readsQif() throws Exception {
+        List<TransactionImportDto> items = readAll(new QifItemReader(write("a.qif", QIF + "Dbad\nT1\n^\n", "UTF-8")));
+
+        assertEquals(List.of(
+            new TransactionImportDto("EXPENSE", "FOOD", new BigDecimal("1234.56"), null,
+                LocalDateTime.of(2023, 12, 31, 0, 0), "Пятерочка — Продукты"),
+            new TransactionImportDto("INCOME", "OTHER_INCOME", new BigDecimal("500.00"), null,
+                LocalDateTime.of(2024, 1, 5, 0, 0), "Employer")), items);
+    }
+
+    @Test
+    @DisplayName("OFX в SGML-варианте читается с учетом кодировки из заголовка")
+    public void readsOfx() throws Exception {
+        List<TransactionImportDto> items = readAll(new OfxItemReader(write("a.ofx", OFX, "windows-1251")));
+
+        assertEquals(List.of(
+            new TransactionImportDto("EXPENSE", "OTHER_EXPENSES", new BigDecimal("99.90"), "RUB",
+                LocalDateTime.of(2023, 12, 31, 12, 0), "Магазин & Ко — Покупка"),
+            new TransactionImportDto("INCOME", "OTHER_INCOME", new BigDecimal("1000"), "USD",
+                LocalDateTime.of(2024, 1, 2, 0, 0), "Зарплата")), items);
+    }
+
+    @Test
+    @DisplayName("CAMT.053 читается потоково по записям Ntry")
+    public void readsCamt053() throws Exception {
+        List<TransactionImportDto> items = readAll(new Camt053ItemReader(write("a.xml", CAMT, "UTF-8")));
+
+        assertEquals(List.of(
+            new TransactionImportDto("EXPENSE", "OTHER_EXPENSES", new BigDecimal("12.50"), "EUR",
+                LocalDateTime.of(2024, 1, 3, 0, 0), "Кофе"),
+            new TransactionImportDto("INCOME", "OTHER_INCOME", new BigDecimal("100"), "EUR",
+                LocalDateTime.of(2024, 1, 5, 10, 15), "Возврат")), items);
+    }
+
+    private Path write(final String name, final String content, final String charset) throws Exception {
+        Path file = directory.resolve(name);
+        Files.write(file, content.getBytes(Charset.forName(charset)));
+        return file;
+    }
+
+    private static List<TransactionImportDto> readAll(
+        final AbstractItemCountingItemStreamItemReader<TransactionImportDto> reader) throws Exception {
+        List<TransactionImportDto> items = new ArrayList<>();
+        reader.open(new ExecutionContext());
+        try {
+            while (true) {
+                try {
+                    TransactionImportDto item = reader.read();
+                    if (item == null) return items;
+                    items.add(item);
+                } catch (BadDataException ignored) {
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+}
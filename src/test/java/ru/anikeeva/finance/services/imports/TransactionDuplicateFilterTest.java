@@ -0,0 +1,134 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Currency;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionDuplicateFilterTest {
+    private final UUID userId = UUID.randomUUID();
+    private final TransactionBatchRepository transactionBatchRepository = mock(TransactionBatchRepository.class);
+    private final TransactionArchiveService transactionArchiveService = mock(TransactionArchiveService.class);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Отпечаток не зависит от пробелов и регистра описания, повторы в файле получают разные отпечатки")
+    public void fingerprintsNormalizeAndCountOccurrences() {
+        TransactionFingerprints first = new TransactionFingerprints();
+        TransactionFingerprints second = new TransactionFingerprints();
+
+        String original = first.next(transaction("10.5", "Кофе  у дома"));
+        String repeated = first.next(transaction("10.50", "Кофе у дома"));
+        String reimported = second.next(transaction("10.50", "  кофе у   ДОМА "));
+
+        assertNotEquals(original, repeated);
+        assertEquals(original, reimported);
+        assertEquals(64, original.length());
+        assertEquals("EXPENSE|2024-01-01T10:15:00|10.50|RUB|кофе у дома",
+            TransactionFingerprints.normalize(transaction("10.5", "Кофе\tу дома")));
+    }
+
+    @Test
+    @DisplayName("Фильтр строится по периоду файла, вероятные дубликаты проверяются в БД одним запросом на часть")
+    public void onlyProbableDuplicatesHitDatabase() throws Exception {
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, """
+            type,category,initialAmount,initialCurrency,dateTime,description
+            EXPENSE,FOOD,10.00,RUB,2024-03-05T12:00:00,Продукты
+            EXPENSE,FOOD,bad,RUB,2024-01-01T00:00:00,Ошибка
+            INCOME,SALARY,100.00,RUB,2024-02-01T09:30:00,Зарплата
+            """, StandardCharsets.UTF_8);
+        TransactionFingerprints fingerprints = new TransactionFingerprints();
+        List<String> stored = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) stored.add(fingerprints.next(transaction(i + ".00", "Сохраненная")));
+        List<String> fresh = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) fresh.add(fingerprints.next(transaction(i + ".00", "Новая")));
+        LocalDateTime from = LocalDateTime.of(2024, 2, 1, 9, 30);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 5, 12, 0, 1);
+        when(transactionBatchRepository.countFingerprints(userId, from, to)).thenReturn((long) stored.size());
+        doAnswer(invocation -> {
+            stored.forEach(invocation.<Consumer<String>>getArgument(3));
+            return null;
+        }).when(transactionBatchRepository).forEachFingerprint(eq(userId), eq(from), eq(to), any());
+        when(transactionBatchRepository.findExistingFingerprints(eq(userId), anyCollection()))
+            .thenAnswer(invocation -> invocation.<Collection<String>>getArgument(1).stream()
+                .filter(stored::contains)
+                .collect(Collectors.toSet()));
+        TransactionDuplicateFilter filter = new TransactionDuplicateFilter(transactionBatchRepository,
+            transactionArchiveService, file, 0, Files.size(file), 0.01);
+
+        filter.load(userId);
+
+        assertEquals(new HashSet<>(stored), filter.findExisting(stored));
+        assertTrue(filter.findExisting(fresh).isEmpty());
+        assertTrue(filter.probes() < stored.size() + fresh.size() / 20);
+        verify(transactionBatchRepository).countFingerprints(userId, from, to);
+        verify(transactionBatchRepository, atMost(2)).findExistingFingerprints(eq(userId), anyCollection());
+    }
+
+    @Test
+    @DisplayName("Транзакции, перенесенные в архив, распознаются как дубликаты без запроса к БД")
+    public void archivedFingerprintsAreDuplicates() throws Exception {
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, """
+            type,category,initialAmount,initialCurrency,dateTime,description
+            EXPENSE,FOOD,10.00,RUB,2019-03-05T12:00:00,Продукты
+            """, StandardCharsets.UTF_8);
+        LocalDateTime from = LocalDateTime.of(2019, 3, 5, 12, 0);
+        LocalDateTime to = LocalDateTime.of(2019, 3, 5, 12, 0, 1);
+        String archived = new TransactionFingerprints().next(transaction("10.00", "Архивная"));
+        when(transactionArchiveService.findFingerprints(userId, from, to)).thenReturn(Set.of(archived));
+        TransactionDuplicateFilter filter = new TransactionDuplicateFilter(transactionBatchRepository,
+            transactionArchiveService, file, 0, Files.size(file), 0.01);
+
+        filter.load(userId);
+
+        assertTrue(filter.isArchived(archived));
+        verify(transactionBatchRepository, never()).findExistingFingerprints(any(), anyCollection());
+    }
+
+    private static Transaction transaction(final String amount, final String description) {
+        return Transaction.builder()
+            .type(ETransactionType.EXPENSE)
+            .category(ETransactionCategory.FOOD)
+            .initialAmount(new BigDecimal(amount))
+            .initialCurrency(Currency.getInstance("RUB"))
+            .dateTime(LocalDateTime.of(2024, 1, 1, 10, 15))
+            .description(description)
+            .build();
+    }
+}
@@ -0,0 +1,89 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionDuplicateWriterTest {
+    private final TransactionDuplicateFilter duplicateFilter = mock(TransactionDuplicateFilter.class);
+    private final List<Transaction> written = new ArrayList<>();
+
+    @Test
+    @DisplayName("Вероятные дубликаты проверяются одним запросом на чанк и не попадают в запись и итоги")
+    public void writeDropsExistingFingerprintsPerChunk() throws Exception {
+        Set<String> existing = Set.of("b", "d");
+        when(duplicateFilter.findExisting(anyCollection())).thenAnswer(invocation ->
+            invocation.<Collection<String>>getArgument(0).stream()
+                .filter(existing::contains)
+                .collect(Collectors.toSet()));
+        TransactionDuplicateWriter writer = writer();
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        writer.write(new Chunk<>(transaction("a", "10.00"), transaction("b", "20.00"), transaction("c", "30.00")));
+        writer.write(new Chunk<>(transaction("d", "40.00")));
+        writer.update(context);
+
+        assertEquals(List.of("a", "c"), written.stream().map(Transaction::getFingerprint).toList());
+        assertEquals(2L, context.getLong(TransactionDuplicateWriter.DUPLICATES_KEY));
+        assertEquals("40.00", context.getString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "EXPENSE"));
+        verify(duplicateFilter, times(2)).findExisting(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Дубликаты из откаченного чанка не учитываются, счетчик восстанавливается при перезапуске")
+    public void duplicatesFollowCommittedChunks() throws Exception {
+        when(duplicateFilter.findExisting(anyCollection())).thenReturn(Set.of("a"));
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(TransactionDuplicateWriter.DUPLICATES_KEY, 5);
+        TransactionDuplicateWriter writer = writer();
+        writer.open(context);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.write(new Chunk<>(transaction("a", "10.00")));
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        writer.write(new Chunk<>(transaction("a", "10.00")));
+        writer.update(context);
+
+        assertEquals(6L, context.getLong(TransactionDuplicateWriter.DUPLICATES_KEY));
+        assertEquals(List.of(), written);
+    }
+
+    private TransactionDuplicateWriter writer() {
+        return new TransactionDuplicateWriter(duplicateFilter,
+            new TransactionTotalsWriter(chunk -> written.addAll(chunk.getItems())));
+    }
+
+    private static Transaction transaction(final String fingerprint, final String amount) {
+        return Transaction.builder()
+            .type(ETransactionType.EXPENSE)
+            .initialAmount(new BigDecimal(amount))
+            .fingerprint(fingerprint)
+            .build();
+    }
+}
@@ -0,0 +1,107 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import ru.anikeeva.finance.dto.budget.TransactionImportDto;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TransactionFilePartitionerTest {
+    private static final String HEADER = "type,category,initialAmount,initialCurrency,dateTime,description";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Диапазоны партиций выровнены по строкам и покрывают файл без пропусков и повторов")
+    public void partitionsCoverEveryLineExactlyOnce() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            lines.add("EXPENSE,FOOD," + (i * 37 % 1000) + ".50,RUB,2024-01-01T10:00:00,Покупка " + "x".repeat(i % 17));
+        }
+        Path file = write(HEADER + "\n" + String.join("\n", lines));
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file, 1).partition(7);
+
+        assertEquals(7, partitions.size());
+        assertEquals(lines, readAll(file, partitions));
+        long estimatedRows = partitions.values().stream()
+            .mapToLong(context -> context.getLong(TransactionFilePartitioner.ESTIMATED_ROWS_KEY))
+            .sum();
+        assertTrue(Math.abs(estimatedRows - lines.size()) <= lines.size() / 20);
+    }
+
+    @Test
+    @DisplayName("Для каждой партиции один раз считаются повторы строк из предыдущих партиций")
+    public void partitionsCarryPrecedingOccurrences() throws Exception {
+        StringBuilder content = new StringBuilder(HEADER).append("\n");
+        for (String description : List.of("A", "A", "B", "A", "C", "C", "B", "C", "D")) {
+            content.append("EXPENSE,FOOD,10.00,RUB,2024-01-01T10:00:00,").append(description).append("\n");
+        }
+        Path file = write(content.toString());
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file, 1,
+            TransactionImportDto::description).partition(3);
+
+        assertEquals(3, partitions.size());
+        assertEquals(Map.of(), TransactionFilePartitioner.occurrencesOf(partitions.get("partition0")));
+        assertEquals(Map.of("A", 2), TransactionFilePartitioner.occurrencesOf(partitions.get("partition1")));
+        assertEquals(Map.of("B", 1, "C", 2), TransactionFilePartitioner.occurrencesOf(partitions.get("partition2")));
+    }
+
+    @Test
+    @DisplayName("Небольшой файл не делится на партиции")
+    public void smallFileHasSinglePartition() throws Exception {
+        Path file = write(HEADER + "\nINCOME,SALARY,100.00,RUB,2024-01-01T10:00:00,Зарплата\n");
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file, 1024 * 1024).partition(8);
+
+        assertEquals(1, partitions.size());
+        assertEquals(1L, partitions.get("partition0").getLong(TransactionFilePartitioner.ESTIMATED_ROWS_KEY));
+        assertEquals(List.of("INCOME,SALARY,100.00,RUB,2024-01-01T10:00:00,Зарплата"), readAll(file, partitions));
+    }
+
+    @Test
+    @DisplayName("Файл только с заголовком дает одну пустую партицию")
+    public void headerOnlyFileHasEmptyPartition() throws Exception {
+        Path file = write(HEADER + "\n");
+
+        Map<String, ExecutionContext> partitions = new TransactionFilePartitioner(file, 1).partition(4);
+
+        assertEquals(1, partitions.size());
+        assertTrue(readAll(file, partitions).isEmpty());
+    }
+
+    private Path write(final String content) throws Exception {
+        Path file = directory.resolve("transactions.csv");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String> readAll(final Path file, final Map<String, ExecutionContext> partitions)
+        throws Exception {
+        List<String> result = new ArrayList<>();
+        for (ExecutionContext context : partitions.values()) {
+            FileRangeResource resource = new FileRangeResource(file,
+                context.getLong(TransactionFilePartitioner.START_KEY),
+                context.getLong(TransactionFilePartitioner.END_KEY));
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                reader.lines().forEach(result::add);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,239 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.anikeeva.finance.dto.budget.ImportJobResponse;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.exceptions.BadDataException;
+import ru.anikeeva.finance.exceptions.ImportQueueFullException;
+import ru.anikeeva.finance.executors.ImportJobScheduler;
+import ru.anikeeva.finance.executors.UserWriteLaneExecutor;
+import ru.anikeeva.finance.repositories.budget.TransactionBatchRepository;
+import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+import ru.anikeeva.finance.services.archive.TransactionArchiveService;
+import ru.anikeeva.finance.services.budget.CurrencyRateService;
+import ru.anikeeva.finance.services.budget.CurrencyRateSnapshot;
+import ru.anikeeva.finance.services.user.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TransactionStreamImportServiceTest {
+    private static final String HEADER = "type,category,initialAmount,initialCurrency,dateTime,description\n";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UserDetailsImpl currentUser = new UserDetailsImpl(userId, "user", "password",
+        new SimpleGrantedAuthority("ROLE_USER"), true);
+    private final UserService userService = mock(UserService.class);
+    private final CurrencyRateService currencyRateService = mock(CurrencyRateService.class);
+    private final TransactionBatchRepository transactionBatchRepository = mock(TransactionBatchRepository.class);
+    private final TransactionArchiveService transactionArchiveService = mock(TransactionArchiveService.class);
+    private final ImportJobScheduler importJobScheduler = mock(ImportJobScheduler.class);
+    private final UserWriteLaneExecutor writeLaneExecutor = mock(UserWriteLaneExecutor.class);
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    public void setUp() {
+        when(userService.findUserById(userId))
+            .thenReturn(User.builder().id(userId).baseCurrency(Currency.getInstance("RUB")).build());
+        when(currencyRateService.getCurrencyRateSnapshot(anyCollection())).thenReturn(new CurrencyRateSnapshot(Map.of(
+            Currency.getInstance("RUB"), BigDecimal.ONE)));
+        doAnswer(invocation -> chunkSizes.add(invocation.<List<Transaction>>getArgument(0).size()))
+            .when(transactionBatchRepository).insertAll(any());
+        when(importJobScheduler.runExclusive(eq(userId), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        when(writeLaneExecutor.execute(eq(userId), any()))
+            .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    @DisplayName("Строки сохраняются частями по мере чтения, ошибочные строки пропускаются")
+    public void streamCommitsChunksAndSkipsBadRows() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 250; i++) csv.append("EXPENSE,food,10.00,RUB,2024-01-01T10:00:00,Покупка\n");
+        csv.append("EXPENSE,food,-5.00,RUB,2024-01-01T10:00:00,Ошибка\n");
+
+        ImportJobResponse response = service(100_000).importTransactions(currentUser, body(csv.toString()), -1, false);
+
+        assertEquals(250L, response.imported());
+        assertEquals(1L, response.skipped());
+        assertEquals(List.of(100, 100, 50), chunkSizes);
+        ArgumentCaptor<BigDecimal> changes = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(userService, times(3)).recalculateBalance(eq(userId), changes.capture());
+        assertEquals(0, new BigDecimal("-2500.00")
+            .compareTo(changes.getAllValues().stream().reduce(BigDecimal::add).orElseThrow()));
+        verify(importJobScheduler, never()).submitFile(any(), any());
+        verify(importJobScheduler).runExclusive(eq(userId), any());
+        verify(writeLaneExecutor, times(3)).execute(eq(userId), any());
+    }
+
+    @Test
+    @DisplayName("Потоковый импорт отклоняется, пока у пользователя выполняется другой импорт")
+    public void streamRejectedWhileUserImportIsActive() {
+        doThrow(new ImportQueueFullException("Импорт пользователя уже выполняется, повторите попытку позже"))
+            .when(importJobScheduler).runExclusive(eq(userId), any());
+        String csv = HEADER + "EXPENSE,food,10.00,RUB,2024-01-01T10:00:00,Покупка\n";
+
+        assertThrows(ImportQueueFullException.class,
+            () -> service(100_000).importTransactions(currentUser, body(csv), -1, false));
+
+        verify(transactionBatchRepository, never()).insertAll(any());
+    }
+
+    @Test
+    @DisplayName("Транзакции из архивного периода сверяются с отпечатками архива")
+    public void streamSkipsTransactionsAlreadyInArchive() {
+        String csv = HEADER + "EXPENSE,food,10.00,RUB,2019-06-01T10:00:00,Покупка\n" +
+            "INCOME,salary,100.00,RUB,2024-01-02T10:00:00,Зарплата\n";
+        String archivedPurchase = new TransactionFingerprints().next(Transaction.builder()
+            .type(ETransactionType.EXPENSE)
+            .initialAmount(new BigDecimal("10.00"))
+            .initialCurrency(Currency.getInstance("RUB"))
+            .dateTime(LocalDateTime.of(2019, 6, 1, 10, 0))
+            .description("Покупка")
+            .build());
+        LocalDateTime archivedUntil = LocalDateTime.of(2021, 1, 1, 0, 0);
+        when(transactionArchiveService.archivedUntil(userId)).thenReturn(archivedUntil);
+        when(transactionArchiveService.findFingerprints(userId, LocalDateTime.of(2019, 6, 1, 10, 0),
+            LocalDateTime.of(2019, 6, 1, 10, 0))).thenReturn(Set.of(archivedPurchase));
+
+        ImportJobResponse response = service(100_000).importTransactions(currentUser, body(csv), -1, false);
+
+        assertEquals(1L, response.imported());
+        assertEquals(1L, response.duplicates());
+        assertEquals(List.of(1), chunkSizes);
+    }
+
+    @Test
+    @DisplayName("Ранее сохраненные транзакции пропускаются как дубликаты и не меняют баланс")
+    public void streamSkipsAlreadyImportedTransactions() {
+        String csv = HEADER + "EXPENSE,food,10.00,RUB,2024-01-01T10:00:00,Покупка\n" +
+            "EXPENSE,food,10.00,RUB,2024-01-01T10:00:00,Покупка\n" +
+            "INCOME,salary,100.00,RUB,2024-01-02T10:00:00,Зарплата\n";
+        TransactionFingerprints fingerprints = new TransactionFingerprints();
+        String firstPurchase = fingerprints.next(Transaction.builder()
+            .type(ETransactionType.EXPENSE)
+            .initialAmount(new BigDecimal("10.00"))
+            .initialCurrency(Currency.getInstance("RUB"))
+            .dateTime(LocalDateTime.of(2024, 1, 1, 10, 0))
+            .description("Покупка")
+            .build());
+        when(transactionBatchRepository.findExistingFingerprints(eq(userId), anyCollection()))
+            .thenReturn(Set.of(firstPurchase));
+
+        ImportJobResponse response = service(100_000).importTransactions(currentUser, body(csv), -1, false);
+
+        assertEquals(2L, response.imported());
+        assertEquals(1L, response.duplicates());
+        assertEquals(List.of(2), chunkSizes);
+        ArgumentCaptor<BigDecimal> change = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(userService).recalculateBalance(eq(userId), change.capture());
+        assertEquals(0, new BigDecimal("90.00").compareTo(change.getValue()));
+    }
+
+    @Test
+    @DisplayName("Превышение лимита строк прерывает импорт, уже сохраненные части остаются")
+    public void streamStopsOnRowLimit() {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < 150; i++) csv.append("INCOME,salary,1.00,RUB,2024-01-01T10:00:00,Доход\n");
+
+        BadDataException exception = assertThrows(BadDataException.class,
+            () -> service(120).importTransactions(currentUser, body(csv.toString()), -1, false));
+
+        assertTrue(exception.getMessage().contains("Сохранено транзакций: 100"));
+        assertEquals(List.of(100), chunkSizes);
+    }
+
+    @Test
+    @DisplayName("Выписка QIF в потоковом импорте разбирается тем же ридером, что и в batch-импорте")
+    public void streamReadsQifStatement() throws Exception {
+        String qif = """
+            !Type:Bank
+            D12/31'23
+            T-1,234.56
+            PПятерочка
+            Lfood
+            ^
+            D1/ 5/2024
+            T500.00
+            PEmployer
+            ^
+            """;
+        Path statement = Files.createTempFile(directory, "statement-", ".tmp");
+        when(importJobScheduler.createSpoolFile()).thenReturn(statement);
+
+        ImportJobResponse response = service(100_000).importTransactions(currentUser, body(qif), -1, false);
+
+        assertEquals(2L, response.imported());
+        assertEquals(0L, response.skipped());
+        assertEquals(List.of(2), chunkSizes);
+        assertTrue(Files.notExists(statement));
+        verify(importJobScheduler, never()).submitFile(any(), any());
+    }
+
+    @Test
+    @DisplayName("Перезапускаемый импорт сохраняет поток во временный файл и ставит batch-задачу в очередь")
+    public void restartableImportSpoolsToFile() throws Exception {
+        String csv = HEADER + "EXPENSE,food,10.00,RUB,2024-01-01T10:00:00,Покупка\n";
+        List<String> spooled = new ArrayList<>();
+        when(importJobScheduler.createSpoolFile()).thenReturn(Files.createTempFile(directory, "transactions-", ".csv"));
+        when(importJobScheduler.submitFile(eq(userId), any(Path.class))).thenAnswer(invocation -> {
+            Path file = invocation.getArgument(1);
+            spooled.add(Files.readString(file));
+            Files.delete(file);
+            return new ImportJobResponse("job", 0, null, null, null, "Импорт файла запущен");
+        });
+
+        ImportJobResponse response = service(100_000).importTransactions(currentUser, body(csv), csv.length(), true);
+
+        assertEquals("job", response.jobId());
+        assertEquals(List.of(csv), spooled);
+        verify(transactionBatchRepository, never()).insertAll(any());
+    }
+
+    private TransactionStreamImportService service(final long maxRows) {
+        return new TransactionStreamImportService(userService, currencyRateService, transactionBatchRepository,
+            transactionArchiveService, importJobScheduler, writeLaneExecutor,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 1_048_576, maxRows, 1_048_576);
+    }
+
+    private static ByteArrayInputStream body(final String csv) {
+        return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package ru.anikeeva.finance.services.imports;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TransactionTotalsWriterTest {
+    @Test
+    @DisplayName("Итоги по типам накапливаются только для зафиксированных чанков")
+    public void totalsFollowCommittedChunks() throws Exception {
+        List<Transaction> written = new ArrayList<>();
+        TransactionTotalsWriter writer = new TransactionTotalsWriter(chunk -> written.addAll(chunk.getItems()));
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        writer.write(new Chunk<>(transaction(ETransactionType.INCOME, "100.00", null),
+            transaction(ETransactionType.EXPENSE, "30.00", "27.50")));
+        writer.update(context);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            writer.write(new Chunk<>(transaction(ETransactionType.EXPENSE, "999.00", null)));
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        writer.write(new Chunk<>(transaction(ETransactionType.EXPENSE, "12.50", null)));
+        writer.update(context);
+
+        assertEquals(4, written.size());
+        assertEquals("100.00", context.getString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "INCOME"));
+        assertEquals("40.00", context.getString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "EXPENSE"));
+    }
+
+    @Test
+    @DisplayName("При поэлементной записи после ошибки чанка итоги учитывают все записанные строки")
+    public void totalsIncludeEveryItemWrittenDuringScan() throws Exception {
+        TransactionTotalsWriter writer = new TransactionTotalsWriter(chunk -> { });
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+
+        writer.write(new Chunk<>(transaction(ETransactionType.INCOME, "100.00", null)));
+        writer.write(new Chunk<>(transaction(ETransactionType.EXPENSE, "30.00", null)));
+        writer.write(new Chunk<>(transaction(ETransactionType.EXPENSE, "12.50", null)));
+        writer.update(context);
+        writer.update(context);
+
+        assertEquals("100.00", context.getString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "INCOME"));
+        assertEquals("42.50", context.getString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "EXPENSE"));
+    }
+
+    @Test
+    @DisplayName("Итоги восстанавливаются при перезапуске и суммируются по партициям задачи")
+    public void totalsAreRestoredAndAggregatedPerJob() throws Exception {
+        JobExecution jobExecution = new JobExecution(new JobInstance(1L, "importJob"), 2L, new JobParameters());
+        ExecutionContext first = jobExecution.createStepExecution("importWorkerStep:partition0").getExecutionContext();
+        first.putString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "INCOME", "10.00");
+        first.putString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "EXPENSE", "5.00");
+        ExecutionContext second = jobExecution.createStepExecution("importWorkerStep:partition1").getExecutionContext();
+        TransactionTotalsWriter writer = new TransactionTotalsWriter(chunk -> { });
+
+        assertNull(TransactionTotalsWriter.totalsOf(jobExecution));
+
+        second.putString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "INCOME", "1.00");
+        second.putString(TransactionTotalsWriter.TOTAL_KEY_PREFIX + "EXPENSE", "0");
+        writer.open(second);
+        writer.write(new Chunk<>(transaction(ETransactionType.EXPENSE, "2.00", null)));
+        writer.update(second);
+
+        assertEquals(Map.of(ETransactionType.INCOME, new BigDecimal("11.00"),
+            ETransactionType.EXPENSE, new BigDecimal("7.00")), TransactionTotalsWriter.totalsOf(jobExecution));
+    }
+
+    private static Transaction transaction(final ETransactionType type, final String initialAmount,
+                                           final String amountInBaseCurrency) {
+        return Transaction.builder()
+            .type(type)
+            .initialAmount(new BigDecimal(initialAmount))
+            .amountInBaseCurrency(amountInBaseCurrency == null ? null : new BigDecimal(amountInBaseCurrency))
+            .build();
+    }
+}
@@ -0,0 +1,210 @@
+package ru.anikeeva.finance.services.ledger;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.ELedgerEntryType;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.entities.ledger.BalanceSnapshot;
+import ru.anikeeva.finance.entities.ledger.LedgerEntry;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.repositories.ledger.BalanceSnapshotRepository;
+import ru.anikeeva.finance.repositories.ledger.LedgerEntryBatchRepository;
+import ru.anikeeva.finance.repositories.ledger.LedgerEntryRepository;
+import ru.anikeeva.finance.repositories.user.UserRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class LedgerServiceTest {
+    @Mock
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Mock
+    private LedgerEntryBatchRepository ledgerEntryBatchRepository;
+
+    @Mock
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private LedgerService ledgerService;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    public void setUp() {
+        ledgerService = new LedgerService(ledgerEntryRepository, ledgerEntryBatchRepository,
+            balanceSnapshotRepository, userRepository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Запись расхода в журнал в базовой валюте со знаком минус")
+    public void recordTransactionUsesSignedAmountInBaseCurrency() {
+        Transaction transaction = transaction(ETransactionType.EXPENSE, BigDecimal.valueOf(100),
+            BigDecimal.valueOf(9000));
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+
+        ledgerService.recordTransaction(transaction);
+
+        verify(userRepository).lockBalance(userId);
+        verify(ledgerEntryRepository).save(entryCaptor.capture());
+        assertEquals(ELedgerEntryType.TRANSACTION, entryCaptor.getValue().getType());
+        assertEquals(BigDecimal.valueOf(-9000), entryCaptor.getValue().getAmount());
+    }
+
+    @Test
+    @DisplayName("Сторнирование действующей записи журнала")
+    public void recordReversalNegatesEffectiveEntry() {
+        Transaction transaction = transaction(ETransactionType.EXPENSE, BigDecimal.valueOf(100),
+            BigDecimal.valueOf(9000));
+        LedgerEntry effective = LedgerEntry.builder().id(42L).userId(userId).transactionId(transaction.getId())
+            .type(ELedgerEntryType.TRANSACTION).amount(BigDecimal.valueOf(-8500)).build();
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+
+        when(ledgerEntryRepository.findUnreversedByTransactionId(transaction.getId(), ELedgerEntryType.TRANSACTION))
+            .thenReturn(List.of(effective));
+        ledgerService.recordReversal(transaction);
+
+        verify(ledgerEntryRepository).save(entryCaptor.capture());
+        assertEquals(ELedgerEntryType.REVERSAL, entryCaptor.getValue().getType());
+        assertEquals(BigDecimal.valueOf(8500), entryCaptor.getValue().getAmount());
+        assertEquals(42L, entryCaptor.getValue().getReversesEntryId());
+    }
+
+    @Test
+    @DisplayName("Сторнирование транзакции, созданной до появления журнала")
+    public void recordReversalFallsBackToTransactionAmount() {
+        Transaction transaction = transaction(ETransactionType.INCOME, BigDecimal.valueOf(700),
+            BigDecimal.valueOf(700));
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+
+        when(ledgerEntryRepository.findUnreversedByTransactionId(transaction.getId(), ELedgerEntryType.TRANSACTION))
+            .thenReturn(List.of());
+        ledgerService.recordReversal(transaction);
+
+        verify(ledgerEntryRepository).save(entryCaptor.capture());
+        assertEquals(BigDecimal.valueOf(-700), entryCaptor.getValue().getAmount());
+        assertNull(entryCaptor.getValue().getReversesEntryId());
+    }
+
+    @Test
+    @DisplayName("Баланс рассчитывается как снимок плюс хвост журнала")
+    public void calculateBalanceAddsTailToSnapshot() {
+        BalanceSnapshot snapshot = BalanceSnapshot.builder().userId(userId).lastEntryId(10)
+            .balance(BigDecimal.valueOf(1000)).build();
+
+        when(balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)).thenReturn(Optional.of(snapshot));
+        when(ledgerEntryRepository.sumAfter(userId, 10)).thenReturn(BigDecimal.valueOf(-250));
+
+        assertEquals(BigDecimal.valueOf(750), ledgerService.calculateBalance(userId));
+    }
+
+    @Test
+    @DisplayName("Первый снимок создает начальную запись из текущего баланса")
+    public void createSnapshotCreatesOpeningEntry() {
+        ArgumentCaptor<LedgerEntry> entryCaptor = ArgumentCaptor.forClass(LedgerEntry.class);
+        ArgumentCaptor<BalanceSnapshot> snapshotCaptor = ArgumentCaptor.forClass(BalanceSnapshot.class);
+
+        when(userRepository.lockBalance(userId)).thenReturn(BigDecimal.valueOf(5000));
+        when(ledgerEntryRepository.existsByUserIdAndType(userId, ELedgerEntryType.OPENING)).thenReturn(false);
+        when(ledgerEntryRepository.sumAfter(userId, 0)).thenReturn(BigDecimal.valueOf(1200), BigDecimal.valueOf(5000));
+        when(ledgerEntryRepository.findLastEntryId(userId)).thenReturn(7L);
+        when(balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)).thenReturn(Optional.empty());
+        ledgerService.createSnapshot(userId);
+
+        verify(ledgerEntryRepository).save(entryCaptor.capture());
+        assertEquals(ELedgerEntryType.OPENING, entryCaptor.getValue().getType());
+        assertEquals(BigDecimal.valueOf(3800), entryCaptor.getValue().getAmount());
+        verify(balanceSnapshotRepository).save(snapshotCaptor.capture());
+        assertEquals(7L, snapshotCaptor.getValue().getLastEntryId());
+        assertEquals(BigDecimal.valueOf(5000), snapshotCaptor.getValue().getBalance());
+    }
+
+    @Test
+    @DisplayName("Снимок не создается, если журнал не изменился")
+    public void createSnapshotSkipsWhenNoNewEntries() {
+        BalanceSnapshot snapshot = BalanceSnapshot.builder().userId(userId).lastEntryId(7)
+            .balance(BigDecimal.valueOf(5000)).build();
+
+        when(userRepository.lockBalance(userId)).thenReturn(BigDecimal.valueOf(5000));
+        when(ledgerEntryRepository.existsByUserIdAndType(userId, ELedgerEntryType.OPENING)).thenReturn(true);
+        when(ledgerEntryRepository.findLastEntryId(userId)).thenReturn(7L);
+        when(balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)).thenReturn(Optional.of(snapshot));
+        ledgerService.createSnapshot(userId);
+
+        verify(balanceSnapshotRepository, never()).save(any(BalanceSnapshot.class));
+    }
+
+    @Test
+    @DisplayName("Сверка выявляет расхождение снимка с журналом")
+    public void verifyUserDetectsSnapshotMismatch() {
+        BalanceSnapshot latest = BalanceSnapshot.builder().userId(userId).lastEntryId(20)
+            .balance(BigDecimal.valueOf(900)).build();
+        BalanceSnapshot previous = BalanceSnapshot.builder().userId(userId).lastEntryId(10)
+            .balance(BigDecimal.valueOf(1000)).build();
+        User user = new User();
+        user.setBalance(BigDecimal.valueOf(900));
+
+        when(balanceSnapshotRepository.findTop2ByUserIdOrderByLastEntryIdDesc(userId))
+            .thenReturn(List.of(latest, previous));
+        when(balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)).thenReturn(Optional.of(latest));
+        when(ledgerEntryRepository.sumBetween(userId, 10, 20)).thenReturn(BigDecimal.valueOf(-50));
+        when(ledgerEntryRepository.sumAfter(userId, 20)).thenReturn(BigDecimal.ZERO);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertFalse(ledgerService.verifyUser(userId));
+    }
+
+    @Test
+    @DisplayName("Сверка согласованного журнала")
+    public void verifyUserAcceptsConsistentLedger() {
+        BalanceSnapshot latest = BalanceSnapshot.builder().userId(userId).lastEntryId(20)
+            .balance(BigDecimal.valueOf(950)).build();
+        BalanceSnapshot previous = BalanceSnapshot.builder().userId(userId).lastEntryId(10)
+            .balance(BigDecimal.valueOf(1000)).build();
+        User user = new User();
+        user.setBalance(BigDecimal.valueOf(1050));
+
+        when(balanceSnapshotRepository.findTop2ByUserIdOrderByLastEntryIdDesc(userId))
+            .thenReturn(List.of(latest, previous));
+        when(balanceSnapshotRepository.findTopByUserIdOrderByLastEntryIdDesc(userId)).thenReturn(Optional.of(latest));
+        when(ledgerEntryRepository.sumBetween(userId, 10, 20)).thenReturn(BigDecimal.valueOf(-50));
+        when(ledgerEntryRepository.sumAfter(userId, 20)).thenReturn(BigDecimal.valueOf(100));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        assertTrue(ledgerService.verifyUser(userId));
+    }
+
+    private Transaction transaction(final ETransactionType type, final BigDecimal initialAmount,
+                                    final BigDecimal amountInBaseCurrency) {
+        User user = new User();
+        user.setId(userId);
+        return Transaction.builder()
+            .id(UUID.randomUUID())
+            .user(user)
+            .type(type)
+            .initialAmount(initialAmount)
+            .amountInBaseCurrency(amountInBaseCurrency)
+            .build();
+    }
+}
@@ -0,0 +1,225 @@
+package ru.anikeeva.finance.services.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import ru.anikeeva.finance.entities.budget.Transaction;
+import ru.anikeeva.finance.entities.enums.EOutboxEventType;
+import ru.anikeeva.finance.entities.enums.ETransactionCategory;
+import ru.anikeeva.finance.entities.enums.ETransactionType;
+import ru.anikeeva.finance.entities.outbox.OutboxEvent;
+import ru.anikeeva.finance.entities.user.User;
+import ru.anikeeva.finance.repositories.outbox.OutboxEventRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxServiceTest {
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxConsumer notificationConsumer;
+
+    @Mock
+    private OutboxConsumer auditConsumer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxService outboxService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @BeforeEach
+    public void setUp() {
+        lenient().when(notificationConsumer.name()).thenReturn("budget-notifications");
+        lenient().when(notificationConsumer.supports(EOutboxEventType.TRANSACTION_CREATED)).thenReturn(true);
+        lenient().when(auditConsumer.name()).thenReturn("audit");
+        lenient().when(auditConsumer.supports(any())).thenReturn(true);
+        outboxService = new OutboxService(outboxEventRepository, List.of(notificationConsumer, auditConsumer),
+            objectMapper, new SimpleMeterRegistry(), transactionManager, 100, 3, 1000, 30000);
+    }
+
+    @Test
+    @DisplayName("Публикация события транзакции в outbox")
+    public void publishSavesEventWithTransactionPayload() throws Exception {
+        Transaction transaction = transaction();
+        ArgumentCaptor<OutboxEvent> eventCaptor = ArgumentCaptor.forClass(OutboxEvent.class);
+
+        outboxService.publish(EOutboxEventType.TRANSACTION_CREATED, transaction);
+
+        verify(outboxEventRepository).save(eventCaptor.capture());
+        OutboxEvent event = eventCaptor.getValue();
+        assertEquals(EOutboxEventType.TRANSACTION_CREATED, event.getType());
+        assertEquals(transaction.getUser().getId(), event.getUserId());
+        assertEquals(transaction.getId(), event.getAggregateId());
+        assertEquals(TransactionEvent.of(transaction), objectMapper.readValue(event.getPayload(), TransactionEvent.class));
+        assertNotNull(event.getNextAttemptAt());
+    }
+
+    @Test
+    @DisplayName("Доставка события всем подписанным обработчикам")
+    public void dispatchBatchDeliversEventToSupportingConsumers() throws Exception {
+        OutboxEvent event = pendingEvent(EOutboxEventType.TRANSACTION_CREATED);
+        when(outboxEventRepository.lockPendingBatch(any(LocalDateTime.class), eq(100))).thenReturn(List.of(event));
+
+        assertEquals(new OutboxDispatchResult(1, 0), outboxService.dispatchBatch());
+
+        verify(notificationConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+        verify(auditConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+        assertNotNull(event.getProcessedAt());
+        assertEquals(1, event.getAttempts());
+    }
+
+    @Test
+    @DisplayName("Повторная доставка вызывает только обработчики, завершившиеся ошибкой")
+    public void dispatchBatchRetriesOnlyFailedConsumers() throws Exception {
+        OutboxEvent event = pendingEvent(EOutboxEventType.TRANSACTION_CREATED);
+        when(outboxEventRepository.lockPendingBatch(any(LocalDateTime.class), eq(100))).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("Брокер недоступен")).doNothing()
+            .when(notificationConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+
+        outboxService.dispatchBatch();
+
+        assertNull(event.getProcessedAt());
+        assertTrue(event.getDeliveredTo().contains("audit"));
+        assertTrue(event.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        outboxService.dispatchBatch();
+
+        verify(notificationConsumer, times(2)).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+        verify(auditConsumer, times(1)).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+        assertNotNull(event.getProcessedAt());
+    }
+
+    @Test
+    @DisplayName("Ошибка базы данных в обработчике откатывает только его собственную транзакцию")
+    public void dispatchBatchIsolatesConsumerFailureInOwnTransaction() throws Exception {
+        OutboxEvent event = pendingEvent(EOutboxEventType.TRANSACTION_CREATED);
+        when(outboxEventRepository.lockPendingBatch(any(LocalDateTime.class), eq(100))).thenReturn(List.of(event));
+        doThrow(new DataAccessResourceFailureException("Соединение с базой данных потеряно"))
+            .when(notificationConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+
+        assertEquals(new OutboxDispatchResult(1, 1), outboxService.dispatchBatch());
+
+        verify(transactionManager, times(2)).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        verify(transactionManager).rollback(any());
+        verify(transactionManager).commit(any());
+        assertEquals(1, event.getAttempts());
+        assertNull(event.getProcessedAt());
+        assertTrue(event.getLastError().startsWith("budget-notifications"));
+        assertTrue(event.getDeliveredTo().contains("audit"));
+    }
+
+    @Test
+    @DisplayName("Задержка повторной доставки растет с числом попыток и ограничена сверху")
+    public void dispatchBatchSchedulesExponentialRetry() throws Exception {
+        OutboxEvent first = pendingEvent(EOutboxEventType.TRANSACTION_CREATED);
+        OutboxEvent later = pendingEvent(EOutboxEventType.TRANSACTION_CREATED);
+        later.setAttempts(1);
+        OutboxService retryingService = new OutboxService(outboxEventRepository, List.of(notificationConsumer),
+            objectMapper, new SimpleMeterRegistry(), transactionManager, 100, 20, 1000, 30000);
+        when(outboxEventRepository.lockPendingBatch(any(LocalDateTime.class), eq(100)))
+            .thenReturn(List.of(first, later));
+        doThrow(new IllegalStateException("Брокер недоступен"))
+            .when(notificationConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+
+        LocalDateTime before = LocalDateTime.now();
+        assertEquals(new OutboxDispatchResult(2, 2), retryingService.dispatchBatch());
+
+        assertTrue(!first.getNextAttemptAt().isBefore(before.plusSeconds(1)));
+        assertTrue(first.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+        assertTrue(!later.getNextAttemptAt().isBefore(before.plusSeconds(2)));
+
+        later.setAttempts(15);
+        retryingService.dispatchBatch();
+
+        assertTrue(later.getNextAttemptAt().isBefore(LocalDateTime.now().plusSeconds(31)));
+        assertNull(later.getProcessedAt());
+    }
+
+    @Test
+    @DisplayName("Событие исключается из обработки после исчерпания попыток")
+    public void dispatchBatchGivesUpAfterMaxAttempts() throws Exception {
+        OutboxEvent event = pendingEvent(EOutboxEventType.TRANSACTION_CREATED);
+        event.setAttempts(2);
+        when(outboxEventRepository.lockPendingBatch(any(LocalDateTime.class), eq(100))).thenReturn(List.of(event));
+        doThrow(new IllegalStateException("Брокер недоступен"))
+            .when(notificationConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+
+        outboxService.dispatchBatch();
+
+        assertNotNull(event.getProcessedAt());
+        assertEquals(3, event.getAttempts());
+        assertTrue(event.getLastError().startsWith("budget-notifications"));
+    }
+
+    @Test
+    @DisplayName("Событие удаления не передается обработчику уведомлений")
+    public void dispatchBatchSkipsUnsupportedConsumers() throws Exception {
+        OutboxEvent event = pendingEvent(EOutboxEventType.TRANSACTION_DELETED);
+        when(outboxEventRepository.lockPendingBatch(any(LocalDateTime.class), eq(100))).thenReturn(List.of(event));
+
+        outboxService.dispatchBatch();
+
+        verify(notificationConsumer, never()).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+        verify(auditConsumer).handle(any(OutboxEvent.class), any(TransactionEvent.class));
+        assertNotNull(event.getProcessedAt());
+    }
+
+    private OutboxEvent pendingEvent(final EOutboxEventType type) throws Exception {
+        Transaction transaction = transaction();
+        return OutboxEvent.builder()
+            .id(UUID.randomUUID())
+            .type(type)
+            .userId(transaction.getUser().getId())
+            .aggregateId(transaction.getId())
+            .payload(objectMapper.writeValueAsString(TransactionEvent.of(transaction)))
+            .createdAt(LocalDateTime.now().minusSeconds(5))
+            .build();
+    }
+
+    private static Transaction transaction() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return Transaction.builder()
+            .id(UUID.randomUUID())
+            .user(user)
+            .type(ETransactionType.EXPENSE)
+            .category(ETransactionCategory.CAFE)
+            .initialAmount(BigDecimal.valueOf(500))
+            .initialCurrency(Currency.getInstance("RUB"))
+            .amountInBaseCurrency(BigDecimal.valueOf(500))
+            .dateTime(LocalDateTime.of(2025, 3, 1, 12, 0))
+            .build();
+    }
+}
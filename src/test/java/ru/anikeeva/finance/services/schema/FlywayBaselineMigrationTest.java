@@ -0,0 +1,116 @@
+package ru.anikeeva.finance.services.schema;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.YamlPropertiesFactoryBean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Testcontainers(disabledWithoutDocker = true)
+public class FlywayBaselineMigrationTest {
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    @DisplayName("Миграции применяются к схеме, созданной Hibernate до перехода на Flyway")
+    public void migrateUpgradesHibernateGeneratedSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(),
+            postgres.getUsername(), postgres.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        createLegacySchema(jdbcTemplate);
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO users (id, username, password, role, balance, base_currency, is_enabled, " +
+            "is_email_active, is_mailing_agree) VALUES (?, 'legacy', 'password', 'USER', 100, 'RUB', true, true, true)",
+            userId);
+
+        Properties properties = applicationProperties();
+        Flyway flyway = Flyway.configure()
+            .dataSource(dataSource)
+            .baselineOnMigrate(Boolean.parseBoolean(properties.getProperty("spring.flyway.baseline-on-migrate")))
+            .baselineVersion(properties.getProperty("spring.flyway.baseline-version"))
+            .load();
+
+        assertTrue(flyway.migrate().success);
+        assertEquals(0, flyway.info().pending().length);
+        assertEquals(0L, jdbcTemplate.queryForObject("SELECT version FROM users WHERE id = ?", Long.class, userId));
+        for (String table : new String[]{"outbox_event", "outbox_event_delivery", "ledger_entry", "balance_snapshot",
+            "transaction_partitioned"}) {
+            assertTrue(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table), table);
+        }
+    }
+
+    private static void createLegacySchema(final JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+            CREATE TABLE users (
+                id UUID NOT NULL PRIMARY KEY,
+                username VARCHAR(255) NOT NULL UNIQUE,
+                email VARCHAR(255) UNIQUE,
+                password VARCHAR(255) NOT NULL,
+                role VARCHAR(255) NOT NULL,
+                balance NUMERIC(38, 2),
+                base_currency VARCHAR(3),
+                is_enabled BOOLEAN NOT NULL,
+                is_email_active BOOLEAN NOT NULL,
+                is_mailing_agree BOOLEAN NOT NULL
+            )""");
+        jdbcTemplate.execute("""
+            CREATE TABLE transaction (
+                id UUID NOT NULL PRIMARY KEY,
+                user_id UUID REFERENCES users (id),
+                type VARCHAR(255) NOT NULL,
+                category VARCHAR(255) NOT NULL,
+                initial_amount NUMERIC(38, 2),
+                initial_currency VARCHAR(3),
+                amount_in_base_currency NUMERIC(38, 2),
+                date_time TIMESTAMP(6) NOT NULL,
+                description VARCHAR(255),
+                job_id BIGINT
+            )""");
+        jdbcTemplate.execute("""
+            CREATE TABLE budgets (
+                id UUID NOT NULL PRIMARY KEY,
+                user_id UUID NOT NULL REFERENCES users (id),
+                limit_amount NUMERIC(38, 2) NOT NULL,
+                period VARCHAR(255) NOT NULL,
+                category VARCHAR(255) NOT NULL
+            )""");
+        jdbcTemplate.execute("""
+            CREATE TABLE currency_rates (
+                id UUID NOT NULL PRIMARY KEY,
+                currency VARCHAR(3) NOT NULL,
+                name VARCHAR(255) NOT NULL,
+                value_in_relation_to_base_currency NUMERIC(38, 2),
+                updated_at TIMESTAMP(6) NOT NULL,
+                source VARCHAR(255)
+            )""");
+        jdbcTemplate.execute("""
+            CREATE TABLE refresh_tokens_black_list (
+                id UUID NOT NULL PRIMARY KEY,
+                token VARCHAR(255) NOT NULL UNIQUE
+            )""");
+        jdbcTemplate.execute("""
+            CREATE TABLE verification_tokens (
+                id UUID NOT NULL PRIMARY KEY,
+                token VARCHAR(255),
+                user_id UUID NOT NULL REFERENCES users (id),
+                expiry_date TIMESTAMP(6)
+            )""");
+    }
+
+    private static Properties applicationProperties() {
+        YamlPropertiesFactoryBean yaml = new YamlPropertiesFactoryBean();
+        yaml.setResources(new ClassPathResource("application.yml"));
+        return yaml.getObject();
+    }
+}
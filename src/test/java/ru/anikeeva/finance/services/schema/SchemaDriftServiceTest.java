@@ -0,0 +1,74 @@
+package ru.anikeeva.finance.services.schema;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SchemaDriftServiceTest {
+    @Test
+    @DisplayName("Схема со всеми валидными индексами не считается разошедшейся")
+    public void findDriftReturnsNothingWhenAllIndexesPresent() throws Exception {
+        Map<String, Boolean> indexes = new HashMap<>();
+        SchemaDriftService.REQUIRED_INDEXES.forEach(index -> indexes.put(index, true));
+
+        SchemaDriftService service = new SchemaDriftService(jdbcTemplateWith(indexes), true);
+
+        assertTrue(service.findDrift().isEmpty());
+        assertDoesNotThrow(service::verifySchema);
+    }
+
+    @Test
+    @DisplayName("Отсутствующий и невалидный индексы считаются расхождением")
+    public void findDriftReportsMissingAndInvalidIndexes() throws Exception {
+        Map<String, Boolean> indexes = new HashMap<>();
+        SchemaDriftService.REQUIRED_INDEXES.forEach(index -> indexes.put(index, true));
+        indexes.remove("idx_transaction_job_id");
+        indexes.put("idx_transaction_description_fts", false);
+
+        SchemaDriftService service = new SchemaDriftService(jdbcTemplateWith(indexes), true);
+
+        List<String> drift = service.findDrift();
+        assertEquals(List.of("индекс idx_transaction_description_fts невалиден",
+            "отсутствует индекс idx_transaction_job_id"), drift);
+        assertThrows(IllegalStateException.class, service::verifySchema);
+    }
+
+    @Test
+    @DisplayName("При отключенной проверке расхождение только логируется")
+    public void verifySchemaDoesNotFailWhenDisabled() throws Exception {
+        SchemaDriftService service = new SchemaDriftService(jdbcTemplateWith(Map.of()), false);
+
+        assertDoesNotThrow(service::verifySchema);
+    }
+
+    private static JdbcTemplate jdbcTemplateWith(Map<String, Boolean> indexes) throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Map.Entry<String, Boolean> index : indexes.entrySet()) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString("name")).thenReturn(index.getKey());
+                when(rs.getBoolean("valid")).thenReturn(index.getValue());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        return jdbcTemplate;
+    }
+}
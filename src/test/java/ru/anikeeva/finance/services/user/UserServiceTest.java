@@ -25,7 +25,9 @@ import ru.anikeeva.finance.exceptions.EntityNotFoundException;
 import ru.anikeeva.finance.exceptions.NoRightsException;
 import ru.anikeeva.finance.mappers.UserMapper;
 import ru.anikeeva.finance.repositories.user.UserRepository;
+import ru.anikeeva.finance.security.impl.UserDetailsCache;
 import ru.anikeeva.finance.security.impl.UserDetailsImpl;
+import ru.anikeeva.finance.services.ledger.LedgerService;
 
 import java.math.BigDecimal;
 import java.util.Currency;
@@ -54,6 +56,12 @@ public class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private LedgerService ledgerService;
+
     @Captor
     ArgumentCaptor<User> userCaptor;
 
@@ -169,6 +177,7 @@ public class UserServiceTest {
         userService.recalculateBalance(id, changes);
 
         verify(userRepository, times(1)).updateBalance(id, changes);
+        verify(ledgerService).recordImport(id, changes);
     }
 
     @Test
@@ -306,6 +315,8 @@ public class UserServiceTest {
 
         verify(userRepository).save(userCaptor.capture());
         assertEquals(updatedUser, userCaptor.getValue());
+        verify(userDetailsCache).invalidate(testUserData.firstUsername);
+        verify(userDetailsCache).invalidate(request.username());
     }
 
     @Test
@@ -368,6 +379,7 @@ public class UserServiceTest {
 
         verify(userRepository).save(userCaptor.capture());
         assertEquals(updatedUser, userCaptor.getValue());
+        verify(userDetailsCache).invalidate(testUserData.firstUsername);
     }
 
     @Test
@@ -411,6 +423,7 @@ public class UserServiceTest {
 
         verify(userRepository).save(userCaptor.capture());
         assertEquals(deletedUser, userCaptor.getValue());
+        verify(userDetailsCache).invalidate(testUserData.firstUsername);
     }
 
     @Test
@@ -438,6 +451,7 @@ public class UserServiceTest {
 
         verify(userRepository).save(userCaptor.capture());
         assertEquals(updatedUser, userCaptor.getValue());
+        verify(userDetailsCache).invalidate(testUserData.firstUsername);
     }
 
     @Test